@@ -0,0 +1,81 @@
+package com.teamdashboard.lambda.benchmark;
+
+import com.amazonaws.serverless.proxy.model.ApiGatewayRequestIdentity;
+import com.amazonaws.serverless.proxy.model.AwsProxyRequest;
+import com.amazonaws.serverless.proxy.model.AwsProxyRequestContext;
+import com.amazonaws.serverless.proxy.model.AwsProxyResponse;
+import com.amazonaws.serverless.proxy.model.Headers;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.teamdashboard.LambdaHandler;
+import com.teamdashboard.lambda.StartupProfiler;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * AppCDSアーカイブ作成用のトレーニング実行
+ *
+ * API Gatewayイベントのフィクスチャ（test-event.json と同じ形式）をLambdaHandlerに流し、
+ * コールドスタートから代表的なリクエスト処理までに読み込まれるクラスを洗い出す。
+ * -XX:ArchiveClassesAtExit=app-cds.jsa を付けて起動すると、終了時にアーカイブが書き出される（Dockerfile.lambda参照）。
+ * アプリのクラスパスを実行時と同じにするため、このパッケージは cds-training.jar として --module-path から読み込む。
+ * 引数: フィクスチャのディレクトリ（既定 cds-training）、繰り返し回数（既定 2）
+ */
+public final class CdsTrainingRun {
+
+    private CdsTrainingRun() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        File fixtureDir = new File(args.length > 0 ? args[0] : "cds-training");
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+
+        File[] fixtures = fixtureDir.listFiles((dir, name) -> name.endsWith(".json"));
+        if (fixtures == null || fixtures.length == 0) {
+            throw new IllegalArgumentException("No training fixtures found in " + fixtureDir.getAbsolutePath());
+        }
+        Arrays.sort(fixtures);
+
+        ObjectMapper objectMapper = new ObjectMapper()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        LambdaHandler handler = new LambdaHandler();
+
+        // 2回目以降はウォーム状態のリクエスト処理で使われるクラスを拾う
+        for (int round = 1; round <= rounds; round++) {
+            for (File fixture : fixtures) {
+                AwsProxyRequest request = toRequest(objectMapper.readValue(fixture, AwsProxyRequest.class));
+                long start = System.nanoTime();
+                AwsProxyResponse response = handler.handleRequest(request, new LocalLambdaContext(true));
+                System.out.println(String.format("CDS training [%d/%d] %s -> %d (%dms)", round, rounds,
+                        fixture.getName(), response.getStatusCode(), (System.nanoTime() - start) / 1_000_000));
+            }
+        }
+
+        System.out.println(objectMapper.writeValueAsString(StartupProfiler.report(null)));
+        System.exit(0);
+    }
+
+    /**
+     * フィクスチャはAPI Gatewayの最小形式のため、コンテナハンドラーが参照する項目を補う
+     */
+    private static AwsProxyRequest toRequest(AwsProxyRequest request) {
+        if (request.getRequestContext() == null) {
+            request.setRequestContext(new AwsProxyRequestContext());
+        }
+        if (request.getRequestContext().getIdentity() == null) {
+            request.getRequestContext().setIdentity(new ApiGatewayRequestIdentity());
+        }
+        if (request.getMultiValueHeaders() == null || request.getMultiValueHeaders().isEmpty()) {
+            Headers headers = new Headers();
+            if (request.getHeaders() != null) {
+                for (Map.Entry<String, String> header : request.getHeaders().entrySet()) {
+                    headers.putSingle(header.getKey(), header.getValue());
+                }
+            }
+            request.setMultiValueHeaders(headers);
+        }
+        return request;
+    }
+}
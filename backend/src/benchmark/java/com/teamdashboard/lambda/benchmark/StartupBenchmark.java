@@ -0,0 +1,60 @@
+package com.teamdashboard.lambda.benchmark;
+
+import com.amazonaws.serverless.proxy.model.ApiGatewayRequestIdentity;
+import com.amazonaws.serverless.proxy.model.AwsProxyRequest;
+import com.amazonaws.serverless.proxy.model.AwsProxyRequestContext;
+import com.amazonaws.serverless.proxy.model.AwsProxyResponse;
+import com.amazonaws.serverless.proxy.model.Headers;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.teamdashboard.LambdaHandler;
+import com.teamdashboard.lambda.LambdaContainerStats;
+import com.teamdashboard.lambda.SpringAot;
+import com.teamdashboard.lambda.StartupProfiler;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LambdaHandlerのコールドスタートを1回計測し、結果をJSON1行で出力する
+ *
+ * 1プロセス＝1コールドスタートとして、benchmark-lambda-startup.ps1 から通常起動・AOT起動を交互に繰り返し実行する。
+ * 引数: 初回リクエストのパス（既定 /health）
+ */
+public final class StartupBenchmark {
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String path = args.length > 0 ? args[0] : "/health";
+
+        long initStart = System.nanoTime();
+        LambdaHandler handler = new LambdaHandler();
+        long handlerMillis = (System.nanoTime() - initStart) / 1_000_000;
+
+        AwsProxyRequest request = new AwsProxyRequest();
+        request.setHttpMethod("GET");
+        request.setPath(path);
+        request.setMultiValueHeaders(new Headers());
+        AwsProxyRequestContext requestContext = new AwsProxyRequestContext();
+        requestContext.setIdentity(new ApiGatewayRequestIdentity());
+        request.setRequestContext(requestContext);
+
+        long requestStart = System.nanoTime();
+        AwsProxyResponse response = handler.handleRequest(request, new LocalLambdaContext(true));
+        long firstRequestMillis = (System.nanoTime() - requestStart) / 1_000_000;
+
+        Map<String, Object> container = LambdaContainerStats.snapshot();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("type", "startup-benchmark");
+        result.put("aot", SpringAot.isActive());
+        result.put("jvmToReadyMillis", container.get("jvmToReadyMillis"));
+        result.put("handlerInitMillis", handlerMillis);
+        result.put("startup", StartupProfiler.report(null));
+        result.put("firstRequestPath", path);
+        result.put("firstRequestStatus", response.getStatusCode());
+        result.put("firstRequestMillis", firstRequestMillis);
+        System.out.println(new ObjectMapper().writeValueAsString(result));
+        System.exit(0);
+    }
+}
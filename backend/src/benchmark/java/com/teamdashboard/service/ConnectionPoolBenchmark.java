@@ -0,0 +1,187 @@
+package com.teamdashboard.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.teamdashboard.config.ConnectionPoolMetrics;
+import com.zaxxer.hikari.HikariDataSource;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ピーク時の同時リクエスト数でコネクションプールが枯渇しないかを計測し、結果をJSON1行で出力する
+ *
+ * application.yml と同じ設定（プールサイズ・取得タイムアウト・リーク検知）の HikariCP を作り、
+ * 同時リクエスト数のスレッドがそれぞれ「コネクション取得 → 主キー検索3回・更新1回 → 処理時間だけ保持 → コミット」を繰り返す。
+ * timeouts が0で、acquire の最大がタイムアウトより十分小さければ、その同時数ではプールが足りている。
+ * 引数: JDBC URL（既定 H2 インメモリ）、ユーザー名（既定 sa）、パスワード（既定 空）、同時リクエスト数（既定 64）、
+ *       計測秒数（既定 10）、1リクエストでコネクションを保持するミリ秒（既定 5）、プールサイズ（既定 10）
+ */
+public final class ConnectionPoolBenchmark {
+
+    private static final int ROWS = 1000;
+
+    private ConnectionPoolBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String url = args.length > 0 ? args[0] : "jdbc:h2:mem:pool-benchmark;DB_CLOSE_DELAY=-1";
+        String username = args.length > 1 ? args[1] : "sa";
+        String password = args.length > 2 ? args[2] : "";
+        int concurrency = args.length > 3 ? Integer.parseInt(args[3]) : 64;
+        int seconds = args.length > 4 ? Integer.parseInt(args[4]) : 10;
+        int holdMillis = args.length > 5 ? Integer.parseInt(args[5]) : 5;
+        int poolSize = args.length > 6 ? Integer.parseInt(args[6]) : 10;
+
+        ConnectionPoolMetrics poolMetrics = new ConnectionPoolMetrics();
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        dataSource.setPoolName("pool-benchmark");
+        dataSource.setMaximumPoolSize(poolSize);
+        dataSource.setMinimumIdle(poolSize);
+        dataSource.setConnectionTimeout(5000);
+        dataSource.setLeakDetectionThreshold(60000);
+        poolMetrics.postProcessBeforeInitialization(dataSource, "dataSource");
+        poolMetrics.postProcessAfterInitialization(dataSource, "dataSource");
+
+        Map<String, Object> output = new LinkedHashMap<>();
+        try {
+            setUp(dataSource);
+            output.put("type", "connection-pool-benchmark");
+            output.put("url", url.replaceAll("password=[^&;]*", "password=***"));
+            output.put("concurrency", concurrency);
+            output.put("seconds", seconds);
+            output.put("holdMillis", holdMillis);
+            output.put("poolSize", poolSize);
+            output.putAll(run(dataSource, concurrency, seconds, holdMillis));
+            output.put("pool", poolMetrics.metrics().get("pool-benchmark"));
+        } finally {
+            try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+                statement.execute("DROP TABLE pool_benchmark");
+            }
+            dataSource.close();
+        }
+        System.out.println(new ObjectMapper().writeValueAsString(output));
+        System.exit(0);
+    }
+
+    private static void setUp(HikariDataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("DROP TABLE IF EXISTS pool_benchmark");
+                statement.execute("CREATE TABLE pool_benchmark (id BIGINT PRIMARY KEY, hits BIGINT NOT NULL)");
+            }
+            try (PreparedStatement insert = connection.prepareStatement("INSERT INTO pool_benchmark (id, hits) VALUES (?, 0)")) {
+                for (int id = 0; id < ROWS; id++) {
+                    insert.setLong(1, id);
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+        }
+    }
+
+    private static Map<String, Object> run(HikariDataSource dataSource, int concurrency, int seconds, int holdMillis)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        AtomicLong requests = new AtomicLong();
+        AtomicLong timeouts = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        AtomicInteger maxPending = new AtomicInteger();
+        List<List<Long>> latencies = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(concurrency);
+
+        for (int i = 0; i < concurrency; i++) {
+            List<Long> threadLatencies = new ArrayList<>();
+            latencies.add(threadLatencies);
+            Thread worker = new Thread(() -> {
+                try {
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        try {
+                            request(dataSource, holdMillis);
+                            threadLatencies.add(System.nanoTime() - start);
+                            requests.incrementAndGet();
+                        } catch (SQLTransientConnectionException e) {
+                            timeouts.incrementAndGet();
+                        } catch (SQLException | InterruptedException e) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                } finally {
+                    done.countDown();
+                }
+            }, "pool-benchmark-" + i);
+            worker.start();
+        }
+        // 取得待ちのスレッド数の最大を見る
+        while (!done.await(10, TimeUnit.MILLISECONDS)) {
+            if (dataSource.getHikariPoolMXBean() != null) {
+                maxPending.accumulateAndGet(dataSource.getHikariPoolMXBean().getThreadsAwaitingConnection(), Math::max);
+            }
+        }
+
+        List<Long> all = new ArrayList<>();
+        latencies.forEach(all::addAll);
+        Collections.sort(all);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("requests", requests.get());
+        result.put("requestsPerSecond", Math.round(requests.get() / (double) seconds));
+        result.put("p50Millis", percentileMillis(all, 50));
+        result.put("p99Millis", percentileMillis(all, 99));
+        result.put("maxMillis", percentileMillis(all, 100));
+        result.put("timeouts", timeouts.get());
+        result.put("errors", errors.get());
+        result.put("maxPending", maxPending.get());
+        return result;
+    }
+
+    /**
+     * 日報の投稿1件に近い処理（参照3回・更新1回）を1トランザクションで行い、holdMillis だけコネクションを保持する
+     */
+    private static void request(HikariDataSource dataSource, int holdMillis) throws SQLException, InterruptedException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement select = connection.prepareStatement("SELECT hits FROM pool_benchmark WHERE id = ?")) {
+                for (int i = 0; i < 3; i++) {
+                    select.setLong(1, ThreadLocalRandom.current().nextInt(ROWS));
+                    try (ResultSet resultSet = select.executeQuery()) {
+                        resultSet.next();
+                    }
+                }
+            }
+            try (PreparedStatement update = connection.prepareStatement("UPDATE pool_benchmark SET hits = hits + 1 WHERE id = ?")) {
+                update.setLong(1, ThreadLocalRandom.current().nextInt(ROWS));
+                update.executeUpdate();
+            }
+            if (holdMillis > 0) {
+                Thread.sleep(holdMillis);
+            }
+            connection.commit();
+        }
+    }
+
+    private static double percentileMillis(List<Long> sortedNanos, int percentile) {
+        if (sortedNanos.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(sortedNanos.size() * percentile / 100.0) - 1;
+        long nanos = sortedNanos.get(Math.max(0, Math.min(index, sortedNanos.size() - 1)));
+        return Math.round(nanos / 10_000.0) / 100.0;
+    }
+}
@@ -0,0 +1,287 @@
+package com.teamdashboard.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.teamdashboard.dto.DailyReportImportResult;
+import com.teamdashboard.entity.DailyReport;
+import com.teamdashboard.entity.User;
+import com.teamdashboard.repository.DailyReportRepository;
+import com.teamdashboard.repository.UserRepository;
+import com.teamdashboard.repository.UserRepositoryImpl;
+import com.teamdashboard.repository.WorkloadRollupRepository;
+import com.teamdashboard.repository.WorkloadRollupRepositoryImpl;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.data.repository.core.support.RepositoryComposition.RepositoryFragments;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionInterceptor;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 日報の一括取り込みのコストを計測し、結果をJSON1行で出力する
+ *
+ * Springコンテキストを使わずにコネクションプール・JPA（application.yml と同じバッチ設定）とサービスを組み立て、
+ * 毎回スキーマを作り直した空のデータベースに同じ日報を保存する。
+ * 比較対象:
+ *   perRow … createReport と同じ手順（1件ごとにトランザクション・ユーザー検索・重複チェック・保存・集計の更新）
+ *   bulk   … DailyReportImportService で同じ内容のCSVを取り込む（チャンクごとのトランザクション・バッチINSERT）
+ * jdbcRoundTrips はデータベースへの実行回数（バッチは1回と数える）。
+ * 引数: JDBC URL（既定 H2 インメモリ。PostgreSQL は jdbc:postgresql://localhost:5432/team_dashboard?reWriteBatchedInserts=true 等）、
+ *       ユーザー名（既定 sa）、パスワード（既定 空）、日報の件数（既定 5000）、ユーザー数（既定 100）、計測回数（既定 1）
+ */
+public final class DailyReportImportBenchmark {
+
+    private static final Set<String> EXECUTE_METHODS = Set.of("execute", "executeQuery", "executeUpdate",
+            "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    private DailyReportImportBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String url = args.length > 0 ? args[0] : "jdbc:h2:mem:import-benchmark;DB_CLOSE_DELAY=-1";
+        String username = args.length > 1 ? args[1] : "sa";
+        String password = args.length > 2 ? args[2] : "";
+        int reports = args.length > 3 ? Integer.parseInt(args[3]) : 5000;
+        int users = args.length > 4 ? Integer.parseInt(args[4]) : 100;
+        int rounds = args.length > 5 ? Integer.parseInt(args[5]) : 1;
+
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        LocalDate firstDate = LocalDate.now().minusDays((reports + users - 1) / users);
+        byte[] csv = csv(reports, users, firstDate);
+
+        Map<String, Object> results = new LinkedHashMap<>();
+        results.put("perRow", measure(url, username, password, users, rounds, database -> {
+            TransactionTemplate transaction = new TransactionTemplate(database.transactionManager);
+            for (int i = 0; i < reports; i++) {
+                String author = "user" + (i % users);
+                LocalDate reportDate = firstDate.plusDays(i / users);
+                int workloadLevel = 1 + i % 5;
+                transaction.executeWithoutResult(status -> {
+                    User user = database.userRepository.findByUsername(author).orElseThrow();
+                    if (database.dailyReportRepository.findByUserAndReportDate(user, reportDate).isPresent()) {
+                        return;
+                    }
+                    DailyReport report = new DailyReport(user, "作業内容 " + reportDate, workloadLevel);
+                    report.setReportDate(reportDate);
+                    database.workloadRollupService.add(database.dailyReportRepository.save(report));
+                });
+            }
+            return reports;
+        }));
+        results.put("bulk", measure(url, username, password, users, rounds, database -> {
+            DailyReportImportResult result = database.importService(objectMapper)
+                    .importReports(DailyReportService.ExportFormat.CSV, new ByteArrayInputStream(csv));
+            return result.imported();
+        }));
+
+        Map<String, Object> output = new LinkedHashMap<>();
+        output.put("type", "report-import-benchmark");
+        output.put("url", url.replaceAll("password=[^&;]*", "password=***"));
+        output.put("reports", reports);
+        output.put("users", users);
+        output.put("rounds", rounds);
+        output.put("results", results);
+        System.out.println(objectMapper.writeValueAsString(output));
+        System.exit(0);
+    }
+
+    private static Map<String, Object> measure(String url, String username, String password, int users, int rounds,
+                                               Scenario scenario) throws Exception {
+        List<Double> millis = new ArrayList<>();
+        long saved = 0;
+        long statements = 0;
+        long roundTrips = 0;
+        for (int i = 0; i < rounds; i++) {
+            Database database = new Database(url, username, password, users);
+            try {
+                database.reset();
+                long start = System.nanoTime();
+                saved = scenario.run(database);
+                millis.add((System.nanoTime() - start) / 1_000_000.0);
+                statements = database.statistics.getPrepareStatementCount();
+                roundTrips = database.roundTrips.get();
+            } finally {
+                database.close();
+            }
+        }
+        double median = median(millis);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("medianMillis", median);
+        result.put("reportsPerSecond", Math.round(saved * 1000 / Math.max(median, 0.001)));
+        result.put("saved", saved);
+        result.put("preparedStatements", statements);
+        result.put("jdbcRoundTrips", roundTrips);
+        return result;
+    }
+
+    private static byte[] csv(int reports, int users, LocalDate firstDate) {
+        StringBuilder csv = new StringBuilder("username,reportDate,workContent,workloadLevel\r\n");
+        for (int i = 0; i < reports; i++) {
+            LocalDate reportDate = firstDate.plusDays(i / users);
+            csv.append("user").append(i % users).append(',').append(reportDate)
+                    .append(",作業内容 ").append(reportDate).append(',').append(1 + i % 5).append("\r\n");
+        }
+        return csv.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static double median(List<Double> values) {
+        List<Double> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        int mid = sorted.size() / 2;
+        double median = sorted.size() % 2 == 0 ? (sorted.get(mid - 1) + sorted.get(mid)) / 2 : sorted.get(mid);
+        return Math.round(median * 100.0) / 100.0;
+    }
+
+    private interface Scenario {
+
+        /**
+         * @return 保存した日報の件数
+         */
+        long run(Database database) throws Exception;
+    }
+
+    /**
+     * スキーマを作り直したデータベースと、その上のリポジトリ・サービス
+     */
+    private static final class Database {
+
+        final AtomicLong roundTrips = new AtomicLong();
+        final HikariDataSource dataSource;
+        final LocalContainerEntityManagerFactoryBean factoryBean = new LocalContainerEntityManagerFactoryBean();
+        final JpaTransactionManager transactionManager;
+        final Statistics statistics;
+        final DailyReportRepository dailyReportRepository;
+        final UserRepository userRepository;
+        final WorkloadRollupService workloadRollupService;
+        private final int users;
+
+        Database(String url, String username, String password, int users) {
+            this.users = users;
+            dataSource = new HikariDataSource();
+            dataSource.setJdbcUrl(url);
+            dataSource.setUsername(username);
+            dataSource.setPassword(password);
+            factoryBean.setDataSource(new CountingDataSource(dataSource));
+            factoryBean.setPackagesToScan("com.teamdashboard.entity");
+            factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+            factoryBean.setJpaPropertyMap(Map.of(
+                    "hibernate.hbm2ddl.auto", "create-drop",
+                    "hibernate.generate_statistics", "true",
+                    "hibernate.session.events.log", "false",
+                    "hibernate.jdbc.batch_size", "50",
+                    "hibernate.order_inserts", "true",
+                    "hibernate.order_updates", "true"));
+            factoryBean.afterPropertiesSet();
+            EntityManagerFactory entityManagerFactory = factoryBean.getObject();
+            transactionManager = new JpaTransactionManager(entityManagerFactory);
+            statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+            EntityManager entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+            JpaRepositoryFactory repositories = new JpaRepositoryFactory(entityManager);
+            dailyReportRepository = repositories.getRepository(DailyReportRepository.class);
+            userRepository = repositories.getRepository(UserRepository.class,
+                    RepositoryFragments.just(new UserRepositoryImpl(entityManager)));
+            workloadRollupService = transactional(new WorkloadRollupService(
+                    repositories.getRepository(WorkloadRollupRepository.class,
+                            RepositoryFragments.just(new WorkloadRollupRepositoryImpl(entityManager))),
+                    dailyReportRepository));
+        }
+
+        DailyReportImportService importService(ObjectMapper objectMapper) {
+            return new DailyReportImportService(dailyReportRepository, userRepository, workloadRollupService,
+                    objectMapper, transactionManager, 1000);
+        }
+
+        /**
+         * ユーザーだけを作り、計測の対象外の実行回数を数え直す
+         */
+        void reset() {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                for (int i = 0; i < users; i++) {
+                    userRepository.save(new User("user" + i, "password", "user" + i + "@example.com", "ユーザー" + i));
+                }
+            });
+            statistics.clear();
+            roundTrips.set(0);
+        }
+
+        void close() {
+            factoryBean.destroy();
+            dataSource.close();
+        }
+
+        /**
+         * @Transactional を効かせる（Springコンテキストの代わり）
+         */
+        @SuppressWarnings("unchecked")
+        private <T> T transactional(T target) {
+            ProxyFactory proxyFactory = new ProxyFactory(target);
+            proxyFactory.setProxyTargetClass(true);
+            proxyFactory.addAdvice(new TransactionInterceptor(transactionManager,
+                    new AnnotationTransactionAttributeSource()));
+            return (T) proxyFactory.getProxy();
+        }
+
+        /**
+         * SQLの実行回数を数えるデータソース
+         */
+        private final class CountingDataSource extends DelegatingDataSource {
+
+            CountingDataSource(HikariDataSource target) {
+                super(target);
+            }
+
+            @Override
+            public Connection getConnection() throws SQLException {
+                return counting(super.getConnection(), Connection.class);
+            }
+
+            @SuppressWarnings("unchecked")
+            private <T> T counting(T target, Class<T> type) {
+                return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+                    if (EXECUTE_METHODS.contains(method.getName())) {
+                        roundTrips.incrementAndGet();
+                    }
+                    try {
+                        Object result = method.invoke(target, args);
+                        if (result instanceof PreparedStatement statement) {
+                            return counting(statement, PreparedStatement.class);
+                        }
+                        if (result instanceof Statement statement) {
+                            return counting(statement, Statement.class);
+                        }
+                        return result;
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+            }
+        }
+    }
+}
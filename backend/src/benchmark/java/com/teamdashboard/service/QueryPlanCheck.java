@@ -0,0 +1,414 @@
+package com.teamdashboard.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.teamdashboard.dto.DailyReportResponse;
+import com.teamdashboard.entity.IssueStatus;
+import com.teamdashboard.entity.RollupPeriod;
+import com.teamdashboard.entity.RollupScope;
+import com.teamdashboard.entity.TeamIssue;
+import com.teamdashboard.entity.User;
+import com.teamdashboard.repository.DailyReportRepository;
+import com.teamdashboard.repository.IssueCommentRepository;
+import com.teamdashboard.repository.TeamIssueJpaRepository;
+import com.teamdashboard.repository.UserRepository;
+import com.teamdashboard.repository.UserRepositoryImpl;
+import com.teamdashboard.repository.WorkloadRollupRepository;
+import com.teamdashboard.repository.WorkloadRollupRepositoryImpl;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.flywaydb.core.Flyway;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.data.repository.core.support.RepositoryComposition.RepositoryFragments;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * よく実行するリポジトリのクエリが大きなテーブルを全件読んでいないかを、PostgreSQLの実行計画で確認し、結果をJSON1行で出力する
+ *
+ * 確認用のスキーマを作り直して db/migration/postgresql のマイグレーションを流し（エンティティとの食い違いは Hibernate の
+ * validate で失敗する）、日報・困りごと・コメント・負荷の集計を本番に近い件数で作って ANALYZE した後、各リポジトリのクエリを呼ぶ。
+ * JDBC に送られたSQLは、同じコネクション・同じパラメーターで EXPLAIN する。
+ * LARGE_TABLE_ROWS 件以上のテーブルを Seq Scan するクエリがあれば failures に数え、終了コード1で終わる。
+ * 引数: JDBC URL（PostgreSQLのみ。例 jdbc:postgresql://localhost:5432/team_dashboard）、ユーザー名（既定 postgres）、
+ *       パスワード（既定 空）、日報の件数（既定 200000。困りごとはその1/4、コメントは同じ件数）
+ */
+public final class QueryPlanCheck {
+
+    /** 確認用のスキーマ（毎回削除して作り直す） */
+    private static final String SCHEMA = "query_plan_check";
+
+    /** この件数以上のテーブルは全件読み（Seq Scan）を許さない */
+    private static final long LARGE_TABLE_ROWS = 10_000;
+
+    private static final int USERS = 500;
+
+    private static final LocalDate FIRST_DATE = LocalDate.of(2025, 1, 1);
+
+    private static final Set<String> EXECUTE_METHODS = Set.of("execute", "executeQuery", "executeUpdate",
+            "executeLargeUpdate");
+
+    private QueryPlanCheck() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0 || !args[0].startsWith("jdbc:postgresql:")) {
+            System.err.println("PostgreSQL の JDBC URL を指定してください（例 jdbc:postgresql://localhost:5432/team_dashboard）");
+            System.exit(2);
+        }
+        String url = args[0];
+        String username = args.length > 1 ? args[1] : "postgres";
+        String password = args.length > 2 ? args[2] : "";
+        int reports = args.length > 3 ? Integer.parseInt(args[3]) : 200_000;
+
+        Flyway flyway = Flyway.configure()
+                .dataSource(url, username, password)
+                .schemas(SCHEMA)
+                .locations("classpath:db/migration/postgresql")
+                .cleanDisabled(false)
+                .load();
+        flyway.clean();
+        int migrations = flyway.migrate().migrationsExecuted;
+
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        dataSource.setSchema(SCHEMA);
+        dataSource.setMaximumPoolSize(2);
+
+        Map<String, Object> output = new LinkedHashMap<>();
+        LocalContainerEntityManagerFactoryBean factoryBean = new LocalContainerEntityManagerFactoryBean();
+        try {
+            Map<String, Long> largeTables = seed(dataSource, reports);
+
+            ExplainingDataSource explaining = new ExplainingDataSource(dataSource, largeTables.keySet());
+            factoryBean.setDataSource(explaining);
+            factoryBean.setPackagesToScan("com.teamdashboard.entity");
+            factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+            // Spring Boot と同じ名前の付け方で、マイグレーションのテーブル・列がエンティティと一致するかを確認する
+            factoryBean.setJpaPropertyMap(Map.of(
+                    "hibernate.hbm2ddl.auto", "validate",
+                    "hibernate.physical_naming_strategy",
+                    "org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy",
+                    "hibernate.implicit_naming_strategy",
+                    "org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy",
+                    "hibernate.query.in_clause_parameter_padding", "true",
+                    "hibernate.session.events.log", "false"));
+            factoryBean.afterPropertiesSet();
+
+            List<Map<String, Object>> checks = run(factoryBean.getObject(), explaining, reports);
+            long failures = checks.stream().filter(check -> !((List<?>) check.get("seqScans")).isEmpty()).count();
+
+            output.put("type", "query-plan-check");
+            output.put("url", url.replaceAll("password=[^&;]*", "password=***"));
+            output.put("migrationsExecuted", migrations);
+            output.put("largeTables", largeTables);
+            output.put("checks", checks);
+            output.put("failures", failures);
+        } finally {
+            factoryBean.destroy();
+            dataSource.close();
+        }
+        System.out.println(new ObjectMapper().writeValueAsString(output));
+        System.exit(((Number) output.getOrDefault("failures", 1L)).longValue() == 0 ? 0 : 1);
+    }
+
+    /**
+     * ユーザー・日報（ユーザーごとに1日1件）・困りごと（5%が未解決）・コメント・負荷の集計を作り、統計を取り直す
+     * @return LARGE_TABLE_ROWS 件以上のテーブルと件数
+     */
+    private static Map<String, Long> seed(HikariDataSource dataSource, int reports) throws SQLException {
+        int days = Math.max(1, reports / USERS);
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO users (username, password, email, display_name, department, created_at, updated_at)"
+                    + " SELECT 'user' || g, 'password', 'user' || g || '@example.com', 'ユーザー' || g, '部署' || (g % 20),"
+                    + " now(), now() FROM generate_series(1, " + USERS + ") g");
+            statement.execute("INSERT INTO daily_reports (id, user_id, report_date, work_content, workload_level,"
+                    + " created_at, updated_at)"
+                    + " SELECT row_number() OVER (), u.id, DATE '" + FIRST_DATE + "' + d, '作業内容',"
+                    + " CASE WHEN (u.id + d) % 10 = 0 THEN NULL ELSE 1 + (u.id + d) % 5 END,"
+                    + " TIMESTAMP '" + FIRST_DATE + " 18:00' + d * INTERVAL '1 day' + u.id * INTERVAL '1 second',"
+                    + " TIMESTAMP '" + FIRST_DATE + " 18:00' + d * INTERVAL '1 day' + u.id * INTERVAL '1 second'"
+                    + " FROM users u CROSS JOIN generate_series(0, " + (days - 1) + ") d");
+            statement.execute("SELECT setval('daily_reports_seq', (SELECT MAX(id) FROM daily_reports))");
+            statement.execute("INSERT INTO team_issues (user_id, content, status, created_at, resolved_at)"
+                    + " SELECT 1 + g % " + USERS + ", '困りごと', CASE WHEN g % 20 = 0 THEN 'OPEN' ELSE 'RESOLVED' END,"
+                    + " TIMESTAMP '" + FIRST_DATE + "' + g * INTERVAL '1 minute',"
+                    + " CASE WHEN g % 20 = 0 THEN NULL ELSE TIMESTAMP '" + FIRST_DATE + "' + g * INTERVAL '2 minute' END"
+                    + " FROM generate_series(1, " + Math.max(1, reports / 4) + ") g");
+            statement.execute("INSERT INTO issue_comments (issue_id, user_id, content, created_at)"
+                    + " SELECT i.id, 1 + g % " + USERS + ", 'コメント', i.created_at + g * INTERVAL '1 second'"
+                    + " FROM generate_series(1, " + reports + ") g"
+                    + " JOIN team_issues i ON i.id = 1 + g % (SELECT COUNT(*) FROM team_issues)");
+            // WorkloadRollupService.rebuild と同じ集計を SQL で作る（ユーザー・部署 × 日・週）
+            statement.execute("INSERT INTO workload_rollups (id, scope, scope_key, period, period_start,"
+                    + " level1_count, level2_count, level3_count, level4_count, level5_count)"
+                    + " SELECT row_number() OVER (), scope, scope_key, period, period_start, l1, l2, l3, l4, l5 FROM ("
+                    + rollupSelect("'USER'", "u.username") + " UNION ALL " + rollupSelect("'DEPARTMENT'", "u.department")
+                    + ") r");
+            statement.execute("SELECT setval('workload_rollups_seq', (SELECT MAX(id) FROM workload_rollups))");
+            statement.execute("ANALYZE");
+
+            Map<String, Long> largeTables = new TreeMap<>();
+            try (ResultSet resultSet = statement.executeQuery("SELECT c.relname, c.reltuples::bigint FROM pg_class c"
+                    + " JOIN pg_namespace n ON n.oid = c.relnamespace"
+                    + " WHERE n.nspname = '" + SCHEMA + "' AND c.relkind = 'r' AND c.reltuples >= " + LARGE_TABLE_ROWS)) {
+                while (resultSet.next()) {
+                    largeTables.put(resultSet.getString(1), resultSet.getLong(2));
+                }
+            }
+            return largeTables;
+        }
+    }
+
+    private static String rollupSelect(String scope, String scopeKey) {
+        StringBuilder select = new StringBuilder("SELECT " + scope + " AS scope, " + scopeKey + " AS scope_key,"
+                + " p.period, CASE p.period WHEN 'DAY' THEN dr.report_date"
+                + " ELSE (date_trunc('week', dr.report_date))::date END AS period_start");
+        for (int level = 1; level <= 5; level++) {
+            select.append(", COUNT(*) FILTER (WHERE dr.workload_level = ").append(level).append(") AS l").append(level);
+        }
+        return select.append(" FROM daily_reports dr JOIN users u ON u.id = dr.user_id")
+                .append(" CROSS JOIN (VALUES ('DAY'), ('WEEK')) p(period)")
+                .append(" WHERE dr.workload_level IS NOT NULL AND ").append(scopeKey).append(" IS NOT NULL")
+                .append(" GROUP BY 1, 2, 3, 4")
+                .toString();
+    }
+
+    /**
+     * 各リポジトリのクエリを呼び、実行されたSQLの実行計画をクエリごとにまとめる
+     */
+    private static List<Map<String, Object>> run(EntityManagerFactory entityManagerFactory,
+                                                 ExplainingDataSource explaining, int reports) {
+        JpaTransactionManager transactionManager = new JpaTransactionManager(entityManagerFactory);
+        EntityManager entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+        JpaRepositoryFactory repositories = new JpaRepositoryFactory(entityManager);
+        DailyReportRepository dailyReports = repositories.getRepository(DailyReportRepository.class);
+        IssueCommentRepository issueComments = repositories.getRepository(IssueCommentRepository.class);
+        TeamIssueJpaRepository teamIssues = repositories.getRepository(TeamIssueJpaRepository.class);
+        WorkloadRollupRepository rollups = repositories.getRepository(WorkloadRollupRepository.class,
+                RepositoryFragments.just(new WorkloadRollupRepositoryImpl(entityManager)));
+        UserRepository users = repositories.getRepository(UserRepository.class,
+                RepositoryFragments.just(new UserRepositoryImpl(entityManager)));
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        User user = transaction.execute(status -> users.findByUsername("user" + USERS / 2).orElseThrow());
+        TeamIssue issue = transaction.execute(status -> teamIssues.findById(1L).orElseThrow());
+        LocalDate day = FIRST_DATE.plusDays(Math.max(1, reports / USERS) / 2);
+        LocalDate weekStart = day.minusDays(day.getDayOfWeek().getValue() - 1L);
+        LocalDate weekEnd = weekStart.plusDays(6);
+        List<Long> userIds = LongStream.rangeClosed(1, 100).boxed().collect(Collectors.toList());
+        PageRequest page = PageRequest.ofSize(IssueService.DEFAULT_PAGE_SIZE);
+
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("DailyReportRepository.findByUserOrderByReportDateDesc",
+                () -> dailyReports.findByUserOrderByReportDateDesc(user));
+        queries.put("DailyReportRepository.findByReportDateOrderByCreatedAtDesc",
+                () -> dailyReports.findByReportDateOrderByCreatedAtDesc(day));
+        queries.put("DailyReportRepository.findPageWithUser", () -> dailyReports.findPageWithUser(page));
+        queries.put("DailyReportRepository.findPageAfterWithUser",
+                () -> dailyReports.findPageAfterWithUser(day, (long) reports / 2, page));
+        queries.put("DailyReportRepository.findPageByReportDateBetweenWithUser",
+                () -> dailyReports.findPageByReportDateBetweenWithUser(weekStart, weekEnd, page));
+        queries.put("DailyReportRepository.findPageByReportDateBetweenAfterWithUser",
+                () -> dailyReports.findPageByReportDateBetweenAfterWithUser(weekStart, weekEnd, day,
+                        (long) reports / 2, page));
+        queries.put("DailyReportRepository.findByReportDateWithUserOrderByCreatedAtDesc",
+                () -> dailyReports.findByReportDateWithUserOrderByCreatedAtDesc(day));
+        queries.put("DailyReportRepository.findByUserAndReportDate",
+                () -> dailyReports.findByUserAndReportDate(user, day));
+        queries.put("DailyReportRepository.streamByReportDateBetween", () -> {
+            try (Stream<DailyReportResponse> stream = dailyReports.streamByReportDateBetween(weekStart, weekEnd)) {
+                stream.forEach(report -> { });
+            }
+        });
+        queries.put("DailyReportRepository.findByReportDateBetween",
+                () -> dailyReports.findByReportDateBetween(weekStart, weekEnd));
+        queries.put("DailyReportRepository.countWorkloadLevels",
+                () -> dailyReports.countWorkloadLevels(weekStart, weekEnd));
+        queries.put("DailyReportRepository.findUserIdAndReportDate",
+                () -> dailyReports.findUserIdAndReportDate(userIds, weekStart, weekEnd));
+        queries.put("DailyReportRepository.findByUserAndReportDateBetween",
+                () -> dailyReports.findByUserAndReportDateBetween(user, weekStart, weekEnd));
+        queries.put("IssueCommentRepository.findByIssueWithUserOrderByCreatedAtAsc",
+                () -> issueComments.findByIssueWithUserOrderByCreatedAtAsc(issue));
+        queries.put("IssueCommentRepository.findByIssueIdWithUserOrderByCreatedAtAsc",
+                () -> issueComments.findByIssueIdWithUserOrderByCreatedAtAsc(issue.getId()));
+        queries.put("IssueCommentRepository.findByUserOrderByCreatedAtDesc",
+                () -> issueComments.findByUserOrderByCreatedAtDesc(user));
+        queries.put("IssueCommentRepository.countByIssue", () -> issueComments.countByIssue(issue));
+        queries.put("IssueCommentRepository.countByIssueId", () -> issueComments.countByIssueId(issue.getId()));
+        queries.put("IssueCommentRepository.countByIssueIds", () -> issueComments.countByIssueIds(
+                teamIssues.findAllWithUser(page).stream().map(TeamIssue::getId).collect(Collectors.toList())));
+        queries.put("TeamIssueJpaRepository.findAllWithUser", () -> teamIssues.findAllWithUser(page));
+        queries.put("TeamIssueJpaRepository.findOpenWithUser", () -> teamIssues.findOpenWithUser(page));
+        queries.put("TeamIssueJpaRepository.findByStatusWithUser",
+                () -> teamIssues.findByStatusWithUser(IssueStatus.RESOLVED, page));
+        queries.put("WorkloadRollupRepository.findByScopeAndPeriodAndPeriodStartBetween",
+                () -> rollups.findByScopeAndPeriodAndPeriodStartBetweenOrderByScopeKeyAscPeriodStartAsc(
+                        RollupScope.DEPARTMENT, RollupPeriod.DAY, weekStart, weekEnd));
+        queries.put("WorkloadRollupRepository.findByScopeAndScopeKeyAndPeriodAndPeriodStartBetween",
+                () -> rollups.findByScopeAndScopeKeyAndPeriodAndPeriodStartBetweenOrderByPeriodStartAsc(
+                        RollupScope.USER, user.getUsername(), RollupPeriod.DAY, weekStart, weekEnd));
+        queries.put("WorkloadRollupRepository.addReport",
+                () -> rollups.addReport(user.getUsername(), user.getDepartment(), day, weekStart, 3));
+        queries.put("WorkloadRollupRepository.increment",
+                () -> rollups.increment(user.getUsername(), user.getDepartment(), day, weekStart, 3, 1));
+        queries.put("WorkloadRollupRepository.deleteByPeriodStartBetween",
+                () -> rollups.deleteByPeriodStartBetween(weekStart, weekEnd));
+
+        List<Map<String, Object>> checks = new ArrayList<>();
+        for (Map.Entry<String, Runnable> query : queries.entrySet()) {
+            explaining.plans.clear();
+            long start = System.nanoTime();
+            // 更新系のクエリも確認後に取り消す
+            transaction.executeWithoutResult(status -> {
+                query.getValue().run();
+                entityManager.flush();
+                status.setRollbackOnly();
+            });
+            Map<String, Object> check = new LinkedHashMap<>();
+            check.put("query", query.getKey());
+            check.put("millis", Math.round((System.nanoTime() - start) / 10_000.0) / 100.0);
+            check.put("statements", explaining.plans.size());
+            Set<String> indexes = new TreeSet<>();
+            Set<String> seqScans = new TreeSet<>();
+            for (Plan plan : explaining.plans) {
+                indexes.addAll(plan.indexes());
+                seqScans.addAll(plan.seqScans());
+            }
+            check.put("indexes", new ArrayList<>(indexes));
+            check.put("seqScans", new ArrayList<>(seqScans));
+            if (!seqScans.isEmpty()) {
+                check.put("sql", explaining.plans.stream().map(Plan::sql).collect(Collectors.toList()));
+            }
+            checks.add(check);
+        }
+        return checks;
+    }
+
+    /**
+     * 1つのSQLの実行計画で使われたインデックスと、全件読みされた大きなテーブル
+     */
+    private record Plan(String sql, Set<String> indexes, Set<String> seqScans) {
+    }
+
+    /**
+     * 実行するSQLを、実行の直前に同じパラメーターで EXPLAIN するデータソース
+     */
+    private static final class ExplainingDataSource extends DelegatingDataSource {
+
+        private final ObjectMapper objectMapper = new ObjectMapper();
+        private final Set<String> largeTables;
+        final List<Plan> plans = new ArrayList<>();
+
+        ExplainingDataSource(HikariDataSource target, Set<String> largeTables) {
+            super(target);
+            this.largeTables = largeTables;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            Connection connection = super.getConnection();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        Object result = invoke(connection, method, args);
+                        if (result instanceof PreparedStatement statement && method.getName().equals("prepareStatement")) {
+                            return explaining(connection, statement, (String) args[0]);
+                        }
+                        return result;
+                    });
+        }
+
+        private PreparedStatement explaining(Connection connection, PreparedStatement target, String sql) {
+            // パラメーターの設定（setLong(1, ...) 等。引数が1つの setFetchSize 等は除く）を記録しておき、EXPLAIN に同じ値を渡す
+            Map<Integer, Object[]> parameters = new TreeMap<>();
+            Map<Integer, Method> setters = new TreeMap<>();
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> {
+                        String name = method.getName();
+                        if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                            parameters.put(index, args);
+                            setters.put(index, method);
+                        } else if (name.equals("clearParameters")) {
+                            parameters.clear();
+                            setters.clear();
+                        } else if (EXECUTE_METHODS.contains(name) && (args == null || args.length == 0)) {
+                            explain(connection, sql, parameters, setters);
+                        }
+                        return invoke(target, method, args);
+                    });
+        }
+
+        private void explain(Connection connection, String sql, Map<Integer, Object[]> parameters,
+                             Map<Integer, Method> setters) throws Exception {
+            String head = sql.stripLeading().toLowerCase(Locale.ROOT);
+            if (!(head.startsWith("select") || head.startsWith("update") || head.startsWith("delete")
+                    || head.startsWith("with"))) {
+                return;
+            }
+            try (PreparedStatement explain = connection.prepareStatement("EXPLAIN (FORMAT JSON) " + sql)) {
+                for (Map.Entry<Integer, Object[]> parameter : parameters.entrySet()) {
+                    setters.get(parameter.getKey()).invoke(explain, parameter.getValue());
+                }
+                try (ResultSet resultSet = explain.executeQuery()) {
+                    resultSet.next();
+                    JsonNode root = objectMapper.readTree(resultSet.getString(1)).get(0).get("Plan");
+                    Set<String> indexes = new TreeSet<>();
+                    Set<String> seqScans = new TreeSet<>();
+                    collect(root, indexes, seqScans);
+                    plans.add(new Plan(sql, indexes, seqScans));
+                }
+            }
+        }
+
+        private void collect(JsonNode node, Set<String> indexes, Set<String> seqScans) {
+            if (node.has("Index Name")) {
+                indexes.add(node.get("Index Name").asText());
+            }
+            if ("Seq Scan".equals(node.path("Node Type").asText())
+                    && largeTables.contains(node.path("Relation Name").asText())) {
+                seqScans.add(node.path("Relation Name").asText());
+            }
+            for (JsonNode child : node.path("Plans")) {
+                collect(child, indexes, seqScans);
+            }
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package com.teamdashboard.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.teamdashboard.dto.RealtimeNotification.WorkloadStatusUpdate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.ByteArrayMessageConverter;
+import org.springframework.messaging.converter.CompositeMessageConverter;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.converter.StringMessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketExtension;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.messaging.StompSubProtocolHandler;
+import org.springframework.web.socket.messaging.SubProtocolWebSocketHandler;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * ブロードキャストのコストを計測し、結果をJSON1行で出力する
+ *
+ * Simple Broker と STOMPのサブプロトコルハンドラーをWebSocketサーバーなしで組み立て、
+ * メモリ上のセッションを接続・購読させた状態で /topic/workload-updates に通知を流す。
+ * 比較対象:
+ *   legacyMap   … 従来どおり通知ごとにMapを作り convertAndSend（メッセージコンバーターで変換）
+ *   preEncoded  … 通知ごとにレコードを1回だけバイト列に変換して送信
+ *   pipeline    … RealtimeBroadcastPipeline でまとめてから1回だけ変換して送信
+ * 引数: セッション数（既定 1000）、通知数（既定 200）、ユーザー数（既定 20）、計測回数（既定 10）
+ */
+public final class RealtimeBroadcastBenchmark {
+
+    private static final String TOPIC = "/topic/workload-updates";
+
+    private RealtimeBroadcastBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int sessions = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int notifications = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int users = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        int rounds = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        SimulatedBroker broker = new SimulatedBroker(sessions, objectMapper);
+        RealtimeBroadcastPipeline pipeline =
+                new RealtimeBroadcastPipeline(broker.template, objectMapper, new RealtimeEventLog(1024), 60_000, 200);
+
+        Map<String, Supplier<Runnable>> scenarios = new LinkedHashMap<>();
+        scenarios.put("legacyMap", () -> () -> {
+            for (int i = 0; i < notifications; i++) {
+                Map<String, Object> notification = new HashMap<>();
+                notification.put("type", "WORKLOAD_STATUS_UPDATE");
+                notification.put("userId", "user" + (i % users));
+                notification.put("displayName", "ユーザー" + (i % users));
+                notification.put("workloadLevel", "HIGH");
+                notification.put("projectCount", i);
+                notification.put("taskCount", i);
+                notification.put("timestamp", System.currentTimeMillis());
+                broker.template.convertAndSend(TOPIC, notification);
+            }
+        });
+        scenarios.put("preEncoded", () -> () -> {
+            for (int i = 0; i < notifications; i++) {
+                WorkloadStatusUpdate notification = WorkloadStatusUpdate.of(
+                        "user" + (i % users), "ユーザー" + (i % users), null, "HIGH", i, i);
+                broker.template.send(TOPIC, pipeline.encode(notification));
+            }
+        });
+        scenarios.put("pipeline", () -> () -> {
+            for (int i = 0; i < notifications; i++) {
+                String userId = "user" + (i % users);
+                pipeline.submit(TOPIC, userId, WorkloadStatusUpdate.of(userId, "ユーザー" + (i % users), null, "HIGH", i, i));
+            }
+            pipeline.flush();
+        });
+
+        Map<String, Object> results = new LinkedHashMap<>();
+        for (Map.Entry<String, Supplier<Runnable>> scenario : scenarios.entrySet()) {
+            Runnable run = scenario.getValue().get();
+            // ウォームアップ（JITと購読キャッシュ）
+            for (int i = 0; i < 3; i++) {
+                run.run();
+            }
+            List<Double> millis = new ArrayList<>();
+            broker.reset();
+            long serializationsBefore = broker.converterSerializations.get();
+            long pipelineBytesBefore = (long) pipeline.metrics().get("bytesOut");
+            long pipelineMessagesBefore = (long) pipeline.metrics().get("messagesOut");
+            for (int i = 0; i < rounds; i++) {
+                long start = System.nanoTime();
+                run.run();
+                millis.add((System.nanoTime() - start) / 1_000_000.0);
+            }
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("medianMillis", median(millis));
+            result.put("brokerMessagesPerRound", broker.brokerMessages.get() / rounds);
+            result.put("framesPerRound", broker.frames.get() / rounds);
+            result.put("frameBytesPerRound", broker.frameBytes.get() / rounds);
+            result.put("converterSerializationsPerRound",
+                    (broker.converterSerializations.get() - serializationsBefore) / rounds);
+            if ("pipeline".equals(scenario.getKey())) {
+                result.put("pipelineSerializationsPerRound",
+                        ((long) pipeline.metrics().get("messagesOut") - pipelineMessagesBefore) / rounds);
+                result.put("pipelinePayloadBytesPerRound",
+                        ((long) pipeline.metrics().get("bytesOut") - pipelineBytesBefore) / rounds);
+            }
+            results.put(scenario.getKey(), result);
+        }
+
+        Map<String, Object> output = new LinkedHashMap<>();
+        output.put("type", "realtime-broadcast-benchmark");
+        output.put("sessions", sessions);
+        output.put("notificationsPerRound", notifications);
+        output.put("users", users);
+        output.put("rounds", rounds);
+        output.put("results", results);
+        System.out.println(objectMapper.writeValueAsString(output));
+
+        pipeline.shutdown();
+        broker.stop();
+        System.exit(0);
+    }
+
+    private static double median(List<Double> values) {
+        List<Double> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        int mid = sorted.size() / 2;
+        double median = sorted.size() % 2 == 0 ? (sorted.get(mid - 1) + sorted.get(mid)) / 2 : sorted.get(mid);
+        return Math.round(median * 100.0) / 100.0;
+    }
+
+    /**
+     * WebSocketConfig と同じ Simple Broker 構成をチャネルの同期実行で組み立てたもの
+     */
+    private static final class SimulatedBroker {
+
+        final SimpMessagingTemplate template;
+        final AtomicLong brokerMessages = new AtomicLong();
+        final AtomicLong frames = new AtomicLong();
+        final AtomicLong frameBytes = new AtomicLong();
+        final AtomicLong converterSerializations = new AtomicLong();
+
+        private final SimpleBrokerMessageHandler brokerHandler;
+        private final SubProtocolWebSocketHandler webSocketHandler;
+
+        SimulatedBroker(int sessions, ObjectMapper objectMapper) throws Exception {
+            ExecutorSubscribableChannel clientInbound = new ExecutorSubscribableChannel();
+            ExecutorSubscribableChannel clientOutbound = new ExecutorSubscribableChannel();
+            ExecutorSubscribableChannel brokerChannel = new ExecutorSubscribableChannel();
+
+            brokerHandler = new SimpleBrokerMessageHandler(clientInbound, clientOutbound, brokerChannel,
+                    List.of("/topic", "/queue"));
+            brokerHandler.start();
+            brokerChannel.subscribe(message -> brokerMessages.incrementAndGet());
+
+            webSocketHandler = new SubProtocolWebSocketHandler(clientInbound, clientOutbound);
+            webSocketHandler.setDefaultProtocolHandler(new StompSubProtocolHandler());
+            webSocketHandler.start();
+
+            MappingJackson2MessageConverter jsonConverter = new MappingJackson2MessageConverter() {
+                @Override
+                protected Object convertToInternal(Object payload, MessageHeaders headers, Object conversionHint) {
+                    converterSerializations.incrementAndGet();
+                    return super.convertToInternal(payload, headers, conversionHint);
+                }
+            };
+            jsonConverter.setObjectMapper(objectMapper);
+            template = new SimpMessagingTemplate(brokerChannel);
+            template.setMessageConverter(new CompositeMessageConverter(List.of(
+                    new StringMessageConverter(), new ByteArrayMessageConverter(), jsonConverter)));
+
+            for (int i = 0; i < sessions; i++) {
+                InMemorySession session = new InMemorySession("session-" + i);
+                webSocketHandler.afterConnectionEstablished(session);
+                webSocketHandler.handleMessage(session,
+                        new TextMessage("CONNECT\naccept-version:1.2\nhost:localhost\n\n\0"));
+                webSocketHandler.handleMessage(session,
+                        new TextMessage("SUBSCRIBE\nid:sub-0\ndestination:" + TOPIC + "\n\n\0"));
+            }
+        }
+
+        void reset() {
+            brokerMessages.set(0);
+            frames.set(0);
+            frameBytes.set(0);
+        }
+
+        void stop() {
+            webSocketHandler.stop();
+            brokerHandler.stop();
+        }
+
+        /**
+         * 送信されたフレームの件数とバイト数だけを数えるWebSocketセッション
+         */
+        private final class InMemorySession implements WebSocketSession {
+
+            private final String id;
+            private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+
+            InMemorySession(String id) {
+                this.id = id;
+            }
+
+            @Override
+            public void sendMessage(WebSocketMessage<?> message) {
+                frames.incrementAndGet();
+                frameBytes.addAndGet(message.getPayloadLength());
+            }
+
+            @Override
+            public String getId() {
+                return id;
+            }
+
+            @Override
+            public URI getUri() {
+                return URI.create("ws://localhost/ws");
+            }
+
+            @Override
+            public HttpHeaders getHandshakeHeaders() {
+                return new HttpHeaders();
+            }
+
+            @Override
+            public Map<String, Object> getAttributes() {
+                return attributes;
+            }
+
+            @Override
+            public Principal getPrincipal() {
+                return null;
+            }
+
+            @Override
+            public InetSocketAddress getLocalAddress() {
+                return null;
+            }
+
+            @Override
+            public InetSocketAddress getRemoteAddress() {
+                return null;
+            }
+
+            @Override
+            public String getAcceptedProtocol() {
+                return null;
+            }
+
+            @Override
+            public void setTextMessageSizeLimit(int messageSizeLimit) {
+            }
+
+            @Override
+            public int getTextMessageSizeLimit() {
+                return 64 * 1024;
+            }
+
+            @Override
+            public void setBinaryMessageSizeLimit(int messageSizeLimit) {
+            }
+
+            @Override
+            public int getBinaryMessageSizeLimit() {
+                return 64 * 1024;
+            }
+
+            @Override
+            public List<WebSocketExtension> getExtensions() {
+                return Collections.emptyList();
+            }
+
+            @Override
+            public boolean isOpen() {
+                return true;
+            }
+
+            @Override
+            public void close() {
+            }
+
+            @Override
+            public void close(CloseStatus status) {
+            }
+        }
+    }
+}
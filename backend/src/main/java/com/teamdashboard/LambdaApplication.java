@@ -1,35 +1,93 @@
 package com.teamdashboard;
 
+import com.amazonaws.serverless.proxy.spring.embedded.ServerlessServletEmbeddedServerFactory;
+import com.teamdashboard.config.DynamoDbConfig;
+import com.teamdashboard.config.LambdaConfig;
+import com.teamdashboard.config.LambdaStartupBudget;
+import com.teamdashboard.config.SecurityConfig;
+import com.teamdashboard.controller.DynamoTeamIssueController;
+import com.teamdashboard.controller.DynamoWorkloadStatusController;
+import com.teamdashboard.controller.HealthController;
+import com.teamdashboard.controller.StatusController;
+import com.teamdashboard.repository.dynamodb.DynamoTeamIssueRepository;
+import com.teamdashboard.repository.dynamodb.DynamoWorkloadStatusRepository;
+import com.teamdashboard.service.DynamoTeamIssueService;
+import com.teamdashboard.service.DynamoWorkloadStatusService;
 import org.springframework.boot.SpringApplication;
-import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.boot.autoconfigure.web.servlet.HttpEncodingAutoConfiguration;
-import org.springframework.boot.autoconfigure.web.servlet.MultipartAutoConfiguration;
-import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
-import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
-import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
-import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
-import org.springframework.context.annotation.ComponentScan;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.servlet.SecurityFilterAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.error.ErrorMvcAutoConfiguration;
+import org.springframework.boot.web.servlet.server.ServletWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
 
-@SpringBootApplication(exclude = {
-    HttpEncodingAutoConfiguration.class,
-    MultipartAutoConfiguration.class
+/**
+ * Lambda用のSpring Bootアプリケーション
+ * 自動設定の全件読み込みとパッケージスキャンを行わず、DynamoDB構成で必要なものだけを明示的に読み込む
+ * （JPA・H2・WebSocket/STOMPはLambdaでは使用しない。SecurityはSecurityConfigの@EnableWebSecurityで有効化し、
+ * CORSはSecurityConfigのcorsConfigurationSourceを使う。CorsConfigのグローバル設定はコントローラーの@CrossOriginと競合するため読み込まない）
+ */
+@Configuration
+@ImportAutoConfiguration({
+    PropertyPlaceholderAutoConfiguration.class,
+    JacksonAutoConfiguration.class,
+    HttpMessageConvertersAutoConfiguration.class,
+    ValidationAutoConfiguration.class,
+    ServletWebServerFactoryAutoConfiguration.class,
+    DispatcherServletAutoConfiguration.class,
+    WebMvcAutoConfiguration.class,
+    ErrorMvcAutoConfiguration.class,
+    SecurityFilterAutoConfiguration.class
 })
-@ComponentScan(basePackages = {
-    "com.teamdashboard.controller",
-    "com.teamdashboard.service", 
-    "com.teamdashboard.repository",
-    "com.teamdashboard.config"
+@Import({
+    LambdaConfig.class,
+    LambdaStartupBudget.class,
+    SecurityConfig.class,
+    DynamoDbConfig.class,
+    HealthController.class,
+    StatusController.class,
+    DynamoWorkloadStatusController.class,
+    DynamoTeamIssueController.class,
+    DynamoWorkloadStatusService.class,
+    DynamoTeamIssueService.class,
+    DynamoWorkloadStatusRepository.class,
+    DynamoTeamIssueRepository.class
 })
 public class LambdaApplication {
-    
+
     public static void main(String[] args) {
         // Lambda環境での起動最適化
         System.setProperty("spring.main.lazy-initialization", "true");
         System.setProperty("spring.jpa.open-in-view", "false");
         System.setProperty("java.awt.headless", "true");
-        
+
         SpringApplication app = new SpringApplication(LambdaApplication.class);
         app.setLazyInitialization(true);
+        app.setAdditionalProfiles("lambda", "dynamodb");
         app.run(args);
     }
+
+    /**
+     * サーバーレス用のWebServerFactory
+     * 通常はSpringBootLambdaContainerHandlerがソースとして登録するが、AOT実行時はソースが読み込まれないため
+     * AOT生成（process-aot）の対象に含めておく
+     */
+    @Configuration(proxyBeanMethods = false)
+    static class ServerlessWebServerConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean(ServletWebServerFactory.class)
+        public ServerlessServletEmbeddedServerFactory serverlessServletEmbeddedServerFactory() {
+            return new ServerlessServletEmbeddedServerFactory();
+        }
+    }
 }
\ No newline at end of file
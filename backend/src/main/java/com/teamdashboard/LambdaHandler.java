@@ -1,17 +1,27 @@
 package com.teamdashboard;
 
-import com.amazonaws.serverless.exceptions.ContainerInitializationException;
 import com.amazonaws.serverless.proxy.model.AwsProxyRequest;
 import com.amazonaws.serverless.proxy.model.AwsProxyResponse;
 import com.amazonaws.serverless.proxy.spring.SpringBootLambdaContainerHandler;
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.teamdashboard.lambda.KeepWarm;
+import com.teamdashboard.lambda.LambdaContainerStats;
+import com.teamdashboard.lambda.SpringAot;
+import com.teamdashboard.lambda.StartupProfiler;
+import com.teamdashboard.lambda.StartupProfilingInitializer;
+
+import java.util.Map;
 
 public class LambdaHandler implements RequestHandler<AwsProxyRequest, AwsProxyResponse> {
     
     private static SpringBootLambdaContainerHandler<AwsProxyRequest, AwsProxyResponse> handler;
     
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    
     static {
+        LambdaContainerStats.markInitStarted();
         try {
             // Lambda環境用のSpring Boot設定
             System.setProperty("spring.main.web-application-type", "servlet");
@@ -24,18 +34,29 @@ public class LambdaHandler implements RequestHandler<AwsProxyRequest, AwsProxyRe
             System.setProperty("java.awt.headless", "true");
             System.setProperty("spring.main.allow-bean-definition-overriding", "true");
             
-            handler = SpringBootLambdaContainerHandler.getAwsProxyHandler(LambdaApplication.class);
+            // 起動プロファイリング（Beanごとの初期化時間を記録）
+            if (StartupProfiler.isEnabled()) {
+                System.setProperty("context.initializer.classes", StartupProfilingInitializer.class.getName());
+            }
+            
+            // AOT生成済みコンテキストの利用（SPRING_AOT_ENABLED=true かつ生成クラスが存在する場合）
+            boolean aot = SpringAot.enableIfAvailable(LambdaApplication.class);
             
             // プロファイル設定 - lambda と dynamodb を有効化
-            handler.activateSpringProfiles("lambda", "dynamodb");
+            // activateSpringProfiles() は初期化済みフラグを戻して初回リクエストで再起動させるため、生成時に指定する
+            long springStart = System.nanoTime();
+            handler = SpringAot.withMainApplicationClass(LambdaApplication.class,
+                    () -> SpringBootLambdaContainerHandler.getAwsProxyHandler(LambdaApplication.class, "lambda", "dynamodb"));
+            StartupProfiler.record(aot ? "spring.getAwsProxyHandler.aot" : "spring.getAwsProxyHandler", springStart);
             
             // フィルター重複を防ぐ設定
             handler.stripBasePath("/");
             
             // 初期化完了ログ
-            System.out.println("Spring Boot Lambda handler initialized successfully");
+            LambdaContainerStats.markInitCompleted();
+            System.out.println("Spring Boot Lambda handler initialized successfully (aot=" + aot + ")");
             
-        } catch (ContainerInitializationException e) {
+        } catch (RuntimeException e) {
             e.printStackTrace();
             throw new RuntimeException("Could not initialize Spring Boot application", e);
         }
@@ -43,6 +64,14 @@ public class LambdaHandler implements RequestHandler<AwsProxyRequest, AwsProxyRe
 
     @Override
     public AwsProxyResponse handleRequest(AwsProxyRequest input, Context context) {
+        boolean keepWarm = KeepWarm.isKeepWarmEvent(input.getResource());
+        boolean coldStart = LambdaContainerStats.recordInvocation(keepWarm);
+        
+        // keep-warmイベントはSpringへディスパッチせずに応答する
+        if (keepWarm) {
+            return handleKeepWarm(input, context, coldStart);
+        }
+        
         try {
             // リクエストログ
             context.getLogger().log("Processing request: " + input.getHttpMethod() + " " + input.getPath());
@@ -53,6 +82,9 @@ public class LambdaHandler implements RequestHandler<AwsProxyRequest, AwsProxyRe
             // レスポンスログ
             context.getLogger().log("Response status: " + response.getStatusCode());
             
+            // 初回リクエスト後に初期化レポートを出力（プロファイリング有効時のみ）
+            StartupProfiler.logReportOnce();
+            
             return response;
             
         } catch (Exception e) {
@@ -69,4 +101,22 @@ public class LambdaHandler implements RequestHandler<AwsProxyRequest, AwsProxyRe
             return errorResponse;
         }
     }
+    
+    private AwsProxyResponse handleKeepWarm(AwsProxyRequest input, Context context, boolean coldStart) {
+        AwsProxyResponse response = new AwsProxyResponse();
+        try {
+            Map<String, Object> result = KeepWarm.handle(input.getBody(), context);
+            result.put("coldStart", coldStart);
+            context.getLogger().log("Keep-warm handled: container=" + LambdaContainerStats.getContainerId()
+                    + " coldStart=" + coldStart);
+            
+            response.setStatusCode(200);
+            response.setBody(objectMapper.writeValueAsString(result));
+        } catch (Exception e) {
+            context.getLogger().log("Error handling keep-warm event: " + e.getMessage());
+            response.setStatusCode(500);
+            response.setBody("{\"error\":\"Keep-warm failed\"}");
+        }
+        return response;
+    }
 }
\ No newline at end of file
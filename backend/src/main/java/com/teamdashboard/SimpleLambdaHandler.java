@@ -5,19 +5,38 @@ import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.teamdashboard.lambda.KeepWarm;
+import com.teamdashboard.lambda.LambdaContainerStats;
 
 import java.util.HashMap;
 import java.util.Map;
 
 public class SimpleLambdaHandler implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
     
+    static {
+        LambdaContainerStats.markInitStarted();
+    }
+    
     private final ObjectMapper objectMapper = new ObjectMapper();
     private Context context;
     
+    public SimpleLambdaHandler() {
+        LambdaContainerStats.markInitCompleted();
+    }
+    
     @Override
     public APIGatewayProxyResponseEvent handleRequest(APIGatewayProxyRequestEvent input, Context context) {
         this.context = context;
+        boolean keepWarm = KeepWarm.isKeepWarmEvent(input.getResource());
+        boolean coldStart = LambdaContainerStats.recordInvocation(keepWarm);
         try {
+            // keep-warmイベントはルーティングせずに応答する
+            if (keepWarm) {
+                Map<String, Object> result = KeepWarm.handle(input.getBody(), context);
+                result.put("coldStart", coldStart);
+                return createSuccessResponse(result);
+            }
+            
             context.getLogger().log("Received request: " + input.getPath() + " " + input.getHttpMethod());
             
             String path = input.getPath();
@@ -31,6 +50,8 @@ public class SimpleLambdaHandler implements RequestHandler<APIGatewayProxyReques
             // ルーティング
             if (path.equals("/health") || path.equals("/actuator/health")) {
                 return handleHealth(input, context);
+            } else if (path.equals("/status") || path.equals("/api/status")) {
+                return handleStatus();
             } else if (path.startsWith("/workload-status")) {
                 return handleWorkloadStatus(input, context);
             } else if (path.startsWith("/team-issues")) {
@@ -64,6 +85,16 @@ public class SimpleLambdaHandler implements RequestHandler<APIGatewayProxyReques
         return createSuccessResponse(responseBody);
     }
     
+    private APIGatewayProxyResponseEvent handleStatus() throws Exception {
+        Map<String, Object> responseBody = new HashMap<>();
+        responseBody.put("status", "OK");
+        responseBody.put("message", "Team Dashboard Lambda API is running");
+        responseBody.put("timestamp", System.currentTimeMillis());
+        responseBody.put("container", LambdaContainerStats.snapshot());
+        
+        return createSuccessResponse(responseBody);
+    }
+    
     private APIGatewayProxyResponseEvent handleWorkloadStatus(APIGatewayProxyRequestEvent input, Context context) throws Exception {
         String method = input.getHttpMethod();
         String path = input.getPath();
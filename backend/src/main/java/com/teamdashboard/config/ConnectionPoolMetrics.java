@@ -0,0 +1,167 @@
+package com.teamdashboard.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * コネクションプール（HikariCP）の使用状況を集計する
+ *
+ * アプリのすべての HikariDataSource にプール開始前に計測を組み込み、
+ * コネクションの取得待ち時間・使用時間・取得タイムアウトを起動してからの累計で記録する。
+ * 現在の使用中・待機中の件数はプールから直接読む。
+ */
+@Component
+@Profile("!lambda")
+public class ConnectionPoolMetrics implements BeanPostProcessor, MetricsTrackerFactory {
+
+    /** 取得待ち時間の分布の上限（ミリ秒）。最後の区間はそれより長いもの */
+    private static final long[] ACQUIRE_BUCKET_MILLIS = {1, 5, 10, 50, 100, 500, 1000};
+
+    private final Map<String, PoolTracker> trackers = new ConcurrentHashMap<>();
+    private final Map<String, HikariDataSource> dataSources = new ConcurrentHashMap<>();
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof HikariDataSource dataSource && !dataSource.isRunning()) {
+            dataSource.setMetricsTrackerFactory(this);
+        }
+        return bean;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof HikariDataSource dataSource) {
+            dataSources.put(beanName, dataSource);
+        }
+        return bean;
+    }
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        return trackers.computeIfAbsent(poolName, name -> new PoolTracker());
+    }
+
+    /**
+     * プールごとの現在の件数・設定と、取得待ち時間などの累計
+     */
+    public Map<String, Object> metrics() {
+        Map<String, Object> pools = new LinkedHashMap<>();
+        for (Map.Entry<String, HikariDataSource> entry : dataSources.entrySet()) {
+            String beanName = entry.getKey();
+            HikariDataSource dataSource = entry.getValue();
+            Map<String, Object> pool = new HashMap<>();
+            pool.put("maximumPoolSize", dataSource.getMaximumPoolSize());
+            pool.put("minimumIdle", dataSource.getMinimumIdle());
+            pool.put("connectionTimeoutMillis", dataSource.getConnectionTimeout());
+            pool.put("leakDetectionThresholdMillis", dataSource.getLeakDetectionThreshold());
+            // プールはコネクションを初めて取得したときに開始する
+            HikariPoolMXBean mxBean = dataSource.getHikariPoolMXBean();
+            pool.put("running", mxBean != null);
+            if (mxBean != null) {
+                pool.put("active", mxBean.getActiveConnections());
+                pool.put("idle", mxBean.getIdleConnections());
+                pool.put("total", mxBean.getTotalConnections());
+                pool.put("pending", mxBean.getThreadsAwaitingConnection());
+            }
+            PoolTracker tracker = dataSource.getPoolName() != null ? trackers.get(dataSource.getPoolName()) : null;
+            if (tracker != null) {
+                pool.putAll(tracker.toMap());
+            }
+            pools.put(dataSource.getPoolName() != null ? dataSource.getPoolName() : beanName, pool);
+        }
+        return pools;
+    }
+
+    /**
+     * 1つのプールの累計
+     */
+    private static final class PoolTracker implements IMetricsTracker {
+
+        private final LongAdder acquired = new LongAdder();
+        private final LongAdder acquireNanos = new LongAdder();
+        private final AtomicLong maxAcquireNanos = new AtomicLong();
+        private final AtomicLongArray acquireBuckets = new AtomicLongArray(ACQUIRE_BUCKET_MILLIS.length + 1);
+        private final LongAdder released = new LongAdder();
+        private final LongAdder usageMillis = new LongAdder();
+        private final AtomicLong maxUsageMillis = new AtomicLong();
+        private final LongAdder timeouts = new LongAdder();
+        private final LongAdder created = new LongAdder();
+
+        @Override
+        public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+            acquired.increment();
+            acquireNanos.add(elapsedAcquiredNanos);
+            maxAcquireNanos.accumulateAndGet(elapsedAcquiredNanos, Math::max);
+            long millis = TimeUnit.NANOSECONDS.toMillis(elapsedAcquiredNanos);
+            int bucket = 0;
+            while (bucket < ACQUIRE_BUCKET_MILLIS.length && millis >= ACQUIRE_BUCKET_MILLIS[bucket]) {
+                bucket++;
+            }
+            acquireBuckets.incrementAndGet(bucket);
+        }
+
+        @Override
+        public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+            released.increment();
+            usageMillis.add(elapsedBorrowedMillis);
+            maxUsageMillis.accumulateAndGet(elapsedBorrowedMillis, Math::max);
+        }
+
+        @Override
+        public void recordConnectionTimeout() {
+            timeouts.increment();
+        }
+
+        @Override
+        public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+            created.increment();
+        }
+
+        Map<String, Object> toMap() {
+            long acquiredCount = acquired.sum();
+            Map<String, Object> acquire = new HashMap<>();
+            acquire.put("count", acquiredCount);
+            acquire.put("meanMillis", acquiredCount == 0 ? 0.0 : round(acquireNanos.sum() / 1_000_000.0 / acquiredCount));
+            acquire.put("maxMillis", round(maxAcquireNanos.get() / 1_000_000.0));
+            Map<String, Long> buckets = new LinkedHashMap<>();
+            for (int i = 0; i < ACQUIRE_BUCKET_MILLIS.length; i++) {
+                buckets.put("<" + ACQUIRE_BUCKET_MILLIS[i] + "ms", acquireBuckets.get(i));
+            }
+            buckets.put(">=" + ACQUIRE_BUCKET_MILLIS[ACQUIRE_BUCKET_MILLIS.length - 1] + "ms",
+                    acquireBuckets.get(ACQUIRE_BUCKET_MILLIS.length));
+            acquire.put("histogram", buckets);
+
+            long releasedCount = released.sum();
+            Map<String, Object> usage = new HashMap<>();
+            usage.put("count", releasedCount);
+            usage.put("meanMillis", releasedCount == 0 ? 0.0 : round((double) usageMillis.sum() / releasedCount));
+            usage.put("maxMillis", maxUsageMillis.get());
+
+            Map<String, Object> map = new HashMap<>();
+            map.put("acquire", acquire);
+            map.put("usage", usage);
+            map.put("timeouts", timeouts.sum());
+            map.put("connectionsCreated", created.sum());
+            return map;
+        }
+
+        private static double round(double value) {
+            return Math.round(value * 100.0) / 100.0;
+        }
+    }
+}
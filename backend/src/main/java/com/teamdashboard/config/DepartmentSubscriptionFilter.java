@@ -0,0 +1,110 @@
+package com.teamdashboard.config;
+
+import com.teamdashboard.service.RealtimeTopics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 部署トピックの購読を接続時に申告した部署のものに絞る clientInboundChannel のインターセプター
+ *
+ * CONNECT フレームの department ヘッダーをセッション属性に記録し、
+ * 他部署のトピック（/topic/...dept.{部署}）やワイルドカードを含む宛先への SUBSCRIBE は破棄する。
+ * 破棄した購読にはメッセージが届かないだけで、接続は維持する。
+ * 部署はクライアントの申告（投稿側の department もリクエスト本文の値）で、サーバーでは確かめていない。
+ * 通知を部署ごとに振り分けて配信量を減らすためのもので、アクセス制御ではない（別の部署を申告すればその部署の通知を受け取れる）。
+ */
+@Component
+@Profile("!lambda")
+public class DepartmentSubscriptionFilter implements ChannelInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(DepartmentSubscriptionFilter.class);
+
+    /** STOMPのCONNECTフレームでクライアントが送る部署のヘッダー（クライアントの自己申告） */
+    static final String DEPARTMENT_HEADER = "department";
+
+    private static final String SESSION_DEPARTMENT_ATTRIBUTE = DepartmentSubscriptionFilter.class.getName() + ".department";
+
+    private final AtomicLong departmentSubscriptions = new AtomicLong();
+    private final AtomicLong rejectedSubscriptions = new AtomicLong();
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        SimpMessageType messageType = SimpMessageHeaderAccessor.getMessageType(message.getHeaders());
+        if (messageType == SimpMessageType.CONNECT) {
+            rememberDepartment(message);
+        } else if (messageType == SimpMessageType.SUBSCRIBE) {
+            return isAllowed(message) ? message : null;
+        }
+        return message;
+    }
+
+    private void rememberDepartment(Message<?> message) {
+        Map<String, Object> sessionAttributes = SimpMessageHeaderAccessor.getSessionAttributes(message.getHeaders());
+        String departmentKey = RealtimeTopics.departmentKey(
+                StompHeaderAccessor.wrap(message).getFirstNativeHeader(DEPARTMENT_HEADER));
+        if (sessionAttributes != null && departmentKey != null) {
+            sessionAttributes.put(SESSION_DEPARTMENT_ATTRIBUTE, departmentKey);
+        }
+    }
+
+    private boolean isAllowed(Message<?> message) {
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        if (destination == null) {
+            return true;
+        }
+        // パターン指定の購読は複数部署のトピックに一致しうるため受け付けない
+        if (destination.indexOf('*') >= 0 || destination.indexOf('?') >= 0 || destination.indexOf('{') >= 0) {
+            return reject(message, destination);
+        }
+        String departmentKey = RealtimeTopics.departmentKeyOf(destination);
+        if (departmentKey == null) {
+            return true;
+        }
+        if (!departmentKey.equals(sessionDepartmentKey(message.getHeaders()))) {
+            return reject(message, destination);
+        }
+        departmentSubscriptions.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * CONNECT フレームで記録したセッションの部署キー
+     *
+     * @return 部署を指定せずに接続したセッションは null
+     */
+    public static String sessionDepartmentKey(MessageHeaders headers) {
+        Map<String, Object> sessionAttributes = SimpMessageHeaderAccessor.getSessionAttributes(headers);
+        Object departmentKey = sessionAttributes != null ? sessionAttributes.get(SESSION_DEPARTMENT_ATTRIBUTE) : null;
+        return departmentKey != null ? departmentKey.toString() : null;
+    }
+
+    private boolean reject(Message<?> message, String destination) {
+        rejectedSubscriptions.incrementAndGet();
+        logger.debug("Rejected subscription to {} from session {}",
+                destination, SimpMessageHeaderAccessor.getSessionId(message.getHeaders()));
+        return false;
+    }
+
+    /**
+     * 部署トピックの購読数と破棄した購読数
+     */
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("departmentSubscriptions", departmentSubscriptions.get());
+        metrics.put("rejectedSubscriptions", rejectedSubscriptions.get());
+        return metrics;
+    }
+}
@@ -0,0 +1,62 @@
+package com.teamdashboard.config;
+
+import com.teamdashboard.entity.dynamodb.TeamDashboardItem;
+import com.teamdashboard.lambda.StartupProfiler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClientBuilder;
+
+import java.net.URI;
+
+@Configuration
+public class DynamoDbConfig {
+
+    @Value("${aws.region:ap-northeast-1}")
+    private String region;
+
+    @Value("${aws.dynamodb.endpoint:}")
+    private String endpoint;
+
+    @Bean
+    public DynamoDbClient dynamoDbClient() {
+        long start = System.nanoTime();
+        DynamoDbClientBuilder builder = DynamoDbClient.builder()
+                .region(Region.of(region));
+
+        // DynamoDB Local使用時のみエンドポイントを上書き
+        if (endpoint != null && !endpoint.isBlank()) {
+            builder.endpointOverride(URI.create(endpoint));
+        }
+
+        DynamoDbClient client = builder.build();
+        StartupProfiler.record("dynamodb.client", start);
+        return client;
+    }
+
+    @Bean
+    public DynamoDbEnhancedClient dynamoDbEnhancedClient(DynamoDbClient dynamoDbClient) {
+        long start = System.nanoTime();
+        DynamoDbEnhancedClient enhancedClient = DynamoDbEnhancedClient.builder()
+                .dynamoDbClient(dynamoDbClient)
+                .build();
+        StartupProfiler.record("dynamodb.enhancedClient", start);
+        return enhancedClient;
+    }
+
+    /**
+     * TeamDashboardテーブルのスキーマ
+     * Bean定義の解析は重いため、リクエストごとに生成せず一度だけ作成して共有する
+     */
+    @Bean
+    public TableSchema<TeamDashboardItem> teamDashboardItemSchema() {
+        long start = System.nanoTime();
+        TableSchema<TeamDashboardItem> schema = TableSchema.fromBean(TeamDashboardItem.class);
+        StartupProfiler.record("dynamodb.tableSchema.TeamDashboardItem", start);
+        return schema;
+    }
+}
@@ -0,0 +1,60 @@
+package com.teamdashboard.config;
+
+import com.teamdashboard.lambda.StartupProfiler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Profile;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Lambdaコンテキストの起動予算チェック
+ * Bean定義数とコンテキスト起動時間が上限を超えた場合に警告を出し、結果を起動レポートに含める
+ * （設定の追加でJPAやWebSocketが再び読み込まれた場合に気付けるようにする）
+ */
+@Profile("lambda")
+public class LambdaStartupBudget implements ApplicationListener<ApplicationReadyEvent> {
+
+    private static final Logger logger = LoggerFactory.getLogger(LambdaStartupBudget.class);
+
+    @Value("${lambda.startup.max-bean-definitions:250}")
+    private int maxBeanDefinitions;
+
+    @Value("${lambda.startup.max-context-millis:5000}")
+    private long maxContextMillis;
+
+    @Value("${lambda.startup.fail-on-exceed:false}")
+    private boolean failOnExceed;
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        int beanDefinitions = event.getApplicationContext().getBeanDefinitionCount();
+        long contextMillis = event.getTimeTaken() != null ? event.getTimeTaken().toMillis() : -1;
+        boolean withinBudget = beanDefinitions <= maxBeanDefinitions && contextMillis <= maxContextMillis;
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("beanDefinitions", beanDefinitions);
+        result.put("maxBeanDefinitions", maxBeanDefinitions);
+        result.put("contextMillis", contextMillis);
+        result.put("maxContextMillis", maxContextMillis);
+        result.put("withinBudget", withinBudget);
+        StartupProfiler.recordBudget(result);
+
+        if (withinBudget) {
+            logger.info("Lambda startup budget OK: {} bean definitions, {}ms", beanDefinitions, contextMillis);
+            return;
+        }
+
+        String message = String.format(
+                "Lambda startup budget exceeded: %d bean definitions (max %d), %dms (max %dms)",
+                beanDefinitions, maxBeanDefinitions, contextMillis, maxContextMillis);
+        if (failOnExceed) {
+            throw new IllegalStateException(message);
+        }
+        logger.warn(message);
+    }
+}
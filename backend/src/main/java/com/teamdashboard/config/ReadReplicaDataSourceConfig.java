@@ -0,0 +1,92 @@
+package com.teamdashboard.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.util.UtilityElf;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * 読み取り専用のトランザクション（@Transactional(readOnly = true) の日報一覧・推移・エクスポート等）をリードレプリカに送る
+ *
+ * database.replica.url を指定した場合だけ有効で、Spring Boot が作るデータソースの代わりに
+ * プライマリ・レプリカの2つのコネクションプールと、その振り分け（ReplicaRoutingDataSource）を作る。
+ * JPA・Flyway・data.sql はトランザクション外または書き込みのトランザクションで実行するため、プライマリに送られる。
+ * 自動コミット・分離レベルの既定値はプライマリに合わせるため、レプリカの database.replica.hikari ではこの2つを変えない。
+ */
+@Configuration
+@Profile("!lambda")
+@ConditionalOnExpression("!'${database.replica.url:}'.isEmpty()")
+public class ReadReplicaDataSourceConfig {
+
+    /**
+     * プライマリ（spring.datasource の設定。Spring Boot が作るものと同じ）
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * レプリカ（プールの設定は spring.datasource.hikari を引き継ぎ、database.replica.hikari で上書きする）
+     */
+    @Bean
+    public HikariDataSource replicaDataSource(DataSourceProperties properties, Environment environment,
+                                              @Value("${database.replica.url}") String url,
+                                              @Value("${database.replica.username:}") String username,
+                                              @Value("${database.replica.password:}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        Binder binder = Binder.get(environment);
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+        binder.bind("database.replica.hikari", Bindable.ofInstance(dataSource));
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            HikariDataSource primaryDataSource, HikariDataSource replicaDataSource,
+            @Value("${database.replica.lag-query:}") String lagQuery,
+            @Value("${database.replica.max-lag-seconds:5}") double maxLagSeconds,
+            @Value("${database.replica.lag-check-interval-millis:5000}") long lagCheckIntervalMillis) {
+        return new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource, lagQuery, maxLagSeconds,
+                lagCheckIntervalMillis);
+    }
+
+    /**
+     * アプリ（JPA 等）が使うデータソース
+     * トランザクションの開始時点ではまだ読み取り専用かが決まっていないため、最初のSQLの実行までコネクションの取得を遅らせる
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaRoutingDataSource replicaRoutingDataSource) {
+        // ターゲットを渡すコンストラクタはその場で既定値を確認するためにコネクションを取るので、既定値を先に設定する
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy();
+        dataSource.setTargetDataSource(replicaRoutingDataSource);
+        dataSource.setDefaultAutoCommit(primaryDataSource.isAutoCommit());
+        // 分離レベルをプールで指定していない場合は、初期化時にプライマリのコネクションを1つ取ってドライバーの既定値を確認する
+        if (primaryDataSource.getTransactionIsolation() != null) {
+            dataSource.setDefaultTransactionIsolation(
+                    UtilityElf.getTransactionIsolation(primaryDataSource.getTransactionIsolation()));
+        }
+        return dataSource;
+    }
+}
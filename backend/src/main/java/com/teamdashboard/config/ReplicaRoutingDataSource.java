@@ -0,0 +1,162 @@
+package com.teamdashboard.config;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 読み取り専用のトランザクションのコネクションをリードレプリカから、それ以外をプライマリから取得するデータソース
+ *
+ * トランザクションが読み取り専用かはコネクションの取得時に判定するため、
+ * LazyConnectionDataSourceProxy で包み、最初のSQLの実行まで取得を遅らせて使う（ReadReplicaDataSourceConfig）。
+ * レプリカの遅延は lagCheckIntervalMillis ごとに lagQuery で確認し、maxLagSeconds を超えている間と、
+ * レプリカに接続できなかった後は次の確認で問題がなくなるまで、読み取りもプライマリに送る。
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final String lagQuery;
+    private final double maxLagSeconds;
+    private final ScheduledExecutorService scheduler;
+
+    // 起動直後は最初の確認が終わるまでプライマリから読む
+    private volatile boolean replicaAvailable = false;
+    private volatile double lagSeconds = -1;
+    private volatile String lastError;
+    private volatile long lastCheckedAt;
+
+    private final AtomicLong replicaReads = new AtomicLong();
+    private final AtomicLong primaryReads = new AtomicLong();
+    private final AtomicLong writes = new AtomicLong();
+    private final AtomicLong replicaConnectionFailures = new AtomicLong();
+
+    /**
+     * @param lagQuery 遅延（秒）を1行1列で返すSQL（空の場合は遅延を確認せず、接続できるかだけを見る）
+     */
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, String lagQuery,
+                                    double maxLagSeconds, long lagCheckIntervalMillis) {
+        this.primary = primary;
+        this.replica = replica;
+        this.lagQuery = lagQuery == null || lagQuery.isBlank() ? "SELECT 0" : lagQuery;
+        this.maxLagSeconds = maxLagSeconds;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleWithFixedDelay(this::checkLag, 0, lagCheckIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    private Connection route(ConnectionSource source) throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            writes.incrementAndGet();
+            return source.get(primary);
+        }
+        if (replicaAvailable) {
+            try {
+                Connection connection = source.get(replica);
+                replicaReads.incrementAndGet();
+                return connection;
+            } catch (SQLFeatureNotSupportedException e) {
+                // プール側が対応していない取得方法（HikariCP のユーザー名・パスワード指定）はレプリカの障害として扱わない
+                throw e;
+            } catch (SQLException e) {
+                replicaConnectionFailures.incrementAndGet();
+                markUnavailable("レプリカに接続できません: " + e.getMessage());
+            }
+        }
+        primaryReads.incrementAndGet();
+        return source.get(primary);
+    }
+
+    /**
+     * レプリカの遅延を確認し、読み取りをレプリカに送るかを決め直す
+     */
+    void checkLag() {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(lagQuery)) {
+            double lag = resultSet.next() ? resultSet.getDouble(1) : 0;
+            lagSeconds = lag;
+            lastCheckedAt = System.currentTimeMillis();
+            if (lag > maxLagSeconds) {
+                markUnavailable("レプリカの遅延が " + lag + " 秒です（上限 " + maxLagSeconds + " 秒）");
+            } else {
+                if (!replicaAvailable && lastError != null) {
+                    logger.info("読み取りをレプリカに戻します（遅延 {} 秒）", lag);
+                }
+                lastError = null;
+                replicaAvailable = true;
+            }
+        } catch (SQLException | RuntimeException e) {
+            lastCheckedAt = System.currentTimeMillis();
+            markUnavailable("レプリカの遅延を確認できません: " + e.getMessage());
+        }
+    }
+
+    private void markUnavailable(String reason) {
+        if (replicaAvailable || lastError == null) {
+            logger.warn("読み取りをプライマリに切り替えます: {}", reason);
+        }
+        replicaAvailable = false;
+        lastError = reason;
+    }
+
+    /**
+     * 読み取りの送り先と、コネクションの取得件数（起動してからの累計）
+     * primaryReads は遅延・接続失敗のためプライマリに送った読み取り専用のトランザクション
+     */
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("replicaAvailable", replicaAvailable);
+        metrics.put("lagSeconds", lagSeconds);
+        metrics.put("maxLagSeconds", maxLagSeconds);
+        metrics.put("lastCheckedAt", lastCheckedAt);
+        if (lastError != null) {
+            metrics.put("lastError", lastError);
+        }
+        metrics.put("replicaReads", replicaReads.get());
+        metrics.put("primaryReads", primaryReads.get());
+        metrics.put("writes", writes.get());
+        metrics.put("replicaConnectionFailures", replicaConnectionFailures.get());
+        return metrics;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSource {
+        Connection get(DataSource dataSource) throws SQLException;
+    }
+}
@@ -0,0 +1,201 @@
+package com.teamdashboard.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator.OverflowStrategy;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * WebSocketセッションごとの送信バッファ制限と遅いクライアントの切り離し
+ *
+ * 各セッションを送信バッファ付きのデコレーターで包み、送信に時間がかかっているクライアント宛ての
+ * メッセージはそのセッションのバッファに溜める（他のセッションへの配信は待たされない）。
+ * バッファが上限を超えた場合は overflow=terminate（既定）なら切断し、drop なら古いメッセージから破棄する。
+ * 切断したクライアントは再接続して最後に受け取った連番から再送を受けるが、drop で破棄したメッセージは
+ * クライアントに通知されず再送もされない（取りこぼしを許容できる場合だけ drop にする）。
+ * 送信時間の上限（send-time-limit）を超えた場合はどちらの設定でも切断する。
+ * clientOutboundChannel は上限付きのスレッドプールで処理し、キューが溢れた場合は呼び出し元で実行して流量を抑える。
+ * セッションのデコレーターは WebSocketBrokerConfiguration で SubProtocolWebSocketHandler に組み込む。
+ */
+@Component
+@Profile("!lambda")
+public class WebSocketBackpressure {
+
+    private static final Logger logger = LoggerFactory.getLogger(WebSocketBackpressure.class);
+
+    private static final int MAX_REPORTED_SESSIONS = 20;
+
+    private final int sendTimeLimitMillis;
+    private final int sendBufferSizeLimit;
+    private final int messageSizeLimit;
+    private final OverflowStrategy overflowStrategy;
+    private final ThreadPoolTaskExecutor outboundExecutor;
+
+    private final Map<String, SessionStats> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong terminatedSessions = new AtomicLong();
+    private final AtomicLong closedSessionsUndelivered = new AtomicLong();
+
+    public WebSocketBackpressure(@Value("${realtime.websocket.send-time-limit-millis:10000}") int sendTimeLimitMillis,
+                                 @Value("${realtime.websocket.send-buffer-size-limit:524288}") int sendBufferSizeLimit,
+                                 @Value("${realtime.websocket.message-size-limit:65536}") int messageSizeLimit,
+                                 @Value("${realtime.websocket.overflow:terminate}") String overflow,
+                                 @Value("${realtime.websocket.outbound.core-pool-size:4}") int corePoolSize,
+                                 @Value("${realtime.websocket.outbound.max-pool-size:8}") int maxPoolSize,
+                                 @Value("${realtime.websocket.outbound.queue-capacity:1000}") int queueCapacity) {
+        this.sendTimeLimitMillis = sendTimeLimitMillis;
+        this.sendBufferSizeLimit = sendBufferSizeLimit;
+        this.messageSizeLimit = messageSizeLimit;
+        this.overflowStrategy = "drop".equalsIgnoreCase(overflow) ? OverflowStrategy.DROP : OverflowStrategy.TERMINATE;
+
+        // 初期化はメッセージブローカー設定の @Bean（clientOutboundChannelExecutor）として行われる
+        this.outboundExecutor = new ThreadPoolTaskExecutor();
+        this.outboundExecutor.setThreadNamePrefix("ws-outbound-");
+        this.outboundExecutor.setCorePoolSize(corePoolSize);
+        this.outboundExecutor.setMaxPoolSize(Math.max(corePoolSize, maxPoolSize));
+        this.outboundExecutor.setQueueCapacity(queueCapacity);
+        this.outboundExecutor.setAllowCoreThreadTimeOut(true);
+        this.outboundExecutor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    public int getSendTimeLimitMillis() {
+        return sendTimeLimitMillis;
+    }
+
+    public int getSendBufferSizeLimit() {
+        return sendBufferSizeLimit;
+    }
+
+    public int getMessageSizeLimit() {
+        return messageSizeLimit;
+    }
+
+    public ThreadPoolTaskExecutor getOutboundExecutor() {
+        return outboundExecutor;
+    }
+
+    /**
+     * SubProtocolWebSocketHandler が各セッションを包む送信バッファ付きデコレーターを作る
+     */
+    public WebSocketSession decorateSession(WebSocketSession session) {
+        SessionStats stats = new SessionStats(session);
+        sessions.put(session.getId(), stats);
+        return stats.decorated;
+    }
+
+    /**
+     * セッション終了時の集計
+     */
+    public void sessionClosed(WebSocketSession session, CloseStatus closeStatus) {
+        SessionStats stats = sessions.remove(session.getId());
+        if (stats == null) {
+            return;
+        }
+        long undelivered = stats.undelivered();
+        closedSessionsUndelivered.addAndGet(undelivered);
+        if (CloseStatus.SESSION_NOT_RELIABLE.equalsCode(closeStatus)) {
+            terminatedSessions.incrementAndGet();
+            logger.info("Slow WebSocket session {} terminated ({} messages undelivered)", session.getId(), undelivered);
+        }
+    }
+
+    /**
+     * 送信バッファの状況（バッファの大きいセッションから上位のみ）
+     */
+    public Map<String, Object> metrics() {
+        List<SessionStats> snapshot = new ArrayList<>(sessions.values());
+        snapshot.sort(Comparator.comparingInt((SessionStats stats) -> stats.decorated.getBufferSize()).reversed());
+
+        List<Map<String, Object>> perSession = new ArrayList<>();
+        long bufferedBytes = 0;
+        for (SessionStats stats : snapshot) {
+            bufferedBytes += stats.decorated.getBufferSize();
+            if (perSession.size() < MAX_REPORTED_SESSIONS) {
+                perSession.add(stats.toMap());
+            }
+        }
+
+        Map<String, Object> executor = new HashMap<>();
+        if (outboundExecutor.getThreadPoolExecutor() != null) {
+            ThreadPoolExecutor pool = outboundExecutor.getThreadPoolExecutor();
+            executor.put("activeThreads", pool.getActiveCount());
+            executor.put("poolSize", pool.getPoolSize());
+            executor.put("queued", pool.getQueue().size());
+            executor.put("queueRemainingCapacity", pool.getQueue().remainingCapacity());
+            executor.put("completedTasks", pool.getCompletedTaskCount());
+        }
+
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("overflow", overflowStrategy.name().toLowerCase());
+        metrics.put("sendTimeLimitMillis", sendTimeLimitMillis);
+        metrics.put("sendBufferSizeLimit", sendBufferSizeLimit);
+        metrics.put("sessions", sessions.size());
+        metrics.put("bufferedBytes", bufferedBytes);
+        metrics.put("terminatedSessions", terminatedSessions.get());
+        metrics.put("closedSessionsUndelivered", closedSessionsUndelivered.get());
+        metrics.put("outboundExecutor", executor);
+        metrics.put("topSessions", perSession);
+        return metrics;
+    }
+
+    /**
+     * セッションごとの送信数
+     * 送信バッファ付きのデコレーターの内側で実際に書き込んだ件数を数え、受け付けた件数との差を未送信（バッファ中または破棄）とする
+     */
+    private final class SessionStats {
+
+        private final AtomicLong enqueued = new AtomicLong();
+        private final AtomicLong delivered = new AtomicLong();
+        private final ConcurrentWebSocketSessionDecorator decorated;
+
+        SessionStats(WebSocketSession session) {
+            WebSocketSession counting = new WebSocketSessionDecorator(session) {
+                @Override
+                public void sendMessage(WebSocketMessage<?> message) throws IOException {
+                    super.sendMessage(message);
+                    delivered.incrementAndGet();
+                }
+            };
+            this.decorated = new ConcurrentWebSocketSessionDecorator(
+                    counting, sendTimeLimitMillis, sendBufferSizeLimit, overflowStrategy) {
+                @Override
+                public void sendMessage(WebSocketMessage<?> message) throws IOException {
+                    enqueued.incrementAndGet();
+                    super.sendMessage(message);
+                }
+            };
+        }
+
+        long undelivered() {
+            return Math.max(0, enqueued.get() - delivered.get());
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new HashMap<>();
+            map.put("sessionId", decorated.getId());
+            map.put("bufferedBytes", decorated.getBufferSize());
+            map.put("sendInProgressMillis", decorated.getTimeSinceSendStarted());
+            map.put("enqueued", enqueued.get());
+            map.put("delivered", delivered.get());
+            map.put("undelivered", undelivered());
+            return map;
+        }
+    }
+}
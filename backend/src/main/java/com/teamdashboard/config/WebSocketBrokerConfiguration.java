@@ -0,0 +1,51 @@
+package com.teamdashboard.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.messaging.support.AbstractSubscribableChannel;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.config.annotation.DelegatingWebSocketMessageBrokerConfiguration;
+import org.springframework.web.socket.messaging.SubProtocolWebSocketHandler;
+
+/**
+ * STOMPメッセージブローカーの構成（@EnableWebSocketMessageBroker の代わり）
+ *
+ * 内容は WebSocketConfig 等の WebSocketMessageBrokerConfigurer で設定する。
+ * SubProtocolWebSocketHandler が各セッションを包むデコレーターは設定で差し替えられないため、
+ * ここでハンドラーを拡張して WebSocketBackpressure のデコレーター（overflow=drop/terminate）を使う。
+ */
+@Configuration
+@Profile("!lambda")
+public class WebSocketBrokerConfiguration extends DelegatingWebSocketMessageBrokerConfiguration {
+
+    @Autowired
+    private WebSocketBackpressure backpressure;
+
+    @Bean
+    @Override
+    public WebSocketHandler subProtocolWebSocketHandler(
+            @Qualifier("clientInboundChannel") AbstractSubscribableChannel clientInboundChannel,
+            @Qualifier("clientOutboundChannel") AbstractSubscribableChannel clientOutboundChannel) {
+        return new SubProtocolWebSocketHandler(clientInboundChannel, clientOutboundChannel) {
+
+            @Override
+            protected WebSocketSession decorateSession(WebSocketSession session) {
+                return backpressure.decorateSession(session);
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                try {
+                    super.afterConnectionClosed(session, closeStatus);
+                } finally {
+                    backpressure.sessionClosed(session, closeStatus);
+                }
+            }
+        };
+    }
+}
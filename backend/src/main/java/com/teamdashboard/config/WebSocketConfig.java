@@ -1,23 +1,145 @@
 package com.teamdashboard.config;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.teamdashboard.service.PresenceRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Profile;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
-import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
+import org.springframework.messaging.simp.config.StompBrokerRelayRegistration;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
+// メッセージブローカー自体の有効化は WebSocketBrokerConfiguration（@EnableWebSocketMessageBroker 相当）で行う
 @Configuration
-@EnableWebSocketMessageBroker
+@Profile("!lambda")
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private static final Logger logger = LoggerFactory.getLogger(WebSocketConfig.class);
+
+    static final String RELAY_MODE = "relay";
+
+    @Autowired
+    private WebSocketBackpressure backpressure;
+
+    @Autowired
+    private DepartmentSubscriptionFilter departmentSubscriptionFilter;
+
+    // PresenceRegistry は通知の送信にブローカー側のBeanを使うため、循環しないよう遅延解決する
+    @Lazy
+    @Autowired
+    private PresenceRegistry presenceRegistry;
+
+    @Lazy
+    @Autowired
+    private TaskScheduler messageBrokerTaskScheduler;
+
+    /**
+     * Simple Broker とクライアントの間のハートビート間隔（送信・受信）
+     * クライアントのハートビートはオンライン状態の最終受信時刻の更新にも使う
+     */
+    @Value("${realtime.presence.heartbeat-millis:10000}")
+    private long clientHeartbeatMillis;
+
+    /**
+     * simple: JVM内のブローカー（単一ノード向け）
+     * relay: 外部STOMPブローカー（ActiveMQ Artemis等）へ中継し、複数ノード間で配信する
+     */
+    @Value("${realtime.broker.mode:simple}")
+    private String brokerMode;
+
+    @Value("${realtime.broker.relay.host:localhost}")
+    private String relayHost;
+
+    @Value("${realtime.broker.relay.port:61613}")
+    private int relayPort;
+
+    @Value("${realtime.broker.relay.client-login:guest}")
+    private String clientLogin;
+
+    @Value("${realtime.broker.relay.client-passcode:guest}")
+    private String clientPasscode;
+
+    @Value("${realtime.broker.relay.system-login:guest}")
+    private String systemLogin;
+
+    @Value("${realtime.broker.relay.system-passcode:guest}")
+    private String systemPasscode;
+
+    @Value("${realtime.broker.relay.virtual-host:}")
+    private String virtualHost;
+
+    @Value("${realtime.broker.relay.heartbeat-millis:10000}")
+    private long heartbeatMillis;
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        // メッセージブローカーを有効化
-        config.enableSimpleBroker("/topic", "/queue");
+        if (RELAY_MODE.equalsIgnoreCase(brokerMode)) {
+            configureBrokerRelay(config);
+        } else {
+            // メッセージブローカーを有効化
+            config.enableSimpleBroker("/topic", "/queue")
+                    .setHeartbeatValue(new long[] {clientHeartbeatMillis, clientHeartbeatMillis})
+                    .setTaskScheduler(messageBrokerTaskScheduler);
+        }
         // アプリケーション宛先のプレフィックス
         config.setApplicationDestinationPrefixes("/app");
     }
 
+    private void configureBrokerRelay(MessageBrokerRegistry config) {
+        logger.info("STOMP broker relay enabled: {}:{}", relayHost, relayPort);
+        StompBrokerRelayRegistration relay = config.enableStompBrokerRelay("/topic", "/queue")
+                .setRelayHost(relayHost)
+                .setRelayPort(relayPort)
+                .setClientLogin(clientLogin)
+                .setClientPasscode(clientPasscode)
+                .setSystemLogin(systemLogin)
+                .setSystemPasscode(systemPasscode)
+                .setSystemHeartbeatSendInterval(heartbeatMillis)
+                .setSystemHeartbeatReceiveInterval(heartbeatMillis);
+        if (virtualHost != null && !virtualHost.isBlank()) {
+            relay.setVirtualHost(virtualHost);
+        }
+        // 他ノードに接続しているユーザー宛て（/user/...）のメッセージとユーザー情報もブローカー経由で共有する
+        relay.setUserDestinationBroadcast("/topic/unresolved-user-destination");
+        relay.setUserRegistryBroadcast("/topic/simp-user-registry");
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        // 遅いクライアントの送信バッファ・送信時間を制限し、他のセッションへの配信を待たせない
+        registration.setSendTimeLimit(backpressure.getSendTimeLimitMillis())
+                .setSendBufferSizeLimit(backpressure.getSendBufferSizeLimit())
+                .setMessageSizeLimit(backpressure.getMessageSizeLimit());
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        // 他部署のトピックへの購読を破棄し、クライアントからのフレームごとにオンライン状態の最終受信時刻を更新する
+        registration.interceptors(departmentSubscriptionFilter, new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                presenceRegistry.touch(message);
+                return message;
+            }
+        });
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        // クライアントへの送信は上限付きのスレッドプールで処理する
+        registration.taskExecutor(backpressure.getOutboundExecutor());
+    }
+
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         // WebSocketエンドポイントを登録
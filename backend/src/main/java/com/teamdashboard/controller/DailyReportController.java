@@ -1,30 +1,58 @@
 package com.teamdashboard.controller;
 
+import com.teamdashboard.dto.DailyReportImportResult;
+import com.teamdashboard.dto.DailyReportPage;
 import com.teamdashboard.dto.DailyReportRequest;
 import com.teamdashboard.dto.DailyReportResponse;
+import com.teamdashboard.dto.WorkloadTrendResponse;
+import com.teamdashboard.entity.RollupPeriod;
+import com.teamdashboard.entity.RollupScope;
+import com.teamdashboard.service.DailyReportImportService;
 import com.teamdashboard.service.DailyReportService;
+import com.teamdashboard.service.WorkloadRollupService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.security.Principal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 @RestController
+@Profile("!lambda")
 @RequestMapping("/reports")
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = DailyReportController.NEXT_CURSOR_HEADER)
 public class DailyReportController {
 
+    /** 次のページのカーソル（?after= に渡す）。最後のページでは付かない */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     @Autowired
     private DailyReportService dailyReportService;
 
+    @Autowired
+    private WorkloadRollupService workloadRollupService;
+
+    @Autowired
+    private DailyReportImportService dailyReportImportService;
+
+    /**
+     * 日報を日付・IDの降順で limit 件ずつ返す（続きは X-Next-Cursor ヘッダーの値を after に指定）
+     */
     @GetMapping
-    public ResponseEntity<List<DailyReportResponse>> getAllReports() {
-        List<DailyReportResponse> reports = dailyReportService.getAllReports();
-        return ResponseEntity.ok(reports);
+    public ResponseEntity<List<DailyReportResponse>> getAllReports(
+            @RequestParam(defaultValue = "" + DailyReportService.DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(required = false) String after) {
+        return toResponse(dailyReportService.getReports(limit, after));
     }
 
     @GetMapping("/date/{date}")
@@ -42,9 +70,76 @@ public class DailyReportController {
 
     @GetMapping("/recent")
     public ResponseEntity<List<DailyReportResponse>> getRecentReports(
-            @RequestParam(defaultValue = "7") int days) {
-        List<DailyReportResponse> reports = dailyReportService.getRecentReports(days);
-        return ResponseEntity.ok(reports);
+            @RequestParam(defaultValue = "7") int days,
+            @RequestParam(defaultValue = "" + DailyReportService.DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(required = false) String after) {
+        return toResponse(dailyReportService.getRecentReports(days, limit, after));
+    }
+
+    /**
+     * 期間内の日報を CSV または NDJSON（1行1件のJSON）でダウンロードする
+     * 行はデータベースから読みながら書き出すため、件数に関係なくメモリに溜めない（期間の既定は直近90日）
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportReports(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "csv") String format) {
+        DailyReportService.ExportFormat exportFormat = DailyReportService.ExportFormat.of(format);
+        LocalDate endDate = to != null ? to : LocalDate.now();
+        LocalDate startDate = from != null ? from : endDate.minusDays(89);
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("from は to 以前の日付を指定してください");
+        }
+        // 書き出しは別スレッドで行われ、トランザクションもそこで開始する
+        StreamingResponseBody body = out -> dailyReportService.exportReports(startDate, endDate, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=daily-reports-"
+                        + startDate + "-" + endDate + "." + exportFormat.getExtension())
+                .body(body);
+    }
+
+    /**
+     * ユーザー・部署ごとの負荷レベルの推移（平均・中央値・90パーセンタイル）を集計から返す
+     * scope は user または department、period は day または week。key を省略するとすべてのユーザー・部署を返す
+     */
+    @GetMapping("/trends")
+    public ResponseEntity<List<WorkloadTrendResponse>> getTrends(
+            @RequestParam(defaultValue = "department") String scope,
+            @RequestParam(required = false) String key,
+            @RequestParam(defaultValue = "week") String period,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate endDate = to != null ? to : LocalDate.now();
+        LocalDate startDate = from != null ? from : endDate.minusWeeks(12);
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("from は to 以前の日付を指定してください");
+        }
+        return ResponseEntity.ok(workloadRollupService.getTrends(
+                RollupScope.of(scope), key, RollupPeriod.of(period), startDate, endDate));
+    }
+
+    /**
+     * from～to を含む週の負荷の集計を日報から作り直す（集計を導入する前の日報を取り込む場合など）
+     */
+    @PostMapping("/trends/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildTrends(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from は to 以前の日付を指定してください");
+        }
+        int rollups = workloadRollupService.rebuild(from, to);
+        return ResponseEntity.ok(Map.of("from", from, "to", to, "rollups", rollups));
+    }
+
+    private ResponseEntity<List<DailyReportResponse>> toResponse(DailyReportPage page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.reports());
     }
 
     @PostMapping
@@ -56,6 +151,22 @@ public class DailyReportController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * CSV（見出し行付き、エクスポートと同じ列）から日報を一括で取り込む
+     */
+    @PostMapping(value = "/bulk", consumes = "text/csv")
+    public ResponseEntity<DailyReportImportResult> importReportsFromCsv(InputStream body) throws IOException {
+        return ResponseEntity.ok(dailyReportImportService.importReports(DailyReportService.ExportFormat.CSV, body));
+    }
+
+    /**
+     * JSONの配列、またはNDJSON（1行1件）から日報を一括で取り込む
+     */
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<DailyReportImportResult> importReportsFromJson(InputStream body) throws IOException {
+        return ResponseEntity.ok(dailyReportImportService.importReports(DailyReportService.ExportFormat.NDJSON, body));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<DailyReportResponse> updateReport(
             @PathVariable Long id,
@@ -72,4 +183,9 @@ public class DailyReportController {
         dailyReportService.deleteReport(id, username);
         return ResponseEntity.noContent().build();
     }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleIllegalArgumentException(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    }
 }
\ No newline at end of file
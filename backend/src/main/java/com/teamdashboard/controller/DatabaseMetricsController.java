@@ -0,0 +1,109 @@
+package com.teamdashboard.controller;
+
+import com.teamdashboard.config.ConnectionPoolMetrics;
+import com.teamdashboard.config.ReplicaRoutingDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * RDB（JPA）まわりの状況を返すコントローラー
+ */
+@RestController
+@Profile("!lambda")
+@RequestMapping("/api/metrics")
+@CrossOrigin(origins = "*")
+public class DatabaseMetricsController {
+
+    private final Statistics statistics;
+    private final ConnectionPoolMetrics connectionPoolMetrics;
+    private final ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    @Autowired
+    public DatabaseMetricsController(EntityManagerFactory entityManagerFactory,
+                                     ConnectionPoolMetrics connectionPoolMetrics,
+                                     ObjectProvider<ReplicaRoutingDataSource> replicaRoutingDataSource) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.connectionPoolMetrics = connectionPoolMetrics;
+        this.replicaRoutingDataSource = replicaRoutingDataSource.getIfAvailable();
+    }
+
+    /**
+     * コネクションプールの使用中・空き・取得待ちの件数と、取得待ち時間・使用時間・タイムアウトの累計
+     * pending（取得待ちのスレッド数）や timeouts が増え続ける場合はプールが足りていない
+     */
+    @GetMapping("/pool")
+    public Map<String, Object> pool() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("pools", connectionPoolMetrics.metrics());
+        response.put("timestamp", System.currentTimeMillis());
+        return response;
+    }
+
+    /**
+     * リードレプリカの遅延と、読み取り専用のトランザクションの送り先の件数（起動してからの累計）
+     * database.replica.url が未設定の場合は enabled=false（すべてプライマリ）
+     * primaryReads が増え続ける場合は、レプリカの遅延が大きいか接続できていない（lastError）
+     */
+    @GetMapping("/replica")
+    public Map<String, Object> replica() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("enabled", replicaRoutingDataSource != null);
+        if (replicaRoutingDataSource != null) {
+            response.putAll(replicaRoutingDataSource.metrics());
+        }
+        response.put("timestamp", System.currentTimeMillis());
+        return response;
+    }
+
+    /**
+     * Hibernate 2次キャッシュのヒット・ミス件数（起動してからの累計）
+     * hibernate.generate_statistics が false の場合は enabled=false で、件数はすべて0
+     */
+    @GetMapping("/cache")
+    public Map<String, Object> cache() {
+        Map<String, Object> regions = new TreeMap<>();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics regionStatistics = statistics.getDomainDataRegionStatistics(region);
+            Map<String, Object> counts = counts(regionStatistics.getHitCount(), regionStatistics.getMissCount(),
+                    regionStatistics.getPutCount());
+            // JCache は件数を返さない（負の値になる）
+            if (regionStatistics.getElementCountInMemory() >= 0) {
+                counts.put("elementsInMemory", regionStatistics.getElementCountInMemory());
+            }
+            regions.put(region, counts);
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("enabled", statistics.isStatisticsEnabled());
+        response.put("secondLevelCache", counts(statistics.getSecondLevelCacheHitCount(),
+                statistics.getSecondLevelCacheMissCount(), statistics.getSecondLevelCachePutCount()));
+        response.put("naturalIdCache", counts(statistics.getNaturalIdCacheHitCount(),
+                statistics.getNaturalIdCacheMissCount(), statistics.getNaturalIdCachePutCount()));
+        response.put("regions", regions);
+        response.put("prepareStatements", statistics.getPrepareStatementCount());
+        response.put("timestamp", System.currentTimeMillis());
+        return response;
+    }
+
+    private static Map<String, Object> counts(long hits, long misses, long puts) {
+        Map<String, Object> counts = new HashMap<>();
+        counts.put("hits", hits);
+        counts.put("misses", misses);
+        counts.put("puts", puts);
+        counts.put("hitRatio", hits + misses == 0 ? 0.0 : Math.round(hits * 1000.0 / (hits + misses)) / 1000.0);
+        return counts;
+    }
+}
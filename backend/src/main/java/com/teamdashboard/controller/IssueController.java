@@ -0,0 +1,38 @@
+package com.teamdashboard.controller;
+
+import com.teamdashboard.dto.TeamIssueResponseDTO;
+import com.teamdashboard.entity.IssueStatus;
+import com.teamdashboard.service.IssueService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@Profile("!lambda")
+@RequestMapping("/issues")
+@CrossOrigin(origins = "*")
+public class IssueController {
+
+    @Autowired
+    private IssueService issueService;
+
+    /**
+     * 困りごとを作成日時の新しい順に limit 件、コメント数付きで返す（status は open または resolved）
+     */
+    @GetMapping
+    public ResponseEntity<List<TeamIssueResponseDTO>> getIssues(
+            @RequestParam(required = false) String status,
+            @RequestParam(defaultValue = "" + IssueService.DEFAULT_PAGE_SIZE) int limit) {
+        IssueStatus issueStatus = status == null || status.isBlank() ? null : IssueStatus.of(status);
+        return ResponseEntity.ok(issueService.getIssues(issueStatus, limit));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleIllegalArgumentException(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    }
+}
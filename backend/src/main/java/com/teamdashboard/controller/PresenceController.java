@@ -0,0 +1,33 @@
+package com.teamdashboard.controller;
+
+import com.teamdashboard.service.PresenceRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * オンライン中のユーザー一覧を返すコントローラー
+ */
+@RestController
+@Profile("!lambda")
+@RequestMapping("/api/presence")
+@CrossOrigin(origins = "*")
+public class PresenceController {
+
+    private final PresenceRegistry presenceRegistry;
+
+    @Autowired
+    public PresenceController(PresenceRegistry presenceRegistry) {
+        this.presenceRegistry = presenceRegistry;
+    }
+
+    @GetMapping
+    public Map<String, Object> getPresence() {
+        return presenceRegistry.snapshot();
+    }
+}
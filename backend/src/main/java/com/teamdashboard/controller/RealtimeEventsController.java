@@ -0,0 +1,48 @@
+package com.teamdashboard.controller;
+
+import com.teamdashboard.service.RealtimeEventStream;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * リアルタイム通知のServer-Sent Eventsエンドポイント（SockJS/STOMPを使わない軽量な受信経路）
+ */
+@RestController
+@Profile("!lambda")
+@RequestMapping("/api/events")
+@CrossOrigin(origins = "*")
+public class RealtimeEventsController {
+
+    private final RealtimeEventStream eventStream;
+
+    @Autowired
+    public RealtimeEventsController(RealtimeEventStream eventStream) {
+        this.eventStream = eventStream;
+    }
+
+    /**
+     * イベント名はトピック名（workload-updates, issue-updates, system-messages, user-status）、データは通知の配列
+     * 再接続時は Last-Event-ID ヘッダー（EventSourceが自動で付与）または lastEventId パラメーター以降を再送する
+     * department を指定すると、部署トピックの通知はその部署のものだけが届く
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> events(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader,
+            @RequestParam(value = "lastEventId", required = false) String lastEventIdParam,
+            @RequestParam(value = "department", required = false) String department) {
+        String lastEventId = lastEventIdHeader != null ? lastEventIdHeader : lastEventIdParam;
+        return eventStream.subscribe(lastEventId, department)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+    }
+}
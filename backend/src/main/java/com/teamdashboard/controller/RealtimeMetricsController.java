@@ -0,0 +1,69 @@
+package com.teamdashboard.controller;
+
+import com.teamdashboard.config.DepartmentSubscriptionFilter;
+import com.teamdashboard.config.WebSocketBackpressure;
+import com.teamdashboard.service.DynamoDbStreamPoller;
+import com.teamdashboard.service.PresenceRegistry;
+import com.teamdashboard.service.RealtimeBroadcastPipeline;
+import com.teamdashboard.service.RealtimeEventLog;
+import com.teamdashboard.service.RealtimeEventStream;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * リアルタイム通知の配信状況を返すコントローラー
+ */
+@RestController
+@Profile("!lambda")
+@RequestMapping("/api/realtime")
+@CrossOrigin(origins = "*")
+public class RealtimeMetricsController {
+
+    private final RealtimeBroadcastPipeline broadcastPipeline;
+    private final RealtimeEventLog eventLog;
+    private final RealtimeEventStream eventStream;
+    private final WebSocketBackpressure webSocketBackpressure;
+    private final PresenceRegistry presenceRegistry;
+    private final DepartmentSubscriptionFilter departmentSubscriptionFilter;
+    private final ObjectProvider<DynamoDbStreamPoller> streamPoller;
+
+    @Autowired
+    public RealtimeMetricsController(RealtimeBroadcastPipeline broadcastPipeline,
+                                     RealtimeEventLog eventLog,
+                                     RealtimeEventStream eventStream,
+                                     WebSocketBackpressure webSocketBackpressure,
+                                     PresenceRegistry presenceRegistry,
+                                     DepartmentSubscriptionFilter departmentSubscriptionFilter,
+                                     ObjectProvider<DynamoDbStreamPoller> streamPoller) {
+        this.broadcastPipeline = broadcastPipeline;
+        this.eventLog = eventLog;
+        this.eventStream = eventStream;
+        this.webSocketBackpressure = webSocketBackpressure;
+        this.presenceRegistry = presenceRegistry;
+        this.departmentSubscriptionFilter = departmentSubscriptionFilter;
+        this.streamPoller = streamPoller;
+    }
+
+    @GetMapping("/metrics")
+    public Map<String, Object> metrics() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("broadcast", broadcastPipeline.metrics());
+        response.put("eventLog", eventLog.metrics());
+        response.put("sse", eventStream.metrics());
+        response.put("websocket", webSocketBackpressure.metrics());
+        response.put("presence", presenceRegistry.metrics());
+        response.put("subscriptions", departmentSubscriptionFilter.metrics());
+        // realtime.change-capture.mode=stream のときだけ
+        streamPoller.ifAvailable(poller -> response.put("changeCapture", poller.metrics()));
+        response.put("timestamp", System.currentTimeMillis());
+        return response;
+    }
+}
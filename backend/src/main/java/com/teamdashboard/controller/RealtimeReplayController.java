@@ -0,0 +1,97 @@
+package com.teamdashboard.controller;
+
+import com.teamdashboard.config.DepartmentSubscriptionFilter;
+import com.teamdashboard.service.EventRingBuffer;
+import com.teamdashboard.service.RealtimeBroadcastPipeline;
+import com.teamdashboard.service.RealtimeEventLog;
+import com.teamdashboard.service.RealtimeTopics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Controller;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * 再接続したSTOMPクライアントに、切断中に取りこぼしたバッチを再送する
+ *
+ * クライアントは再接続後に /user/queue/replay を購読してから /app/resubscribe に
+ * 最後に受け取った連番（seq ヘッダー）を送る。それより後のバッチのうち、そのセッションが購読できるもの
+ * （全体トピックと、接続時に指定した部署のトピック）を古い順に、そのセッションにだけ送る。
+ * 各メッセージには seq と元の宛先（topic ヘッダー）を付ける。
+ * 再送の最後には type=REPLAY_COMPLETE のメッセージを送る（クライアントはそれまで通常の配信を溜めておく）。
+ * 取りこぼしを埋められない場合は代わりに type=RESET のメッセージを送り、クライアントに再読み込みを促す。
+ */
+@Controller
+@Profile("!lambda")
+public class RealtimeReplayController {
+
+    /** 再送先（クライアントは /user/queue/replay を購読する） */
+    static final String REPLAY_DESTINATION = "/queue/replay";
+
+    /** 再送したバッチの元の宛先を載せるSTOMPヘッダー */
+    static final String TOPIC_HEADER = "topic";
+
+    private static final byte[] RESET_PAYLOAD = "{\"type\":\"RESET\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] COMPLETE_PAYLOAD = "{\"type\":\"REPLAY_COMPLETE\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final RealtimeEventLog eventLog;
+    private final SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    public RealtimeReplayController(RealtimeEventLog eventLog, SimpMessagingTemplate messagingTemplate) {
+        this.eventLog = eventLog;
+        this.messagingTemplate = messagingTemplate;
+    }
+
+    @MessageMapping("/resubscribe")
+    public void resubscribe(ResubscribeRequest request, SimpMessageHeaderAccessor headerAccessor) {
+        String sessionId = headerAccessor.getSessionId();
+        if (sessionId == null || request == null || request.lastSequence() == null) {
+            return;
+        }
+        List<EventRingBuffer.Entry<RealtimeEventLog.Event>> missed = eventLog.since(request.lastSequence());
+        if (missed == null) {
+            send(sessionId, RESET_PAYLOAD, eventLog.lastSequence(), null);
+            return;
+        }
+        String departmentKey = DepartmentSubscriptionFilter.sessionDepartmentKey(headerAccessor.getMessageHeaders());
+        long lastSequence = request.lastSequence();
+        for (EventRingBuffer.Entry<RealtimeEventLog.Event> entry : missed) {
+            if (entry.event().visibleTo(departmentKey)) {
+                send(sessionId, entry.event().json(), entry.id(), RealtimeTopics.baseTopicOf(entry.event().destination()));
+            }
+            lastSequence = entry.id();
+        }
+        send(sessionId, COMPLETE_PAYLOAD, lastSequence, null);
+    }
+
+    /**
+     * セッションIDを宛先のユーザー名に使い、同じユーザーの他の接続には送らない
+     */
+    private void send(String sessionId, byte[] json, long sequence, String topic) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        accessor.setNativeHeader(RealtimeBroadcastPipeline.SEQUENCE_HEADER, String.valueOf(sequence));
+        if (topic != null) {
+            accessor.setNativeHeader(TOPIC_HEADER, topic);
+        }
+        accessor.setLeaveMutable(true);
+        Message<byte[]> message = MessageBuilder.createMessage(json, accessor.getMessageHeaders());
+        messagingTemplate.send(messagingTemplate.getUserDestinationPrefix() + sessionId + REPLAY_DESTINATION, message);
+    }
+
+    /**
+     * @param lastSequence クライアントが最後に受け取ったバッチの連番
+     */
+    public record ResubscribeRequest(Long lastSequence) {
+    }
+}
@@ -0,0 +1,49 @@
+package com.teamdashboard.controller;
+
+import com.teamdashboard.lambda.LambdaContainerStats;
+import com.teamdashboard.lambda.StartupProfiler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * APIの稼働状況とLambdaコンテナの暖気状況を返すコントローラー
+ */
+@RestController
+@RequestMapping("/api/status")
+@CrossOrigin(origins = "*")
+public class StatusController {
+
+    private final ConfigurableApplicationContext applicationContext;
+
+    @Autowired
+    public StatusController(ConfigurableApplicationContext applicationContext) {
+        this.applicationContext = applicationContext;
+    }
+
+    @GetMapping
+    public Map<String, Object> status() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "OK");
+        response.put("message", "Team Dashboard Spring Boot API is running");
+        response.put("timestamp", System.currentTimeMillis());
+        response.put("version", "1.0.0");
+        response.put("database", "DynamoDB");
+        response.put("container", LambdaContainerStats.snapshot());
+        return response;
+    }
+
+    /**
+     * 初期化時間のレポート（STARTUP_PROFILING=true の場合はBeanごとの内訳を含む）
+     */
+    @GetMapping("/startup")
+    public Map<String, Object> startupReport() {
+        return StartupProfiler.report(applicationContext);
+    }
+}
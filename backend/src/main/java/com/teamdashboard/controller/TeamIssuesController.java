@@ -4,6 +4,7 @@ import com.teamdashboard.model.TeamIssue;
 import com.teamdashboard.service.TeamIssueService;
 import com.teamdashboard.service.RealtimeNotificationService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -12,6 +13,7 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 @RestController
+@Profile("!lambda")
 @RequestMapping("/api/team-issues")
 @CrossOrigin(origins = "*")
 public class TeamIssuesController {
@@ -87,6 +89,7 @@ public class TeamIssuesController {
             // TODO: 実際の認証からユーザーIDを取得
             String currentUserId = getCurrentUserId();
             String displayName = getCurrentUserDisplayName();
+            String department = getCurrentUserDepartment(request);
             
             String content = (String) request.get("content");
             String priority = (String) request.getOrDefault("priority", "MEDIUM");
@@ -97,11 +100,12 @@ public class TeamIssuesController {
                 return ResponseEntity.badRequest().body(errorResponse);
             }
             
-            TeamIssue newIssue = teamIssueService.createTeamIssue(currentUserId, displayName, content, priority);
+            TeamIssue newIssue = teamIssueService.createTeamIssue(
+                    currentUserId, displayName, department, content, priority);
             
-            // リアルタイム通知を送信
+            // リアルタイム通知を送信（部署が分かる場合は同じ部署の購読者にだけ届く）
             notificationService.notifyTeamIssueCreated(
-                    newIssue.getIssueId(), currentUserId, displayName, content, priority);
+                    newIssue.getIssueId(), currentUserId, displayName, department, content, priority);
             
             Map<String, Object> response = convertToMap(newIssue);
             response.put("message", "新しい困りごとが投稿されました");
@@ -133,7 +137,7 @@ public class TeamIssuesController {
                 
                 // リアルタイム通知を送信
                 notificationService.notifyTeamIssueResolved(
-                        issueId, issue.getUserId(), issue.getDisplayName());
+                        issueId, issue.getUserId(), issue.getDisplayName(), issue.getDepartment());
                 
                 Map<String, Object> response = convertToMap(issue);
                 response.put("message", "困りごとが解決済みになりました");
@@ -194,6 +198,7 @@ public class TeamIssuesController {
         map.put("issueId", issue.getIssueId());
         map.put("userId", issue.getUserId());
         map.put("displayName", issue.getDisplayName());
+        map.put("department", issue.getDepartment());
         map.put("content", issue.getContent());
         map.put("status", issue.getStatus());
         map.put("priority", issue.getPriority());
@@ -213,6 +218,13 @@ public class TeamIssuesController {
         return "現在のユーザー";
     }
 
+    private String getCurrentUserDepartment(Map<String, Object> request) {
+        // TODO: Spring Securityから実際のユーザーの部署を取得
+        // それまではリクエスト本文の値（クライアントの申告）のため、通知の振り分けにだけ使う
+        Object department = request.get("department");
+        return department instanceof String value && !value.isBlank() ? value.trim() : null;
+    }
+
     private List<Map<String, Object>> getSampleTeamIssues() {
         List<Map<String, Object>> issues = new ArrayList<>();
         
@@ -4,6 +4,7 @@ import com.teamdashboard.model.WorkloadStatus;
 import com.teamdashboard.service.WorkloadStatusService;
 import com.teamdashboard.service.RealtimeNotificationService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -12,6 +13,7 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 @RestController
+@Profile("!lambda")
 @RequestMapping("/api")
 @CrossOrigin(origins = "*")
 public class WorkloadController {
@@ -26,17 +28,6 @@ public class WorkloadController {
         this.notificationService = notificationService;
     }
 
-    @GetMapping("/status")
-    public Map<String, Object> status() {
-        Map<String, Object> response = new HashMap<>();
-        response.put("status", "OK");
-        response.put("message", "Team Dashboard Spring Boot API is running");
-        response.put("timestamp", System.currentTimeMillis());
-        response.put("version", "1.0.0");
-        response.put("database", "DynamoDB");
-        return response;
-    }
-
     @GetMapping("/workload-status")
     public List<Map<String, Object>> getAllWorkloadStatuses() {
         try {
@@ -89,6 +80,7 @@ public class WorkloadController {
             // TODO: 実際の認証からユーザーIDを取得
             String currentUserId = getCurrentUserId();
             String displayName = getCurrentUserDisplayName();
+            String department = getCurrentUserDepartment(request);
             
             String workloadLevel = (String) request.getOrDefault("workloadLevel", "MEDIUM");
             Integer projectCount = getIntegerFromRequest(request, "projectCount", 0);
@@ -96,11 +88,11 @@ public class WorkloadController {
             String comment = (String) request.get("comment");
             
             WorkloadStatus updatedStatus = workloadStatusService.createOrUpdateWorkloadStatus(
-                    currentUserId, displayName, workloadLevel, projectCount, taskCount, comment);
+                    currentUserId, displayName, department, workloadLevel, projectCount, taskCount, comment);
             
-            // リアルタイム通知を送信
-            notificationService.notifyWorkloadStatusUpdate(
-                    currentUserId, displayName, workloadLevel, projectCount, taskCount);
+            // リアルタイム通知を送信（部署が分かる場合は同じ部署の購読者にだけ届く）
+            notificationService.notifyWorkloadStatusUpdate(currentUserId, displayName,
+                    updatedStatus.getDepartment(), workloadLevel, projectCount, taskCount);
             
             Map<String, Object> response = convertToMap(updatedStatus);
             response.put("message", "負荷状況を更新しました");
@@ -156,6 +148,7 @@ public class WorkloadController {
         Map<String, Object> map = new HashMap<>();
         map.put("userId", status.getUserId());
         map.put("displayName", status.getDisplayName());
+        map.put("department", status.getDepartment());
         map.put("workloadLevel", status.getWorkloadLevel());
         map.put("projectCount", status.getProjectCount());
         map.put("taskCount", status.getTaskCount());
@@ -189,6 +182,13 @@ public class WorkloadController {
         return "現在のユーザー";
     }
 
+    private String getCurrentUserDepartment(Map<String, Object> request) {
+        // TODO: Spring Securityから実際のユーザーの部署を取得
+        // それまではリクエスト本文の値（クライアントの申告）のため、通知の振り分けにだけ使う
+        Object department = request.get("department");
+        return department instanceof String value && !value.isBlank() ? value.trim() : null;
+    }
+
     private List<Map<String, Object>> getSampleWorkloadStatuses() {
         List<Map<String, Object>> statuses = new ArrayList<>();
         
@@ -0,0 +1,17 @@
+package com.teamdashboard.dto;
+
+import java.util.List;
+
+/**
+ * 日報の一括取り込みの結果
+ *
+ * @param imported       保存した件数
+ * @param skipped        取り込まなかった件数（不正な行・同じユーザーと日付の日報が既にある行）
+ * @param errors         取り込まなかった理由（先頭から最大 MAX_ERRORS 件、行番号付き）
+ * @param durationMillis 処理時間
+ */
+public record DailyReportImportResult(long imported, long skipped, List<String> errors, long durationMillis) {
+
+    /** errors に残す件数の上限 */
+    public static final int MAX_ERRORS = 100;
+}
@@ -0,0 +1,20 @@
+package com.teamdashboard.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.time.LocalDate;
+
+/**
+ * 一括取り込みする日報1件（エクスポートした日報の id・displayName 等の列は無視する）
+ *
+ * @param username      投稿者のユーザー名
+ * @param reportDate    日付
+ * @param workContent   作業内容
+ * @param insights      気づき
+ * @param issues        困りごと
+ * @param workloadLevel 負荷レベル（1～5、未入力は null）
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record DailyReportImportRow(String username, LocalDate reportDate, String workContent, String insights,
+                                   String issues, Integer workloadLevel) {
+}
@@ -0,0 +1,42 @@
+package com.teamdashboard.dto;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * 日報一覧の1ページ分（日付・IDの降順）
+ *
+ * @param reports    日報のリスト
+ * @param nextCursor 次のページを取得するカーソル（最後のページは null）
+ */
+public record DailyReportPage(List<DailyReportResponse> reports, String nextCursor) {
+
+    /**
+     * ページの位置（最後に返した日報の日付とID）。文字列形式は「yyyy-MM-dd_ID」
+     */
+    public record Cursor(LocalDate reportDate, Long id) {
+
+        public static Cursor of(DailyReportResponse report) {
+            return new Cursor(report.getReportDate(), report.getId());
+        }
+
+        /**
+         * @throws IllegalArgumentException 形式が正しくない場合
+         */
+        public static Cursor parse(String value) {
+            int separator = value.lastIndexOf('_');
+            try {
+                return new Cursor(LocalDate.parse(value.substring(0, Math.max(separator, 0))),
+                        Long.parseLong(value.substring(separator + 1)));
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new IllegalArgumentException("カーソルの形式が正しくありません: " + value);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return reportDate + "_" + id;
+        }
+    }
+}
@@ -19,6 +19,24 @@ public class DailyReportResponse {
     // Constructors
     public DailyReportResponse() {}
 
+    /**
+     * JPQLのコンストラクター式（SELECT new ...）用。エンティティを読み込まずに一覧・エクスポートを作る
+     */
+    public DailyReportResponse(Long id, String username, String displayName, LocalDate reportDate,
+                               String workContent, String insights, String issues, Integer workloadLevel,
+                               LocalDateTime createdAt) {
+        this.id = id;
+        this.username = username;
+        this.displayName = displayName;
+        this.reportDate = reportDate;
+        this.workContent = workContent;
+        this.insights = insights;
+        this.issues = issues;
+        this.workloadLevel = workloadLevel;
+        this.workloadLevelText = getWorkloadLevelText(workloadLevel);
+        this.createdAt = createdAt;
+    }
+
     public DailyReportResponse(DailyReport report) {
         this.id = report.getId();
         this.username = report.getUser().getUsername();
@@ -0,0 +1,84 @@
+package com.teamdashboard.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.Instant;
+
+/**
+ * STOMPで配信するリアルタイム通知
+ *
+ * JSONの項目名は従来のMap形式の通知と同じ（フロントエンドの realtime-client.js はそのまま読める）。
+ */
+public sealed interface RealtimeNotification {
+
+    String type();
+
+    long timestamp();
+
+    /**
+     * 負荷状況の更新
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    record WorkloadStatusUpdate(String type, String userId, String displayName, String department,
+                                String workloadLevel, Integer projectCount, Integer taskCount, long timestamp)
+            implements RealtimeNotification {
+
+        public static WorkloadStatusUpdate of(String userId, String displayName, String department,
+                                              String workloadLevel, Integer projectCount, Integer taskCount) {
+            return new WorkloadStatusUpdate("WORKLOAD_STATUS_UPDATE", userId, displayName, department, workloadLevel,
+                    projectCount, taskCount, Instant.now().toEpochMilli());
+        }
+    }
+
+    /**
+     * 困りごとの投稿・解決・再オープン・削除
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    record TeamIssueUpdate(String type, String issueId, String userId, String displayName, String department,
+                           String content, String priority, String status, long timestamp)
+            implements RealtimeNotification {
+
+        public static final String CREATED = "TEAM_ISSUE_CREATED";
+        public static final String RESOLVED = "TEAM_ISSUE_RESOLVED";
+        public static final String REOPENED = "TEAM_ISSUE_REOPENED";
+        public static final String DELETED = "TEAM_ISSUE_DELETED";
+
+        public static TeamIssueUpdate of(String type, String issueId, String userId, String displayName,
+                                         String department, String content, String priority, String status) {
+            return new TeamIssueUpdate(type, issueId, userId, displayName, department, content, priority, status,
+                    Instant.now().toEpochMilli());
+        }
+
+        public TeamIssueUpdate withStatus(String newStatus, long newTimestamp) {
+            return new TeamIssueUpdate(type, issueId, userId, displayName, department, content, priority, newStatus,
+                    newTimestamp);
+        }
+    }
+
+    /**
+     * システム通知
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    record SystemMessage(String type, String message, String messageType, long timestamp)
+            implements RealtimeNotification {
+
+        public static SystemMessage of(String message, String messageType) {
+            return new SystemMessage("SYSTEM_MESSAGE", message, messageType, Instant.now().toEpochMilli());
+        }
+    }
+
+    /**
+     * ユーザーのオンライン/オフライン
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    record UserConnectionStatus(String type, String userId, String displayName,
+                                @JsonProperty("isOnline") boolean isOnline, long timestamp)
+            implements RealtimeNotification {
+
+        public static UserConnectionStatus of(String userId, String displayName, boolean isOnline) {
+            return new UserConnectionStatus("USER_CONNECTION_STATUS", userId, displayName, isOnline,
+                    Instant.now().toEpochMilli());
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.teamdashboard.dto;
+
+import com.teamdashboard.entity.RollupPeriod;
+import com.teamdashboard.entity.RollupScope;
+import com.teamdashboard.entity.WorkloadRollup;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * ユーザー・部署の1期間分の負荷の集計
+ *
+ * @param scope       集計単位
+ * @param key         ユーザー名または部署名
+ * @param period      集計期間
+ * @param periodStart 期間の開始日（週は月曜日）
+ * @param reportCount 負荷レベルが入力された日報の件数
+ * @param average     負荷レベルの平均
+ * @param p50         負荷レベルの中央値
+ * @param p90         負荷レベルの90パーセンタイル
+ * @param levelCounts 負荷レベル（1～5）ごとの件数
+ */
+public record WorkloadTrendResponse(RollupScope scope, String key, RollupPeriod period, LocalDate periodStart,
+                                    long reportCount, double average, int p50, int p90,
+                                    Map<Integer, Long> levelCounts) {
+
+    public static WorkloadTrendResponse of(WorkloadRollup rollup) {
+        Map<Integer, Long> levelCounts = new LinkedHashMap<>();
+        for (int level = 1; level <= WorkloadRollup.MAX_LEVEL; level++) {
+            levelCounts.put(level, rollup.getCount(level));
+        }
+        return new WorkloadTrendResponse(rollup.getScope(), rollup.getScopeKey(), rollup.getPeriod(),
+                rollup.getPeriodStart(), rollup.getReportCount(), Math.round(rollup.getAverage() * 100) / 100.0,
+                rollup.getPercentile(50), rollup.getPercentile(90), levelCounts);
+    }
+}
@@ -8,10 +8,20 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "daily_reports")
+@Table(name = "daily_reports", indexes = {
+        // 一覧のキーセットページング（日付・IDの降順）用
+        @Index(name = "idx_daily_reports_report_date_id", columnList = "report_date DESC, id DESC"),
+        // ユーザーごとの一覧・日付指定の1件・期間指定用
+        @Index(name = "idx_daily_reports_user_id_report_date", columnList = "user_id, report_date"),
+        // 日付・期間ごとの一覧（作成日時順）用
+        @Index(name = "idx_daily_reports_report_date_created_at", columnList = "report_date, created_at")
+        // PostgreSQLでは負荷レベルの再集計用の部分インデックスもある（db/migration/postgresql）
+})
 public class DailyReport {
+    // IDENTITY だとHibernateがINSERTをまとめられないため、シーケンスから50件ずつ番号を確保する（pooled）
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "daily_reports_seq")
+    @SequenceGenerator(name = "daily_reports_seq", sequenceName = "daily_reports_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
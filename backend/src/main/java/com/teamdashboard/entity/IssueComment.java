@@ -9,7 +9,12 @@ import java.time.LocalDateTime;
  * 困りごとに対するコメントを管理するエンティティ
  */
 @Entity
-@Table(name = "issue_comments")
+@Table(name = "issue_comments", indexes = {
+        // 困りごとごとのコメント取得（作成日時順）・件数の集計用（PostgreSQLは外部キーに索引を作らない）
+        @Index(name = "idx_issue_comments_issue_id_created_at", columnList = "issue_id, created_at"),
+        // ユーザーごとのコメント取得（作成日時順）用
+        @Index(name = "idx_issue_comments_user_id_created_at", columnList = "user_id, created_at")
+})
 public class IssueComment {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
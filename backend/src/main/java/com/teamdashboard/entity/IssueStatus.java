@@ -1,5 +1,7 @@
 package com.teamdashboard.entity;
 
+import java.util.Locale;
+
 /**
  * 困りごとのステータスを表す列挙型
  */
@@ -16,4 +18,15 @@ public enum IssueStatus {
     public String getDisplayName() {
         return displayName;
     }
+
+    /**
+     * @throws IllegalArgumentException open・resolved 以外の場合
+     */
+    public static IssueStatus of(String value) {
+        try {
+            return valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("ステータスは open または resolved を指定してください: " + value);
+        }
+    }
 }
\ No newline at end of file
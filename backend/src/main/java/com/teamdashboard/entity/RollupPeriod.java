@@ -0,0 +1,42 @@
+package com.teamdashboard.entity;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Locale;
+
+/**
+ * 負荷の集計期間を表す列挙型（週は月曜始まり）
+ */
+public enum RollupPeriod {
+    DAY("日"),
+    WEEK("週");
+
+    private final String displayName;
+
+    RollupPeriod(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * date を含む期間の開始日
+     */
+    public LocalDate startOf(LocalDate date) {
+        return this == WEEK ? date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)) : date;
+    }
+
+    /**
+     * @throws IllegalArgumentException day・week 以外の場合
+     */
+    public static RollupPeriod of(String value) {
+        try {
+            return valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("集計期間は day または week を指定してください: " + value);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.teamdashboard.entity;
+
+import java.util.Locale;
+
+/**
+ * 負荷の集計単位を表す列挙型
+ */
+public enum RollupScope {
+    USER("ユーザー"),
+    DEPARTMENT("部署");
+
+    private final String displayName;
+
+    RollupScope(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * @throws IllegalArgumentException user・department 以外の場合
+     */
+    public static RollupScope of(String value) {
+        try {
+            return valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("集計単位は user または department を指定してください: " + value);
+        }
+    }
+}
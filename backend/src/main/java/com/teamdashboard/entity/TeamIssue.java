@@ -11,7 +11,10 @@ import java.util.List;
  * チームの困りごとを管理するエンティティ
  */
 @Entity
-@Table(name = "team_issues")
+@Table(name = "team_issues", indexes = {
+        // 新しい順の一覧用（PostgreSQLでは未解決だけの部分インデックスもある。db/migration/postgresql）
+        @Index(name = "idx_team_issues_created_at_id", columnList = "created_at DESC, id DESC")
+})
 public class TeamIssue {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -3,16 +3,38 @@ package com.teamdashboard.entity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import java.time.LocalDateTime;
 
+/**
+ * ユーザーを管理するエンティティ
+ *
+ * 日報の投稿・取得のたびにユーザー名で引かれ、更新はまれなため、
+ * 2次キャッシュ（IDで引く場合）とナチュラルIDキャッシュ（ユーザー名で引く場合）に載せる。
+ * エンティティ経由の更新・削除ではキャッシュも更新される。
+ */
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = User.CACHE_REGION)
+@NaturalIdCache(region = User.NATURAL_ID_CACHE_REGION)
 public class User {
+
+    /** 2次キャッシュのリージョン名（キャッシュの設定は application.conf） */
+    public static final String CACHE_REGION = "users";
+
+    /** ユーザー名からIDを引くナチュラルIDキャッシュのリージョン名 */
+    public static final String NATURAL_ID_CACHE_REGION = "users-by-username";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
     @NotBlank
+    @NaturalId(mutable = true)
     @Column(unique = true)
     private String username;
 
@@ -0,0 +1,141 @@
+package com.teamdashboard.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * 日報の負荷レベル（1～5）をユーザー・部署ごと、日・週ごとに集計したエンティティ
+ *
+ * 負荷レベルごとの件数を持つため、日報の投稿・変更・削除のたびに件数を増減するだけで更新でき、
+ * 平均とパーセンタイルも件数から正確に求められる。
+ */
+@Entity
+@Table(name = "workload_rollups", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_workload_rollups_key", columnNames = {"scope", "scope_key", "period", "period_start"})
+}, indexes = {
+        // キーを指定しない範囲検索（部署・ユーザーの一覧）用
+        @Index(name = "idx_workload_rollups_period_start", columnList = "scope, period, period_start"),
+        // 再集計の期間指定の削除用
+        @Index(name = "idx_workload_rollups_period_start_only", columnList = "period_start")
+})
+public class WorkloadRollup {
+
+    /** 負荷レベルの最大値（DailyReport.workloadLevel は 1～MAX_LEVEL） */
+    public static final int MAX_LEVEL = 5;
+
+    // 作り直し（rebuild）でINSERTをまとめられるよう、シーケンスから50件ずつ番号を確保する
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "workload_rollups_seq")
+    @SequenceGenerator(name = "workload_rollups_seq", sequenceName = "workload_rollups_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "scope", nullable = false, length = 16)
+    private RollupScope scope;
+
+    @Column(name = "scope_key", nullable = false)
+    private String scopeKey; // ユーザー名または部署名
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "period", nullable = false, length = 8)
+    private RollupPeriod period;
+
+    @Column(name = "period_start", nullable = false)
+    private LocalDate periodStart;
+
+    @Column(name = "level1_count", nullable = false)
+    private long level1Count;
+
+    @Column(name = "level2_count", nullable = false)
+    private long level2Count;
+
+    @Column(name = "level3_count", nullable = false)
+    private long level3Count;
+
+    @Column(name = "level4_count", nullable = false)
+    private long level4Count;
+
+    @Column(name = "level5_count", nullable = false)
+    private long level5Count;
+
+    // Constructors
+    public WorkloadRollup() {}
+
+    public WorkloadRollup(RollupScope scope, String scopeKey, RollupPeriod period, LocalDate periodStart) {
+        this.scope = scope;
+        this.scopeKey = scopeKey;
+        this.period = period;
+        this.periodStart = periodStart;
+    }
+
+    /**
+     * 負荷レベル level の件数を delta だけ増減する
+     */
+    public void add(int level, long delta) {
+        switch (level) {
+            case 1 -> level1Count += delta;
+            case 2 -> level2Count += delta;
+            case 3 -> level3Count += delta;
+            case 4 -> level4Count += delta;
+            case 5 -> level5Count += delta;
+            default -> throw new IllegalArgumentException("負荷レベルは1～" + MAX_LEVEL + "です: " + level);
+        }
+    }
+
+    public long getCount(int level) {
+        return switch (level) {
+            case 1 -> level1Count;
+            case 2 -> level2Count;
+            case 3 -> level3Count;
+            case 4 -> level4Count;
+            case 5 -> level5Count;
+            default -> 0;
+        };
+    }
+
+    public long getReportCount() {
+        return level1Count + level2Count + level3Count + level4Count + level5Count;
+    }
+
+    public double getAverage() {
+        long count = getReportCount();
+        if (count == 0) {
+            return 0;
+        }
+        long sum = 0;
+        for (int level = 1; level <= MAX_LEVEL; level++) {
+            sum += level * getCount(level);
+        }
+        return (double) sum / count;
+    }
+
+    /**
+     * 負荷レベルの percentile パーセンタイル（最近接順位法）。件数が0の場合は0
+     */
+    public int getPercentile(int percentile) {
+        long count = getReportCount();
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (count * percentile + 99) / 100);
+        long seen = 0;
+        for (int level = 1; level <= MAX_LEVEL; level++) {
+            seen += getCount(level);
+            if (seen >= rank) {
+                return level;
+            }
+        }
+        return MAX_LEVEL;
+    }
+
+    // Getters
+    public Long getId() { return id; }
+
+    public RollupScope getScope() { return scope; }
+
+    public String getScopeKey() { return scopeKey; }
+
+    public RollupPeriod getPeriod() { return period; }
+
+    public LocalDate getPeriodStart() { return periodStart; }
+}
@@ -0,0 +1,55 @@
+package com.teamdashboard.entity.dynamodb;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import software.amazon.awssdk.enhanced.dynamodb.AttributeConverter;
+import software.amazon.awssdk.enhanced.dynamodb.AttributeValueType;
+import software.amazon.awssdk.enhanced.dynamodb.EnhancedType;
+import software.amazon.awssdk.enhanced.dynamodb.document.EnhancedDocument;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.Map;
+
+/**
+ * TeamDashboardItemのData属性（Map<String, Object>）をDynamoDBのMap型として保存するコンバーター
+ * Enhanced ClientはObject型の値を扱えないため、JSON経由でAttributeValueと相互変換する
+ */
+public class DataMapAttributeConverter implements AttributeConverter<Map<String, Object>> {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+
+    @Override
+    public AttributeValue transformFrom(Map<String, Object> input) {
+        try {
+            String json = objectMapper.writeValueAsString(input);
+            return AttributeValue.builder().m(EnhancedDocument.fromJson(json).toMap()).build();
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Failed to convert Data attribute", e);
+        }
+    }
+
+    @Override
+    public Map<String, Object> transformTo(AttributeValue input) {
+        if (!input.hasM()) {
+            return null;
+        }
+        try {
+            String json = EnhancedDocument.fromAttributeValueMap(input.m()).toJson();
+            return objectMapper.readValue(json, MAP_TYPE);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Failed to read Data attribute", e);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public EnhancedType<Map<String, Object>> type() {
+        return EnhancedType.mapOf(String.class, Object.class);
+    }
+
+    @Override
+    public AttributeValueType attributeValueType() {
+        return AttributeValueType.M;
+    }
+}
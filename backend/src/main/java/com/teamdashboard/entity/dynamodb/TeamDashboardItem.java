@@ -42,6 +42,7 @@ public class TeamDashboardItem {
     public void setItemType(String itemType) { this.itemType = itemType; }
     
     @DynamoDbAttribute("Data")
+    @DynamoDbConvertedBy(DataMapAttributeConverter.class)
     public Map<String, Object> getData() { return data; }
     public void setData(Map<String, Object> data) { this.data = data; }
     
@@ -0,0 +1,33 @@
+package com.teamdashboard.lambda;
+
+import org.springframework.boot.web.servlet.context.AnnotationConfigServletWebServerApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigUtils;
+
+import java.util.List;
+
+/**
+ * AOT実行時に使うWebアプリケーションコンテキスト
+ *
+ * SpringBootLambdaContainerHandler はコンテキストを AnnotationConfigServletWebServerApplicationContext として扱うため、
+ * AOT実行時の標準（ServletWebServerApplicationContext）の代わりにこのクラスを使う。
+ * Bean定義はAOT生成コードが登録するので、設定クラスの解析や@Autowired処理を行うプロセッサーは登録しない。
+ */
+public class AotServletWebServerApplicationContext extends AnnotationConfigServletWebServerApplicationContext {
+
+    private static final List<String> ANNOTATION_PROCESSORS = List.of(
+            AnnotationConfigUtils.CONFIGURATION_ANNOTATION_PROCESSOR_BEAN_NAME,
+            AnnotationConfigUtils.AUTOWIRED_ANNOTATION_PROCESSOR_BEAN_NAME,
+            AnnotationConfigUtils.COMMON_ANNOTATION_PROCESSOR_BEAN_NAME,
+            AnnotationConfigUtils.PERSISTENCE_ANNOTATION_PROCESSOR_BEAN_NAME,
+            AnnotationConfigUtils.EVENT_LISTENER_PROCESSOR_BEAN_NAME,
+            AnnotationConfigUtils.EVENT_LISTENER_FACTORY_BEAN_NAME);
+
+    public AotServletWebServerApplicationContext() {
+        // イベントリスナー関連はAOT生成コードが改めて登録する
+        for (String name : ANNOTATION_PROCESSORS) {
+            if (containsBeanDefinition(name)) {
+                removeBeanDefinition(name);
+            }
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.teamdashboard.lambda;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.DynamodbEvent;
+import com.amazonaws.services.lambda.runtime.events.StreamsEventResponse;
+import com.amazonaws.services.lambda.runtime.events.models.dynamodb.AttributeValue;
+import com.amazonaws.services.lambda.runtime.events.models.dynamodb.StreamRecord;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.teamdashboard.dto.RealtimeNotification;
+import com.teamdashboard.service.RealtimeNotificationSink;
+import com.teamdashboard.service.StreamRecordConverter;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * DynamoDB Streams のイベントソースから呼び出され、変更データをリアルタイム通知に変換するLambdaハンドラー
+ *
+ * API用のLambda（SimpleLambdaHandler）は書き込みだけを行い、通知はこのハンドラーが非同期に送る。
+ * WEBSOCKET_MANAGEMENT_ENDPOINT が設定されていれば API Gateway WebSocket の接続へ送り、なければLambdaのログに出力する。
+ * Springコンテキストは起動しない。処理に失敗したレコード以降は batchItemFailures として返し、
+ * イベントソース側（ReportBatchItemFailures）で失敗したレコードから再試行させる。
+ */
+public class DynamoDbStreamHandler implements RequestHandler<DynamodbEvent, StreamsEventResponse> {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final RealtimeNotificationSink sink;
+
+    public DynamoDbStreamHandler() {
+        this(System.getenv("WEBSOCKET_MANAGEMENT_ENDPOINT") != null
+                ? WebSocketNotificationPublisher.fromEnvironment()
+                : null);
+    }
+
+    /**
+     * @param sink 通知の送り先（null の場合は通知をLambdaのログに出力する）
+     */
+    public DynamoDbStreamHandler(RealtimeNotificationSink sink) {
+        this.sink = sink;
+    }
+
+    @Override
+    public StreamsEventResponse handleRequest(DynamodbEvent event, Context context) {
+        List<StreamsEventResponse.BatchItemFailure> failures = new ArrayList<>();
+        if (event == null || event.getRecords() == null) {
+            return new StreamsEventResponse(failures);
+        }
+        List<RealtimeNotification> notifications = new ArrayList<>();
+        String firstNotifiedSequenceNumber = null;
+        String failedSequenceNumber = null;
+        for (DynamodbEvent.DynamodbStreamRecord record : event.getRecords()) {
+            StreamRecord streamRecord = record.getDynamodb();
+            try {
+                Optional<RealtimeNotification> notification = StreamRecordConverter.convert(record.getEventName(),
+                        toMap(streamRecord.getOldImage()), toMap(streamRecord.getNewImage()));
+                if (notification.isPresent()) {
+                    notifications.add(notification.get());
+                    if (firstNotifiedSequenceNumber == null) {
+                        firstNotifiedSequenceNumber = streamRecord.getSequenceNumber();
+                    }
+                }
+            } catch (RuntimeException e) {
+                // 同じシャードのレコードは順番に処理する必要があるため、失敗した位置で打ち切る
+                log(context, "Failed to convert stream record " + streamRecord.getSequenceNumber() + ": " + e.getMessage());
+                failedSequenceNumber = streamRecord.getSequenceNumber();
+                break;
+            }
+        }
+        try {
+            // バッチ内の通知はまとめて送る（接続ごとの送信回数を減らす）
+            if (sink instanceof WebSocketNotificationPublisher publisher) {
+                log(context, "WebSocket fan-out: " + publisher.send(notifications));
+            } else if (sink != null) {
+                sink.publishAll(notifications);
+            } else {
+                // 配信先（API Gateway WebSocket）が設定されていない場合は、通知をログに出力する
+                for (RealtimeNotification notification : notifications) {
+                    log(context, "Realtime notification: " + encode(notification));
+                }
+            }
+        } catch (RuntimeException e) {
+            log(context, "Failed to publish " + notifications.size() + " notifications: " + e.getMessage());
+            failedSequenceNumber = firstNotifiedSequenceNumber;
+        }
+        if (failedSequenceNumber != null) {
+            failures.add(StreamsEventResponse.BatchItemFailure.builder()
+                    .withItemIdentifier(failedSequenceNumber)
+                    .build());
+        }
+        log(context, "Processed " + event.getRecords().size() + " stream records, published "
+                + (failedSequenceNumber == null ? notifications.size() : 0) + " notifications");
+        return new StreamsEventResponse(failures);
+    }
+
+    private static void log(Context context, String message) {
+        if (context != null) {
+            context.getLogger().log(message);
+        }
+    }
+
+    private static String encode(RealtimeNotification notification) {
+        try {
+            return objectMapper.writeValueAsString(notification);
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to encode notification", e);
+        }
+    }
+
+    /**
+     * Lambdaイベントの属性値をJavaの値に変換する（StreamRecordConverter.toMap と同じ規則）
+     */
+    static Map<String, Object> toMap(Map<String, AttributeValue> attributes) {
+        if (attributes == null || attributes.isEmpty()) {
+            return null;
+        }
+        Map<String, Object> map = new LinkedHashMap<>();
+        attributes.forEach((name, value) -> map.put(name, toValue(value)));
+        return map;
+    }
+
+    private static Object toValue(AttributeValue value) {
+        if (value.getS() != null) {
+            return value.getS();
+        }
+        if (value.getN() != null) {
+            return StreamRecordConverter.number(value.getN());
+        }
+        if (value.getBOOL() != null) {
+            return value.getBOOL();
+        }
+        if (value.getM() != null) {
+            return toMap(value.getM());
+        }
+        if (value.getL() != null) {
+            List<Object> list = new ArrayList<>();
+            value.getL().forEach(element -> list.add(toValue(element)));
+            return list;
+        }
+        if (value.getSS() != null) {
+            return new ArrayList<>(value.getSS());
+        }
+        if (value.getNS() != null) {
+            List<Object> list = new ArrayList<>();
+            value.getNS().forEach(element -> list.add(StreamRecordConverter.number(element)));
+            return list;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,180 @@
+package com.teamdashboard.lambda;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.lambda.LambdaClient;
+import software.amazon.awssdk.services.lambda.model.InvocationType;
+import software.amazon.awssdk.services.lambda.model.InvokeRequest;
+import software.amazon.awssdk.services.lambda.model.InvokeResponse;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * keep-warmイベントの判定と処理
+ *
+ * EventBridgeのスケジュールから {"resource":"keep-warm","body":"{\"concurrency\":N}"} 形式で呼び出される。
+ * concurrencyが2以上の場合は自分自身をN-1回並列に呼び出し、各呼び出しを holdMillis だけ保持することで
+ * 別々のコンテナに振り分けさせ、N個のコンテナを暖気する。
+ */
+public final class KeepWarm {
+
+    public static final String RESOURCE = "keep-warm";
+
+    private static final int DEFAULT_HOLD_MILLIS = 75;
+    private static final int MAX_CONCURRENCY = 50;
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    // 通常リクエストのコールドスタートに影響しないよう、初回のファンアウト時に生成する
+    private static volatile LambdaClient lambdaClient;
+
+    private KeepWarm() {
+    }
+
+    public static boolean isKeepWarmEvent(String resource) {
+        return RESOURCE.equals(resource);
+    }
+
+    /**
+     * keep-warmイベントを処理し、レスポンスボディ用のMapを返す
+     */
+    public static Map<String, Object> handle(String body, Context context) throws Exception {
+        Map<String, Object> options = parseOptions(body);
+        int concurrency = Math.min(toInt(options.get("concurrency"), 1), MAX_CONCURRENCY);
+        int holdMillis = toInt(options.get("holdMillis"), DEFAULT_HOLD_MILLIS);
+        boolean child = Boolean.TRUE.equals(options.get("child"));
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("warmed", true);
+        result.put("containerId", LambdaContainerStats.getContainerId());
+
+        if (child || concurrency <= 1) {
+            hold(holdMillis);
+            result.put("container", LambdaContainerStats.snapshot());
+            return result;
+        }
+
+        Set<String> containerIds = new LinkedHashSet<>();
+        containerIds.add(LambdaContainerStats.getContainerId());
+        int failures = 0;
+
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency - 1);
+        try {
+            String payload = childPayload(holdMillis);
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 1; i < concurrency; i++) {
+                futures.add(executor.submit(() -> invokeChild(context.getInvokedFunctionArn(), payload)));
+            }
+            hold(holdMillis);
+            for (Future<String> future : futures) {
+                try {
+                    String containerId = future.get();
+                    if (containerId != null) {
+                        containerIds.add(containerId);
+                    }
+                } catch (Exception e) {
+                    failures++;
+                    context.getLogger().log("Keep-warm fan-out invocation failed: " + e.getMessage());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        result.put("requestedConcurrency", concurrency);
+        result.put("warmedContainers", containerIds.size());
+        result.put("containerIds", containerIds);
+        result.put("failures", failures);
+        result.put("container", LambdaContainerStats.snapshot());
+        return result;
+    }
+
+    private static String invokeChild(String functionArn, String payload) throws Exception {
+        InvokeResponse response = getLambdaClient().invoke(InvokeRequest.builder()
+                .functionName(functionArn)
+                .invocationType(InvocationType.REQUEST_RESPONSE)
+                .payload(SdkBytes.fromUtf8String(payload))
+                .build());
+
+        if (response.functionError() != null) {
+            throw new IllegalStateException("Function error: " + response.functionError());
+        }
+
+        // レスポンスはAPI Gateway形式のため、bodyから暖気されたコンテナIDを取り出す
+        Map<?, ?> proxyResponse = objectMapper.readValue(response.payload().asUtf8String(), Map.class);
+        Object body = proxyResponse.get("body");
+        if (body == null) {
+            return null;
+        }
+        Object containerId = objectMapper.readValue(body.toString(), Map.class).get("containerId");
+        return containerId != null ? containerId.toString() : null;
+    }
+
+    private static String childPayload(int holdMillis) throws Exception {
+        Map<String, Object> childOptions = new HashMap<>();
+        childOptions.put("child", true);
+        childOptions.put("holdMillis", holdMillis);
+
+        Map<String, Object> event = new HashMap<>();
+        event.put("resource", RESOURCE);
+        event.put("body", objectMapper.writeValueAsString(childOptions));
+        return objectMapper.writeValueAsString(event);
+    }
+
+    private static LambdaClient getLambdaClient() {
+        if (lambdaClient == null) {
+            synchronized (KeepWarm.class) {
+                if (lambdaClient == null) {
+                    lambdaClient = LambdaClient.create();
+                }
+            }
+        }
+        return lambdaClient;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> parseOptions(String body) {
+        if (body == null || body.isBlank()) {
+            return new HashMap<>();
+        }
+        try {
+            return objectMapper.readValue(body, Map.class);
+        } catch (Exception e) {
+            return new HashMap<>();
+        }
+    }
+
+    private static int toInt(Object value, int defaultValue) {
+        if (value instanceof Number) {
+            return ((Number) value).intValue();
+        } else if (value instanceof String) {
+            try {
+                return Integer.parseInt((String) value);
+            } catch (NumberFormatException e) {
+                return defaultValue;
+            }
+        }
+        return defaultValue;
+    }
+
+    private static void hold(int holdMillis) {
+        if (holdMillis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(holdMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
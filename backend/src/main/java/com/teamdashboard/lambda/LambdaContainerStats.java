@@ -0,0 +1,76 @@
+package com.teamdashboard.lambda;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lambdaコンテナ単位の稼働状況（初期化時間・呼び出し回数・初期化からの経過時間）を保持する
+ * Provisioned Concurrencyやkeep-warm間隔の調整に使う計測値を /api/status で参照できるようにする
+ */
+public final class LambdaContainerStats {
+
+    private static final String CONTAINER_ID = UUID.randomUUID().toString().substring(0, 8);
+
+    private static final AtomicLong invocationCount = new AtomicLong();
+    private static final AtomicLong keepWarmCount = new AtomicLong();
+
+    private static volatile long initStartedAt;
+    private static volatile long initCompletedAt;
+    private static volatile long lastInvocationAt;
+
+    private LambdaContainerStats() {
+    }
+
+    /**
+     * ハンドラーの静的初期化開始を記録
+     */
+    public static void markInitStarted() {
+        initStartedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * ハンドラーの静的初期化完了を記録
+     */
+    public static void markInitCompleted() {
+        initCompletedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * 呼び出しを記録し、このコンテナでの最初の呼び出し（コールドスタート）かどうかを返す
+     */
+    public static boolean recordInvocation(boolean keepWarm) {
+        lastInvocationAt = System.currentTimeMillis();
+        if (keepWarm) {
+            keepWarmCount.incrementAndGet();
+        }
+        return invocationCount.incrementAndGet() == 1;
+    }
+
+    public static String getContainerId() {
+        return CONTAINER_ID;
+    }
+
+    /**
+     * 現在のコンテナ状況のスナップショットを返す
+     */
+    public static Map<String, Object> snapshot() {
+        long now = System.currentTimeMillis();
+        long jvmStartedAt = ManagementFactory.getRuntimeMXBean().getStartTime();
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("containerId", CONTAINER_ID);
+        stats.put("initializationType", System.getenv("AWS_LAMBDA_INITIALIZATION_TYPE"));
+        stats.put("functionVersion", System.getenv("AWS_LAMBDA_FUNCTION_VERSION"));
+        stats.put("jvmStartedAt", jvmStartedAt);
+        stats.put("initDurationMillis", initCompletedAt > 0 ? initCompletedAt - initStartedAt : null);
+        stats.put("jvmToReadyMillis", initCompletedAt > 0 ? initCompletedAt - jvmStartedAt : null);
+        stats.put("millisSinceInit", initCompletedAt > 0 ? now - initCompletedAt : null);
+        stats.put("invocationCount", invocationCount.get());
+        stats.put("keepWarmCount", keepWarmCount.get());
+        stats.put("millisSinceLastInvocation", lastInvocationAt > 0 ? now - lastInvocationAt : null);
+        return stats;
+    }
+}
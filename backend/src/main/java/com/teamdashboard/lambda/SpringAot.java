@@ -0,0 +1,67 @@
+package com.teamdashboard.lambda;
+
+import org.springframework.aot.AotDetector;
+import org.springframework.boot.ApplicationContextFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.function.ThrowingSupplier;
+
+/**
+ * AOT生成済みコンテキスト（mvn -Plambda package の process-aot で生成）をJVM上で使うための補助
+ *
+ * SPRING_AOT_ENABLED=true または -Dspring.aot.enabled=true で有効化する。
+ * 生成クラスがjarに含まれていない場合は警告を出して通常の起動に戻す。
+ */
+public final class SpringAot {
+
+    public static final String ENABLED_ENV = "SPRING_AOT_ENABLED";
+
+    private static final String INITIALIZER_SUFFIX = "__ApplicationContextInitializer";
+
+    private SpringAot() {
+    }
+
+    public static boolean isRequested() {
+        return Boolean.parseBoolean(System.getenv(ENABLED_ENV))
+                || Boolean.getBoolean(AotDetector.AOT_ENABLED);
+    }
+
+    /**
+     * AOTが要求されていて、生成済みの初期化クラスが存在する場合のみ spring.aot.enabled を有効にする
+     * @return AOTで起動する場合true
+     */
+    public static boolean enableIfAvailable(Class<?> applicationClass) {
+        if (!isRequested()) {
+            return false;
+        }
+        String initializer = applicationClass.getName() + INITIALIZER_SUFFIX;
+        if (!ClassUtils.isPresent(initializer, applicationClass.getClassLoader())) {
+            System.out.println("Spring AOT requested but " + initializer
+                    + " was not found; starting without AOT (build with -Plambda to generate it)");
+            System.setProperty(AotDetector.AOT_ENABLED, "false");
+            return false;
+        }
+        System.setProperty(AotDetector.AOT_ENABLED, "true");
+        return true;
+    }
+
+    public static boolean isActive() {
+        return AotDetector.useGeneratedArtifacts();
+    }
+
+    /**
+     * 処理中に起動されるSpringApplicationのメインクラスを固定する
+     * Lambdaではスタック上のmainがランタイムのクラスになるため、AOT初期化クラスの解決とログ出力のために指定する
+     * AOT実行時はコンテナハンドラーが扱えるコンテキストクラスも差し替える
+     */
+    public static <T> T withMainApplicationClass(Class<?> applicationClass, ThrowingSupplier<T> action) {
+        return SpringApplication.withHook(application -> {
+            application.setMainApplicationClass(applicationClass);
+            if (isActive()) {
+                application.setApplicationContextFactory(
+                        ApplicationContextFactory.of(AotServletWebServerApplicationContext::new));
+            }
+            return null;
+        }, action);
+    }
+}
@@ -0,0 +1,156 @@
+package com.teamdashboard.lambda;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * コールドスタート時の初期化時間を計測し、レポートとして出力する
+ *
+ * フェーズ単位の計測（Springコンテナ生成、DynamoDBクライアント生成など）は常に記録する。
+ * STARTUP_PROFILING=true の場合はさらに BufferingApplicationStartup を使い、Beanごとの初期化時間を記録する。
+ */
+public final class StartupProfiler {
+
+    public static final String ENABLED_ENV = "STARTUP_PROFILING";
+    public static final String ENABLED_PROPERTY = "startup.profiling";
+
+    private static final int TIMELINE_CAPACITY = 10000;
+    private static final int TOP_STEPS = 20;
+
+    private static final Map<String, Long> phases = new LinkedHashMap<>();
+    private static final AtomicBoolean reportLogged = new AtomicBoolean(false);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static volatile ConfigurableApplicationContext applicationContext;
+    private static volatile Map<String, Object> budget;
+
+    private StartupProfiler() {
+    }
+
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(System.getenv(ENABLED_ENV))
+                || Boolean.getBoolean(ENABLED_PROPERTY);
+    }
+
+    static ApplicationStartup createApplicationStartup() {
+        return new BufferingApplicationStartup(TIMELINE_CAPACITY);
+    }
+
+    static void registerContext(ConfigurableApplicationContext context) {
+        applicationContext = context;
+    }
+
+    /**
+     * フェーズの所要時間を記録する
+     * @param phase フェーズ名
+     * @param startNanos System.nanoTime() で取得した開始時刻
+     */
+    public static void record(String phase, long startNanos) {
+        long millis = (System.nanoTime() - startNanos) / 1_000_000;
+        synchronized (phases) {
+            phases.merge(phase, millis, Long::sum);
+        }
+    }
+
+    /**
+     * 起動予算チェックの結果を記録する（LambdaStartupBudgetから呼ばれる）
+     */
+    public static void recordBudget(Map<String, Object> result) {
+        budget = result;
+    }
+
+    /**
+     * 初期化レポートを作成
+     */
+    public static Map<String, Object> report(ConfigurableApplicationContext context) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("type", "startup-report");
+        report.put("profilingEnabled", isEnabled());
+        report.put("aot", SpringAot.isActive());
+        synchronized (phases) {
+            report.put("phasesMillis", new LinkedHashMap<>(phases));
+        }
+        if (budget != null) {
+            report.put("budget", budget);
+        }
+
+        if (context == null) {
+            return report;
+        }
+        report.put("beanDefinitionCount", context.getBeanFactory().getBeanDefinitionCount());
+        report.put("singletonCount", context.getBeanFactory().getSingletonCount());
+
+        if (!(context.getApplicationStartup() instanceof BufferingApplicationStartup startup)) {
+            return report;
+        }
+
+        List<StartupTimeline.TimelineEvent> events = startup.getBufferedTimeline().getEvents();
+        Map<String, Long> totalsByStep = new HashMap<>();
+        List<Map<String, Object>> beans = new ArrayList<>();
+        for (StartupTimeline.TimelineEvent event : events) {
+            StartupStep step = event.getStartupStep();
+            long millis = event.getDuration().toMillis();
+            totalsByStep.merge(step.getName(), millis, Long::sum);
+
+            if ("spring.beans.instantiate".equals(step.getName())) {
+                Map<String, Object> bean = new LinkedHashMap<>();
+                bean.put("bean", tagValue(step, "beanName"));
+                bean.put("millis", millis);
+                beans.add(bean);
+            }
+        }
+
+        // 入れ子になったBeanの時間は親にも含まれるため、上位のみを目安として出力する
+        Comparator<Map<String, Object>> byMillis =
+                Comparator.comparingLong(bean -> (Long) bean.get("millis"));
+        report.put("recordedSteps", events.size());
+        report.put("stepTotalsMillis", totalsByStep);
+        report.put("slowestBeans", beans.stream()
+                .sorted(byMillis.reversed())
+                .limit(TOP_STEPS)
+                .collect(Collectors.toList()));
+        report.put("slowestAutoConfigurations", beans.stream()
+                .filter(bean -> String.valueOf(bean.get("bean")).contains("AutoConfiguration"))
+                .sorted(byMillis.reversed())
+                .limit(TOP_STEPS)
+                .collect(Collectors.toList()));
+        return report;
+    }
+
+    /**
+     * 初回リクエスト完了後に一度だけ、初期化レポートをJSON1行でログ出力する
+     * Lazy初期化のため、初回リクエストで生成されたBeanもレポートに含まれる
+     */
+    public static void logReportOnce() {
+        if (!isEnabled() || !reportLogged.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            System.out.println(objectMapper.writeValueAsString(report(applicationContext)));
+        } catch (Exception e) {
+            System.out.println("Failed to write startup report: " + e.getMessage());
+        }
+    }
+
+    private static String tagValue(StartupStep step, String key) {
+        for (StartupStep.Tag tag : step.getTags()) {
+            if (key.equals(tag.getKey())) {
+                return tag.getValue();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,17 @@
+package com.teamdashboard.lambda;
+
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Beanごとの初期化時間を記録するためにApplicationStartupを差し替える
+ * LambdaHandlerが context.initializer.classes に登録する（STARTUP_PROFILING=true の場合のみ）
+ */
+public class StartupProfilingInitializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+
+    @Override
+    public void initialize(ConfigurableApplicationContext context) {
+        context.setApplicationStartup(StartupProfiler.createApplicationStartup());
+        StartupProfiler.registerContext(context);
+    }
+}
@@ -0,0 +1,89 @@
+package com.teamdashboard.lambda;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayV2WebSocketEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayV2WebSocketResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.Map;
+
+/**
+ * API Gateway WebSocket API の $connect / $disconnect / $default ルートのLambdaハンドラー
+ *
+ * 接続IDとユーザー情報（クエリパラメーター userId / displayName / department）を接続テーブルに保存し、
+ * 通知は DynamoDbStreamHandler が WebSocketNotificationPublisher で各接続へ送る。
+ * ブラウザのWebSocketはヘッダーを付けられないため、ユーザー情報は接続URLのクエリで受け取る。
+ * Springコンテキストは起動しない。
+ */
+public class WebSocketConnectionHandler
+        implements RequestHandler<APIGatewayV2WebSocketEvent, APIGatewayV2WebSocketResponse> {
+
+    static final String CONNECT = "$connect";
+    static final String DISCONNECT = "$disconnect";
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final WebSocketConnectionStore connectionStore;
+
+    public WebSocketConnectionHandler() {
+        this(WebSocketConnectionStore.fromEnvironment());
+    }
+
+    public WebSocketConnectionHandler(WebSocketConnectionStore connectionStore) {
+        this.connectionStore = connectionStore;
+    }
+
+    @Override
+    public APIGatewayV2WebSocketResponse handleRequest(APIGatewayV2WebSocketEvent event, Context context) {
+        String routeKey = event.getRequestContext().getRouteKey();
+        String connectionId = event.getRequestContext().getConnectionId();
+        try {
+            if (CONNECT.equals(routeKey)) {
+                Map<String, String> query = event.getQueryStringParameters() != null
+                        ? event.getQueryStringParameters() : Map.of();
+                connectionStore.save(connectionId, query.get("userId"), query.get("displayName"), query.get("department"));
+                return response(200, null);
+            }
+            if (DISCONNECT.equals(routeKey)) {
+                connectionStore.delete(connectionId);
+                return response(200, null);
+            }
+            return handleMessage(connectionId, event.getBody());
+        } catch (RuntimeException e) {
+            if (context != null) {
+                context.getLogger().log("WebSocket " + routeKey + " failed for " + connectionId + ": " + e.getMessage());
+            }
+            return response(500, "{\"error\":\"internal error\"}");
+        }
+    }
+
+    /**
+     * $default ルート: クライアントからのメッセージ（現在は ping のみ）
+     */
+    private APIGatewayV2WebSocketResponse handleMessage(String connectionId, String body) {
+        String action = null;
+        try {
+            JsonNode message = body != null ? objectMapper.readTree(body) : null;
+            action = message != null ? message.path("action").asText(null) : null;
+        } catch (Exception e) {
+            // JSON以外のメッセージは未対応のアクションとして扱う
+        }
+        if (!"ping".equals(action)) {
+            return response(400, "{\"error\":\"unsupported action\"}");
+        }
+        // 定期的な ping で接続の有効期限（TTL）を延長する
+        if (!connectionStore.touch(connectionId)) {
+            return response(410, "{\"error\":\"connection not found\"}");
+        }
+        return response(200, "{\"type\":\"PONG\"}");
+    }
+
+    private static APIGatewayV2WebSocketResponse response(int statusCode, String body) {
+        APIGatewayV2WebSocketResponse response = new APIGatewayV2WebSocketResponse();
+        response.setStatusCode(statusCode);
+        response.setBody(body);
+        return response;
+    }
+}
@@ -0,0 +1,168 @@
+package com.teamdashboard.lambda;
+
+import com.teamdashboard.entity.dynamodb.TeamDashboardItem;
+import com.teamdashboard.service.RealtimeTopics;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Expression;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
+import software.amazon.awssdk.enhanced.dynamodb.model.UpdateItemEnhancedRequest;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClientBuilder;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+
+import java.net.URI;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * API Gateway WebSocket の接続をTeamDashboardテーブルに保存する
+ *
+ * 項目: PK=CONNECTION#{接続ID} / SK=CONNECTION / GSI1PK=CONNECTION / GSI1SK=DEPT#{部署キー}#{接続ID}
+ * 切断イベントが届かなかった接続も残らないよう TTL（エポック秒）を設定し、ping のたびに延長する。
+ * TTLによる削除は遅れることがあるため、期限切れの項目は読み出し時にも除外する。
+ */
+public class WebSocketConnectionStore {
+
+    static final String ITEM_TYPE = "CONNECTION";
+
+    private static final String PK_PREFIX = "CONNECTION#";
+    private static final String GSI1 = "GSI1";
+    private static final String DEPARTMENT_PREFIX = "DEPT#";
+
+    /** API Gateway WebSocket の接続は最長2時間のため、少し余裕を持たせる */
+    private static final long DEFAULT_TTL_SECONDS = 7800;
+
+    private final DynamoDbTable<TeamDashboardItem> table;
+    private final long ttlSeconds;
+
+    public WebSocketConnectionStore(DynamoDbEnhancedClient enhancedClient, String tableName, long ttlSeconds) {
+        this.table = enhancedClient.table(tableName, TableSchema.fromBean(TeamDashboardItem.class));
+        this.ttlSeconds = ttlSeconds;
+    }
+
+    /**
+     * Lambdaの環境変数（DYNAMODB_TABLE_NAME / WEBSOCKET_CONNECTION_TTL_SECONDS / AWS_DYNAMODB_ENDPOINT）から作成する
+     */
+    public static WebSocketConnectionStore fromEnvironment() {
+        DynamoDbClientBuilder builder = DynamoDbClient.builder()
+                .region(Region.of(environment("AWS_REGION", "ap-northeast-1")));
+        String endpoint = System.getenv("AWS_DYNAMODB_ENDPOINT");
+        if (endpoint != null && !endpoint.isBlank()) {
+            builder.endpointOverride(URI.create(endpoint));
+        }
+        DynamoDbEnhancedClient enhancedClient = DynamoDbEnhancedClient.builder().dynamoDbClient(builder.build()).build();
+        return new WebSocketConnectionStore(enhancedClient, environment("DYNAMODB_TABLE_NAME", "TeamDashboard"),
+                Long.parseLong(environment("WEBSOCKET_CONNECTION_TTL_SECONDS", String.valueOf(DEFAULT_TTL_SECONDS))));
+    }
+
+    static String environment(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+
+    public void save(String connectionId, String userId, String displayName, String department) {
+        Instant now = Instant.now();
+        String departmentKey = RealtimeTopics.departmentKey(department);
+        Map<String, Object> data = new HashMap<>();
+        data.put("connectionId", connectionId);
+        data.put("userId", userId);
+        data.put("displayName", displayName);
+        data.put("department", department);
+        data.put("departmentKey", departmentKey);
+
+        TeamDashboardItem item = new TeamDashboardItem();
+        item.setPk(PK_PREFIX + connectionId);
+        item.setSk(ITEM_TYPE);
+        item.setGsi1pk(ITEM_TYPE);
+        item.setGsi1sk(departmentSortKey(departmentKey) + connectionId);
+        item.setItemType(ITEM_TYPE);
+        item.setData(data);
+        item.setCreatedAt(now);
+        item.setUpdatedAt(now);
+        item.setTtl(now.getEpochSecond() + ttlSeconds);
+        table.putItem(item);
+    }
+
+    /**
+     * 接続の有効期限を延長する
+     *
+     * @return 接続が見つからない（切断済み・期限切れで削除済み）場合は false
+     */
+    public boolean touch(String connectionId) {
+        Instant now = Instant.now();
+        TeamDashboardItem item = new TeamDashboardItem();
+        item.setPk(PK_PREFIX + connectionId);
+        item.setSk(ITEM_TYPE);
+        item.setUpdatedAt(now);
+        item.setTtl(now.getEpochSecond() + ttlSeconds);
+        try {
+            table.updateItem(UpdateItemEnhancedRequest.builder(TeamDashboardItem.class)
+                    .item(item)
+                    .ignoreNulls(true)
+                    .conditionExpression(Expression.builder().expression("attribute_exists(PK)").build())
+                    .build());
+            return true;
+        } catch (ConditionalCheckFailedException e) {
+            return false;
+        }
+    }
+
+    public void delete(String connectionId) {
+        table.deleteItem(Key.builder().partitionValue(PK_PREFIX + connectionId).sortValue(ITEM_TYPE).build());
+    }
+
+    /**
+     * 有効な接続の一覧
+     *
+     * @param departmentKey 部署キー（null の場合はすべての接続）
+     */
+    public List<Connection> find(String departmentKey) {
+        QueryConditional condition = departmentKey == null
+                ? QueryConditional.keyEqualTo(Key.builder().partitionValue(ITEM_TYPE).build())
+                : QueryConditional.sortBeginsWith(Key.builder()
+                        .partitionValue(ITEM_TYPE)
+                        .sortValue(departmentSortKey(departmentKey))
+                        .build());
+        long now = Instant.now().getEpochSecond();
+        return table.index(GSI1).query(condition)
+                .stream()
+                .flatMap(page -> page.items().stream())
+                .filter(item -> item.getTtl() == null || item.getTtl() > now)
+                .map(WebSocketConnectionStore::toConnection)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    private static String departmentSortKey(String departmentKey) {
+        return DEPARTMENT_PREFIX + (departmentKey != null ? departmentKey : "") + "#";
+    }
+
+    private static Connection toConnection(TeamDashboardItem item) {
+        Map<String, Object> data = item.getData();
+        if (data == null || data.get("connectionId") == null) {
+            return null;
+        }
+        return new Connection(data.get("connectionId").toString(), string(data.get("userId")),
+                string(data.get("departmentKey")));
+    }
+
+    private static String string(Object value) {
+        return value != null ? value.toString() : null;
+    }
+
+    /**
+     * 保存済みの接続
+     *
+     * @param departmentKey 部署キー（部署未設定の接続は null）
+     */
+    public record Connection(String connectionId, String userId, String departmentKey) {
+    }
+}
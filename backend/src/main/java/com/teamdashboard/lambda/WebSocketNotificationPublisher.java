@@ -0,0 +1,230 @@
+package com.teamdashboard.lambda;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.teamdashboard.dto.RealtimeNotification;
+import com.teamdashboard.dto.RealtimeNotification.TeamIssueUpdate;
+import com.teamdashboard.dto.RealtimeNotification.WorkloadStatusUpdate;
+import com.teamdashboard.service.RealtimeNotificationSink;
+import com.teamdashboard.service.RealtimeTopics;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.http.SdkHttpMethod;
+import software.amazon.awssdk.http.SdkHttpRequest;
+import software.amazon.awssdk.http.auth.aws.signer.AwsV4HttpSigner;
+import software.amazon.awssdk.http.auth.spi.signer.SignedRequest;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * API Gateway WebSocket の接続へ通知を送る（Lambda用の RealtimeNotificationSink）
+ *
+ * 接続ごとに管理API（POST {endpoint}/@connections/{接続ID}）を呼び出す。
+ * 通知は部署ごとにJSON配列へ一度だけエンコードし、同じ内容を受け取る接続で共有する
+ * （部署未設定の通知は全接続、部署の通知はその部署の接続にだけ送る。常駐サーバーの部署トピックと同じ規則）。
+ * 送信は同時に maxConcurrency 件まで並列に行い、410 Gone が返った接続（切断済み）は接続テーブルから削除する。
+ */
+public class WebSocketNotificationPublisher implements RealtimeNotificationSink {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static final int DEFAULT_MAX_CONCURRENCY = 50;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(5);
+
+    private final WebSocketConnectionStore connectionStore;
+    private final URI endpoint;
+    private final HttpClient httpClient;
+    private final AwsCredentialsProvider credentialsProvider;
+    private final String region;
+    private final boolean departmentSharding;
+    private final int maxConcurrency;
+
+    /**
+     * @param endpoint            管理APIのURL（https://{apiId}.execute-api.{region}.amazonaws.com/{stage}）
+     * @param credentialsProvider 署名に使う認証情報（null の場合は署名しない。ローカルの代替サーバー用）
+     */
+    public WebSocketNotificationPublisher(WebSocketConnectionStore connectionStore, URI endpoint,
+                                          AwsCredentialsProvider credentialsProvider, String region,
+                                          boolean departmentSharding, int maxConcurrency) {
+        this.connectionStore = connectionStore;
+        this.endpoint = URI.create(endpoint.toString().replaceAll("/+$", ""));
+        this.credentialsProvider = credentialsProvider;
+        this.region = region;
+        this.departmentSharding = departmentSharding;
+        this.maxConcurrency = maxConcurrency;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(REQUEST_TIMEOUT)
+                .build();
+    }
+
+    /**
+     * Lambdaの環境変数（WEBSOCKET_MANAGEMENT_ENDPOINT / REALTIME_DEPARTMENT_SHARDING / WEBSOCKET_MAX_CONCURRENCY）から作成する
+     */
+    public static WebSocketNotificationPublisher fromEnvironment() {
+        return new WebSocketNotificationPublisher(
+                WebSocketConnectionStore.fromEnvironment(),
+                URI.create(System.getenv("WEBSOCKET_MANAGEMENT_ENDPOINT")),
+                DefaultCredentialsProvider.create(),
+                WebSocketConnectionStore.environment("AWS_REGION", "ap-northeast-1"),
+                Boolean.parseBoolean(WebSocketConnectionStore.environment("REALTIME_DEPARTMENT_SHARDING", "true")),
+                Integer.parseInt(WebSocketConnectionStore.environment("WEBSOCKET_MAX_CONCURRENCY",
+                        String.valueOf(DEFAULT_MAX_CONCURRENCY))));
+    }
+
+    @Override
+    public void publish(RealtimeNotification notification) {
+        publishAll(List.of(notification));
+    }
+
+    @Override
+    public void publishAll(List<RealtimeNotification> notifications) {
+        send(notifications);
+    }
+
+    /**
+     * 通知を対象の接続へ送り、送信結果を返す
+     */
+    public Result send(List<RealtimeNotification> notifications) {
+        if (notifications.isEmpty()) {
+            return new Result(0, 0, 0, 0);
+        }
+        List<WebSocketConnectionStore.Connection> connections = findRecipients(notifications);
+
+        // 部署キーごとに1回だけエンコードする（キー "" は部署未設定の接続）
+        Map<String, byte[]> payloads = new HashMap<>();
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        Semaphore inFlight = new Semaphore(maxConcurrency);
+        AtomicInteger delivered = new AtomicInteger();
+        AtomicInteger gone = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        for (WebSocketConnectionStore.Connection connection : connections) {
+            byte[] payload = payloads.computeIfAbsent(Objects.toString(connection.departmentKey(), ""),
+                    key -> encode(notifications, connection.departmentKey()));
+            if (payload == null) {
+                continue;
+            }
+            inFlight.acquireUninterruptibly();
+            pending.add(post(connection.connectionId(), payload).handle((status, error) -> {
+                inFlight.release();
+                if (error == null && status / 100 == 2) {
+                    delivered.incrementAndGet();
+                } else if (error == null && status == 410) {
+                    // 切断イベントを受け取れなかった接続
+                    connectionStore.delete(connection.connectionId());
+                    gone.incrementAndGet();
+                } else {
+                    failed.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).join();
+        return new Result(connections.size(), delivered.get(), gone.get(), failed.get());
+    }
+
+    /**
+     * 通知を受け取る接続。部署未設定の通知があれば全接続、部署の通知だけなら該当部署の接続
+     */
+    private List<WebSocketConnectionStore.Connection> findRecipients(List<RealtimeNotification> notifications) {
+        Set<String> departmentKeys = new LinkedHashSet<>();
+        for (RealtimeNotification notification : notifications) {
+            String departmentKey = departmentKeyOf(notification);
+            if (departmentKey == null) {
+                return connectionStore.find(null);
+            }
+            departmentKeys.add(departmentKey);
+        }
+        List<WebSocketConnectionStore.Connection> connections = new ArrayList<>();
+        departmentKeys.forEach(departmentKey -> connections.addAll(connectionStore.find(departmentKey)));
+        return connections;
+    }
+
+    /**
+     * 接続の部署に届ける通知をJSON配列にする（届ける通知がない場合は null）
+     */
+    private byte[] encode(List<RealtimeNotification> notifications, String departmentKey) {
+        List<RealtimeNotification> visible = notifications.stream()
+                .filter(notification -> {
+                    String key = departmentKeyOf(notification);
+                    return key == null || key.equals(departmentKey);
+                })
+                .toList();
+        if (visible.isEmpty()) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsBytes(visible);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode notifications", e);
+        }
+    }
+
+    private String departmentKeyOf(RealtimeNotification notification) {
+        if (!departmentSharding) {
+            return null;
+        }
+        if (notification instanceof WorkloadStatusUpdate update) {
+            return RealtimeTopics.departmentKey(update.department());
+        }
+        if (notification instanceof TeamIssueUpdate update) {
+            return RealtimeTopics.departmentKey(update.department());
+        }
+        return null;
+    }
+
+    private CompletableFuture<Integer> post(String connectionId, byte[] payload) {
+        URI uri = URI.create(endpoint + "/@connections/" + URLEncoder.encode(connectionId, StandardCharsets.UTF_8));
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                .timeout(REQUEST_TIMEOUT)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(payload));
+        if (credentialsProvider != null) {
+            sign(uri, payload).headers().forEach((name, values) -> {
+                // Host と Content-Length は HttpClient が設定する
+                if (!name.equalsIgnoreCase("Host") && !name.equalsIgnoreCase("Content-Length")) {
+                    values.forEach(value -> request.header(name, value));
+                }
+            });
+        }
+        return httpClient.sendAsync(request.build(), HttpResponse.BodyHandlers.discarding())
+                .thenApply(HttpResponse::statusCode);
+    }
+
+    private SdkHttpRequest sign(URI uri, byte[] payload) {
+        SignedRequest signed = AwsV4HttpSigner.create().sign(request -> request
+                .identity(credentialsProvider.resolveCredentials())
+                .request(SdkHttpRequest.builder().method(SdkHttpMethod.POST).uri(uri).build())
+                .payload(() -> new ByteArrayInputStream(payload))
+                .putProperty(AwsV4HttpSigner.SERVICE_SIGNING_NAME, "execute-api")
+                .putProperty(AwsV4HttpSigner.REGION_NAME, region));
+        return signed.request();
+    }
+
+    /**
+     * 送信結果
+     *
+     * @param recipients 対象の接続数
+     * @param delivered  送信できた接続数
+     * @param gone       切断済みで削除した接続数
+     * @param failed     送信に失敗した接続数（タイムアウト・スロットリング等）
+     */
+    public record Result(int recipients, int delivered, int gone, int failed) {
+    }
+}
@@ -9,6 +9,7 @@ public class TeamIssue {
     private String issueId;
     private String userId;
     private String displayName;
+    private String department;
     private String content;
     private String status;
     private String priority;
@@ -51,6 +52,15 @@ public class TeamIssue {
         this.displayName = displayName;
     }
 
+    @DynamoDbAttribute("department")
+    public String getDepartment() {
+        return department;
+    }
+
+    public void setDepartment(String department) {
+        this.department = department;
+    }
+
     @DynamoDbAttribute("content")
     public String getContent() {
         return content;
@@ -128,6 +138,7 @@ public class TeamIssue {
                 "issueId='" + issueId + '\'' +
                 ", userId='" + userId + '\'' +
                 ", displayName='" + displayName + '\'' +
+                ", department='" + department + '\'' +
                 ", content='" + content + '\'' +
                 ", status='" + status + '\'' +
                 ", priority='" + priority + '\'' +
@@ -8,6 +8,7 @@ public class WorkloadStatus {
     
     private String userId;
     private String displayName;
+    private String department;
     private String workloadLevel;
     private Integer projectCount;
     private Integer taskCount;
@@ -39,6 +40,15 @@ public class WorkloadStatus {
         this.displayName = displayName;
     }
 
+    @DynamoDbAttribute("department")
+    public String getDepartment() {
+        return department;
+    }
+
+    public void setDepartment(String department) {
+        this.department = department;
+    }
+
     @DynamoDbAttribute("workloadLevel")
     public String getWorkloadLevel() {
         return workloadLevel;
@@ -103,6 +113,7 @@ public class WorkloadStatus {
         return "WorkloadStatus{" +
                 "userId='" + userId + '\'' +
                 ", displayName='" + displayName + '\'' +
+                ", department='" + department + '\'' +
                 ", workloadLevel='" + workloadLevel + '\'' +
                 ", projectCount=" + projectCount +
                 ", taskCount=" + taskCount +
@@ -1,14 +1,21 @@
 package com.teamdashboard.repository;
 
+import com.teamdashboard.dto.DailyReportResponse;
 import com.teamdashboard.entity.DailyReport;
 import com.teamdashboard.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 
 @Repository
 public interface DailyReportRepository extends JpaRepository<DailyReport, Long> {
@@ -16,11 +23,101 @@ public interface DailyReportRepository extends JpaRepository<DailyReport, Long>
     
     List<DailyReport> findByReportDateOrderByCreatedAtDesc(LocalDate reportDate);
     
+    /**
+     * 日報を日付・IDの降順で先頭から取得（ユーザー情報も含む。一覧表示でユーザーを1件ずつ読み込まないようにする）
+     * @param pageable 取得件数（ページ番号は常に0）
+     * @return 日報のリスト
+     */
+    @Query("SELECT dr FROM DailyReport dr JOIN FETCH dr.user ORDER BY dr.reportDate DESC, dr.id DESC")
+    List<DailyReport> findPageWithUser(Pageable pageable);
+    
+    /**
+     * 指定された位置（日付・ID）より後の日報を日付・IDの降順で取得（ユーザー情報も含む）
+     * 読み飛ばす件数に関係なく (report_date, id) のインデックスから続きを読む（キーセット方式）
+     * @param afterDate 前のページの最後の日報の日付
+     * @param afterId 前のページの最後の日報のID
+     * @param pageable 取得件数（ページ番号は常に0）
+     * @return 日報のリスト
+     */
+    @Query("SELECT dr FROM DailyReport dr JOIN FETCH dr.user"
+            + " WHERE dr.reportDate <= :afterDate AND (dr.reportDate < :afterDate OR dr.id < :afterId)"
+            + " ORDER BY dr.reportDate DESC, dr.id DESC")
+    List<DailyReport> findPageAfterWithUser(@Param("afterDate") LocalDate afterDate, @Param("afterId") Long afterId,
+                                            Pageable pageable);
+    
+    /**
+     * 指定された期間の日報を日付・IDの降順で先頭から取得（ユーザー情報も含む）
+     */
+    @Query("SELECT dr FROM DailyReport dr JOIN FETCH dr.user WHERE dr.reportDate BETWEEN :startDate AND :endDate"
+            + " ORDER BY dr.reportDate DESC, dr.id DESC")
+    List<DailyReport> findPageByReportDateBetweenWithUser(@Param("startDate") LocalDate startDate,
+                                                          @Param("endDate") LocalDate endDate, Pageable pageable);
+    
+    /**
+     * 指定された期間の日報のうち、指定された位置（日付・ID）より後のものを日付・IDの降順で取得（ユーザー情報も含む）
+     */
+    @Query("SELECT dr FROM DailyReport dr JOIN FETCH dr.user WHERE dr.reportDate BETWEEN :startDate AND :endDate"
+            + " AND dr.reportDate <= :afterDate AND (dr.reportDate < :afterDate OR dr.id < :afterId)"
+            + " ORDER BY dr.reportDate DESC, dr.id DESC")
+    List<DailyReport> findPageByReportDateBetweenAfterWithUser(@Param("startDate") LocalDate startDate,
+                                                               @Param("endDate") LocalDate endDate,
+                                                               @Param("afterDate") LocalDate afterDate,
+                                                               @Param("afterId") Long afterId, Pageable pageable);
+    
+    /**
+     * 指定された日付の日報を作成日時の降順で取得（ユーザー情報も含む）
+     * @param reportDate 日付
+     * @return 日報のリスト
+     */
+    @Query("SELECT dr FROM DailyReport dr JOIN FETCH dr.user WHERE dr.reportDate = :reportDate ORDER BY dr.createdAt DESC")
+    List<DailyReport> findByReportDateWithUserOrderByCreatedAtDesc(@Param("reportDate") LocalDate reportDate);
+    
     Optional<DailyReport> findByUserAndReportDate(User user, LocalDate reportDate);
     
-    @Query("SELECT dr FROM DailyReport dr WHERE dr.reportDate BETWEEN :startDate AND :endDate ORDER BY dr.reportDate DESC, dr.createdAt DESC")
+    /**
+     * 指定された期間の日報を日付・IDの昇順で1件ずつ読み出す（エクスポート用）
+     * エンティティではなくDTOを直接作るため、件数が多くても永続化コンテキストに溜まらない。
+     * 読み取り専用トランザクション内で使い、使い終わったら閉じること（JDBCのカーソルを保持する）
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.teamdashboard.dto.DailyReportResponse(dr.id, u.username, u.displayName, dr.reportDate,"
+            + " dr.workContent, dr.insights, dr.issues, dr.workloadLevel, dr.createdAt)"
+            + " FROM DailyReport dr JOIN dr.user u WHERE dr.reportDate BETWEEN :startDate AND :endDate"
+            + " ORDER BY dr.reportDate ASC, dr.id ASC")
+    Stream<DailyReportResponse> streamByReportDateBetween(@Param("startDate") LocalDate startDate,
+                                                          @Param("endDate") LocalDate endDate);
+    
+    /**
+     * 指定された期間の日報を日付・作成日時の降順で取得（ユーザー情報も含む）
+     */
+    @Query("SELECT dr FROM DailyReport dr JOIN FETCH dr.user WHERE dr.reportDate BETWEEN :startDate AND :endDate ORDER BY dr.reportDate DESC, dr.createdAt DESC")
     List<DailyReport> findByReportDateBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
     
+    /**
+     * 指定された期間の日報の件数を、ユーザー・部署・日付・負荷レベルごとに取得（負荷の再集計用）
+     * @param startDate 開始日
+     * @param endDate 終了日
+     * @return [ユーザー名, 部署名, 日付, 負荷レベル, 件数] のリスト
+     */
+    @Query("SELECT u.username, u.department, dr.reportDate, dr.workloadLevel, COUNT(dr)"
+            + " FROM DailyReport dr JOIN dr.user u"
+            + " WHERE dr.reportDate BETWEEN :startDate AND :endDate AND dr.workloadLevel IS NOT NULL"
+            + " GROUP BY u.username, u.department, dr.reportDate, dr.workloadLevel")
+    List<Object[]> countWorkloadLevels(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+    
+    /**
+     * 指定されたユーザーの、指定された期間の日報の[ユーザーID, 日付]を取得（一括取り込みの重複チェック用）
+     * @param userIds ユーザーIDのリスト
+     * @param startDate 開始日
+     * @param endDate 終了日
+     * @return [ユーザーID, 日付] のリスト
+     */
+    @Query("SELECT dr.user.id, dr.reportDate FROM DailyReport dr"
+            + " WHERE dr.user.id IN :userIds AND dr.reportDate BETWEEN :startDate AND :endDate")
+    List<Object[]> findUserIdAndReportDate(@Param("userIds") Collection<Long> userIds,
+                                           @Param("startDate") LocalDate startDate,
+                                           @Param("endDate") LocalDate endDate);
+    
     @Query("SELECT dr FROM DailyReport dr WHERE dr.user = :user AND dr.reportDate BETWEEN :startDate AND :endDate ORDER BY dr.reportDate DESC")
     List<DailyReport> findByUserAndReportDateBetween(@Param("user") User user, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
 }
\ No newline at end of file
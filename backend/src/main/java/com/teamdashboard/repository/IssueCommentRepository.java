@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -52,4 +53,13 @@ public interface IssueCommentRepository extends JpaRepository<IssueComment, Long
      * @return コメント数
      */
     long countByIssueId(Long issueId);
+    
+    /**
+     * 指定された困りごとIDごとのコメント数を1回のクエリでまとめて取得
+     * （コメントがない困りごとは結果に含まれない）
+     * @param issueIds 困りごとIDのコレクション
+     * @return [困りごとID, コメント数] の配列のリスト
+     */
+    @Query("SELECT ic.issue.id, COUNT(ic) FROM IssueComment ic WHERE ic.issue.id IN :issueIds GROUP BY ic.issue.id")
+    List<Object[]> countByIssueIds(@Param("issueIds") Collection<Long> issueIds);
 }
\ No newline at end of file
@@ -0,0 +1,47 @@
+package com.teamdashboard.repository;
+
+import com.teamdashboard.entity.IssueStatus;
+import com.teamdashboard.entity.TeamIssue;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * TeamIssueエンティティ（RDB）のリポジトリインターフェース
+ * DynamoDBの困りごとは TeamIssueRepository を使う
+ */
+@Repository
+public interface TeamIssueJpaRepository extends JpaRepository<TeamIssue, Long> {
+
+    /**
+     * 困りごとを作成日時・IDの降順で取得（投稿者も含む）
+     * @param pageable 取得件数
+     * @return 困りごとのリスト
+     */
+    @Query("SELECT i FROM TeamIssue i JOIN FETCH i.user ORDER BY i.createdAt DESC, i.id DESC")
+    List<TeamIssue> findAllWithUser(Pageable pageable);
+
+    /**
+     * 指定されたステータスの困りごとを作成日時・IDの降順で取得（投稿者も含む）
+     * @param status ステータス
+     * @param pageable 取得件数
+     * @return 困りごとのリスト
+     */
+    @Query("SELECT i FROM TeamIssue i JOIN FETCH i.user WHERE i.status = :status ORDER BY i.createdAt DESC, i.id DESC")
+    List<TeamIssue> findByStatusWithUser(@Param("status") IssueStatus status, Pageable pageable);
+
+    /**
+     * 未解決の困りごとを作成日時・IDの降順で取得（投稿者も含む）
+     * ステータスをSQLに直接書くため、PostgreSQLでは未解決だけの部分インデックス（idx_team_issues_open_created_at_id）を使える
+     * （パラメーターで渡すと、プリペアドステートメントの汎用プランでは部分インデックスを選べない）
+     * @param pageable 取得件数
+     * @return 困りごとのリスト
+     */
+    @Query("SELECT i FROM TeamIssue i JOIN FETCH i.user WHERE i.status = com.teamdashboard.entity.IssueStatus.OPEN"
+            + " ORDER BY i.createdAt DESC, i.id DESC")
+    List<TeamIssue> findOpenWithUser(Pageable pageable);
+}
@@ -0,0 +1,18 @@
+package com.teamdashboard.repository;
+
+import com.teamdashboard.entity.User;
+
+import java.util.Optional;
+
+/**
+ * UserRepository のうち、Spring Data のクエリ生成を使わずに実装するメソッド
+ */
+public interface UserRepositoryCustom {
+
+    /**
+     * ユーザー名でユーザーを取得（ナチュラルIDキャッシュ・2次キャッシュにあればデータベースに問い合わせない）
+     * @param username ユーザー名
+     * @return ユーザー
+     */
+    Optional<User> findByUsername(String username);
+}
@@ -0,0 +1,72 @@
+package com.teamdashboard.repository;
+
+import com.teamdashboard.entity.RollupPeriod;
+import com.teamdashboard.entity.RollupScope;
+import com.teamdashboard.entity.WorkloadRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * WorkloadRollupエンティティのリポジトリインターフェース
+ */
+@Repository
+public interface WorkloadRollupRepository extends JpaRepository<WorkloadRollup, Long>, WorkloadRollupRepositoryCustom {
+
+    /**
+     * 指定された集計単位・期間の集計を、キーと期間の開始日の昇順で取得
+     * @param scope 集計単位
+     * @param period 集計期間
+     * @param from 期間の開始日の下限（含む）
+     * @param to 期間の開始日の上限（含む）
+     * @return 集計のリスト
+     */
+    List<WorkloadRollup> findByScopeAndPeriodAndPeriodStartBetweenOrderByScopeKeyAscPeriodStartAsc(
+            RollupScope scope, RollupPeriod period, LocalDate from, LocalDate to);
+
+    /**
+     * 指定されたユーザー・部署の集計を期間の開始日の昇順で取得
+     * @param scope 集計単位
+     * @param scopeKey ユーザー名または部署名
+     * @param period 集計期間
+     * @param from 期間の開始日の下限（含む）
+     * @param to 期間の開始日の上限（含む）
+     * @return 集計のリスト
+     */
+    List<WorkloadRollup> findByScopeAndScopeKeyAndPeriodAndPeriodStartBetweenOrderByPeriodStartAsc(
+            RollupScope scope, String scopeKey, RollupPeriod period, LocalDate from, LocalDate to);
+
+    /**
+     * 1件の日報が加算される集計の負荷レベル level の件数を、1文でまとめて delta だけ増減する
+     * （データベース上で加算するため、同時に投稿されても件数を取りこぼさない。0未満にはしない。
+     * ない集計は作らないため、加算には addReport を使う）
+     * @return 更新した件数
+     */
+    @Modifying
+    @Query("UPDATE WorkloadRollup r SET"
+            + " r.level1Count = CASE WHEN :level = 1 AND r.level1Count + :delta >= 0 THEN r.level1Count + :delta ELSE r.level1Count END,"
+            + " r.level2Count = CASE WHEN :level = 2 AND r.level2Count + :delta >= 0 THEN r.level2Count + :delta ELSE r.level2Count END,"
+            + " r.level3Count = CASE WHEN :level = 3 AND r.level3Count + :delta >= 0 THEN r.level3Count + :delta ELSE r.level3Count END,"
+            + " r.level4Count = CASE WHEN :level = 4 AND r.level4Count + :delta >= 0 THEN r.level4Count + :delta ELSE r.level4Count END,"
+            + " r.level5Count = CASE WHEN :level = 5 AND r.level5Count + :delta >= 0 THEN r.level5Count + :delta ELSE r.level5Count END"
+            + " WHERE ((r.scope = com.teamdashboard.entity.RollupScope.USER AND r.scopeKey = :username)"
+            + " OR (r.scope = com.teamdashboard.entity.RollupScope.DEPARTMENT AND r.scopeKey = :department))"
+            + " AND ((r.period = com.teamdashboard.entity.RollupPeriod.DAY AND r.periodStart = :day)"
+            + " OR (r.period = com.teamdashboard.entity.RollupPeriod.WEEK AND r.periodStart = :week))")
+    int increment(@Param("username") String username, @Param("department") String department,
+                  @Param("day") LocalDate day, @Param("week") LocalDate week,
+                  @Param("level") int level, @Param("delta") long delta);
+
+    /**
+     * 期間の開始日が指定された範囲にある集計を削除（再集計用）
+     * @return 削除した件数
+     */
+    @Modifying
+    @Query("DELETE FROM WorkloadRollup r WHERE r.periodStart BETWEEN :from AND :to")
+    int deleteByPeriodStartBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
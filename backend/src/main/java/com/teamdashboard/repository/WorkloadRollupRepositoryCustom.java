@@ -0,0 +1,21 @@
+package com.teamdashboard.repository;
+
+import java.time.LocalDate;
+
+/**
+ * WorkloadRollupRepository のうち、Spring Data のクエリ生成を使わずに実装するメソッド
+ */
+public interface WorkloadRollupRepositoryCustom {
+
+    /**
+     * 1件の日報が加算される集計（ユーザー・部署の日・週）の負荷レベル level の件数を1増やす
+     * まだない集計は件数1で作る（1文のUPSERTで行うため、同じ集計を同時に作っても呼び出し元のトランザクションは失敗しない）
+     * @param username ユーザー名
+     * @param department 部署名（未設定の場合は null。部署の集計は作らない）
+     * @param day 日報の日付
+     * @param week 日報の日付を含む週の開始日
+     * @param level 負荷レベル（1～5）
+     * @return 作成・更新した件数
+     */
+    int addReport(String username, String department, LocalDate day, LocalDate week, int level);
+}
@@ -0,0 +1,110 @@
+package com.teamdashboard.repository;
+
+import com.teamdashboard.entity.RollupPeriod;
+import com.teamdashboard.entity.RollupScope;
+import com.teamdashboard.entity.WorkloadRollup;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * WorkloadRollupRepositoryCustom の実装
+ *
+ * PostgreSQL は INSERT ... ON CONFLICT DO UPDATE、H2 は MERGE で、集計の作成と加算を1文で行う。
+ * ID はエンティティと同じシーケンスから取る（1回で allocationSize 分進むため、Hibernate が確保する番号とは重ならない）。
+ */
+public class WorkloadRollupRepositoryImpl implements WorkloadRollupRepositoryCustom {
+
+    private static final String POSTGRESQL_UPSERT = "INSERT INTO workload_rollups"
+            + " (id, scope, scope_key, period, period_start,"
+            + " level1_count, level2_count, level3_count, level4_count, level5_count)"
+            + " VALUES %s"
+            + " ON CONFLICT (scope, scope_key, period, period_start) DO UPDATE SET"
+            + " level1_count = workload_rollups.level1_count + EXCLUDED.level1_count,"
+            + " level2_count = workload_rollups.level2_count + EXCLUDED.level2_count,"
+            + " level3_count = workload_rollups.level3_count + EXCLUDED.level3_count,"
+            + " level4_count = workload_rollups.level4_count + EXCLUDED.level4_count,"
+            + " level5_count = workload_rollups.level5_count + EXCLUDED.level5_count";
+
+    private static final String POSTGRESQL_ROW = "(nextval('workload_rollups_seq'), ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String H2_MERGE = "MERGE INTO workload_rollups r"
+            + " USING (VALUES %s) AS s(scope, scope_key, period, period_start, c1, c2, c3, c4, c5)"
+            + " ON r.scope = s.scope AND r.scope_key = s.scope_key AND r.period = s.period"
+            + " AND r.period_start = s.period_start"
+            + " WHEN MATCHED THEN UPDATE SET"
+            + " level1_count = r.level1_count + s.c1, level2_count = r.level2_count + s.c2,"
+            + " level3_count = r.level3_count + s.c3, level4_count = r.level4_count + s.c4,"
+            + " level5_count = r.level5_count + s.c5"
+            + " WHEN NOT MATCHED THEN INSERT"
+            + " (id, scope, scope_key, period, period_start,"
+            + " level1_count, level2_count, level3_count, level4_count, level5_count)"
+            + " VALUES (NEXT VALUE FOR workload_rollups_seq, s.scope, s.scope_key, s.period, s.period_start,"
+            + " s.c1, s.c2, s.c3, s.c4, s.c5)";
+
+    private static final String H2_ROW = "(CAST(? AS VARCHAR(16)), CAST(? AS VARCHAR(255)), CAST(? AS VARCHAR(8)),"
+            + " CAST(? AS DATE), CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS BIGINT),"
+            + " CAST(? AS BIGINT))";
+
+    private static final String UNIQUE_VIOLATION = "23505";
+    private static final int H2_MAX_ATTEMPTS = 3;
+
+    private final EntityManager entityManager;
+
+    public WorkloadRollupRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public int addReport(String username, String department, LocalDate day, LocalDate week, int level) {
+        List<Object[]> rows = new ArrayList<>();
+        for (RollupPeriod period : RollupPeriod.values()) {
+            LocalDate start = period == RollupPeriod.DAY ? day : week;
+            rows.add(new Object[] {RollupScope.USER, username, period, start});
+            if (department != null) {
+                rows.add(new Object[] {RollupScope.DEPARTMENT, department, period, start});
+            }
+        }
+        boolean postgresql = isPostgreSql();
+        String sql = String.format(postgresql ? POSTGRESQL_UPSERT : H2_MERGE,
+                String.join(", ", Collections.nCopies(rows.size(), postgresql ? POSTGRESQL_ROW : H2_ROW)));
+
+        // 呼び出し元のトランザクションのコネクションで実行する（JPAのクエリと違い、H2の一意制約違反でトランザクションを失敗扱いにしない）
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            for (int attempt = 1; ; attempt++) {
+                try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                    int index = 1;
+                    for (Object[] row : rows) {
+                        statement.setString(index++, ((RollupScope) row[0]).name());
+                        statement.setString(index++, (String) row[1]);
+                        statement.setString(index++, ((RollupPeriod) row[2]).name());
+                        statement.setObject(index++, row[3]);
+                        for (int c = 1; c <= WorkloadRollup.MAX_LEVEL; c++) {
+                            statement.setLong(index++, c == level ? 1 : 0);
+                        }
+                    }
+                    return statement.executeUpdate();
+                } catch (SQLException e) {
+                    // H2 は失敗した文だけを取り消すため、他のトランザクションが作った集計に加算し直せる
+                    if (postgresql || attempt >= H2_MAX_ATTEMPTS || !UNIQUE_VIOLATION.equals(e.getSQLState())) {
+                        throw e;
+                    }
+                }
+            }
+        });
+    }
+
+    private boolean isPostgreSql() {
+        SessionFactoryImplementor sessionFactory = (SessionFactoryImplementor) entityManager.unwrap(Session.class)
+                .getSessionFactory();
+        return sessionFactory.getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+    }
+}
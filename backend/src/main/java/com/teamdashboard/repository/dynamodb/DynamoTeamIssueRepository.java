@@ -32,11 +32,14 @@ public class DynamoTeamIssueRepository {
     @Autowired
     private ObjectMapper objectMapper;
     
+    @Autowired
+    private TableSchema<TeamDashboardItem> teamDashboardItemSchema;
+    
     @Value("${dynamodb.table.name:TeamDashboard}")
     private String tableName;
     
     private DynamoDbTable<TeamDashboardItem> getTable() {
-        return enhancedClient.table(tableName, TableSchema.fromBean(TeamDashboardItem.class));
+        return enhancedClient.table(tableName, teamDashboardItemSchema);
     }
     
     public List<TeamIssueModel> findAll() {
@@ -0,0 +1,385 @@
+package com.teamdashboard.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.teamdashboard.dto.DailyReportImportResult;
+import com.teamdashboard.dto.DailyReportImportRow;
+import com.teamdashboard.entity.DailyReport;
+import com.teamdashboard.entity.User;
+import com.teamdashboard.entity.WorkloadRollup;
+import com.teamdashboard.repository.DailyReportRepository;
+import com.teamdashboard.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 日報を CSV または JSON（配列・NDJSON）から一括で取り込む
+ *
+ * 入力を読みながら chunk-size 件ずつ別のトランザクションで保存する（途中で失敗しても、それまでのチャンクは残る）。
+ * 日報のIDはシーケンスからまとめて確保するため、1チャンクのINSERTは hibernate.jdbc.batch_size 件ずつまとめて送られる。
+ * 形式はエクスポート（GET /reports/export）と同じで、エクスポートしたファイルをそのまま取り込める。
+ * 不正な行と、同じユーザー・日付の日報が既にある行は取り込まずに理由を返す。
+ * 負荷の集計は1件ずつ更新せず、取り込んだ期間をまとめて作り直す。
+ */
+@Service
+@Profile("!lambda")
+public class DailyReportImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DailyReportImportService.class);
+
+    private final DailyReportRepository dailyReportRepository;
+    private final UserRepository userRepository;
+    private final WorkloadRollupService workloadRollupService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    @Autowired
+    public DailyReportImportService(DailyReportRepository dailyReportRepository,
+                                    UserRepository userRepository,
+                                    WorkloadRollupService workloadRollupService,
+                                    ObjectMapper objectMapper,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${reports.import.chunk-size:1000}") int chunkSize) {
+        this.dailyReportRepository = dailyReportRepository;
+        this.userRepository = userRepository;
+        this.workloadRollupService = workloadRollupService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    /**
+     * @throws IllegalArgumentException CSVの見出し行に必要な列（username・reportDate・workContent）がない場合
+     */
+    public DailyReportImportResult importReports(DailyReportService.ExportFormat format, InputStream in)
+            throws IOException {
+        long start = System.nanoTime();
+        ImportRun run = new ImportRun();
+        RowSource source = format == DailyReportService.ExportFormat.CSV
+                ? new CsvRowSource(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)))
+                : new JsonRowSource(objectMapper.readerFor(DailyReportImportRow.class).readValues(in));
+        List<Row> chunk = new ArrayList<>(chunkSize);
+        try {
+            Row row;
+            while ((row = source.next(run)) != null) {
+                chunk.add(row);
+                if (chunk.size() >= chunkSize) {
+                    saveChunk(chunk, run);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                saveChunk(chunk, run);
+            }
+        } finally {
+            if (run.firstDate != null) {
+                workloadRollupService.rebuild(run.firstDate, run.lastDate);
+            }
+        }
+        long durationMillis = (System.nanoTime() - start) / 1_000_000;
+        logger.info("Imported {} daily reports ({} skipped) in {} ms", run.imported, run.skipped, durationMillis);
+        return new DailyReportImportResult(run.imported, run.skipped, run.errors, durationMillis);
+    }
+
+    private void saveChunk(List<Row> chunk, ImportRun run) {
+        transactionTemplate.executeWithoutResult(status -> {
+            resolveUsers(chunk, run);
+            Set<String> existing = existingReports(chunk, run);
+            List<DailyReport> reports = new ArrayList<>(chunk.size());
+            List<LocalDate> dates = new ArrayList<>(chunk.size());
+            for (Row row : chunk) {
+                String error = validate(row, run, existing);
+                if (error != null) {
+                    run.skip(row.number(), error);
+                    continue;
+                }
+                DailyReportImportRow data = row.data();
+                DailyReport report = new DailyReport();
+                report.setUser(userRepository.getReferenceById(run.userIds.get(data.username())));
+                report.setReportDate(data.reportDate());
+                report.setWorkContent(data.workContent());
+                report.setInsights(data.insights());
+                report.setIssues(data.issues());
+                report.setWorkloadLevel(data.workloadLevel());
+                reports.add(report);
+                dates.add(data.reportDate());
+            }
+            dailyReportRepository.saveAll(reports);
+            run.imported += reports.size();
+            dates.forEach(run::includeDate);
+        });
+    }
+
+    /**
+     * チャンクに出てきた未確認のユーザー名をまとめて読み、IDを覚えておく
+     */
+    private void resolveUsers(List<Row> chunk, ImportRun run) {
+        Set<String> unresolved = new HashSet<>();
+        for (Row row : chunk) {
+            String username = row.data() != null ? row.data().username() : null;
+            if (username != null && !run.userIds.containsKey(username) && !run.unknownUsers.contains(username)) {
+                unresolved.add(username);
+            }
+        }
+        if (unresolved.isEmpty()) {
+            return;
+        }
+        for (User user : userRepository.findByUsernameIn(unresolved)) {
+            run.userIds.put(user.getUsername(), user.getId());
+            unresolved.remove(user.getUsername());
+        }
+        run.unknownUsers.addAll(unresolved);
+    }
+
+    /**
+     * チャンクのユーザー・期間に既にある日報の「ユーザーID:日付」（前のチャンクで保存した分も含む）
+     */
+    private Set<String> existingReports(List<Row> chunk, ImportRun run) {
+        Set<Long> userIds = new HashSet<>();
+        LocalDate min = null;
+        LocalDate max = null;
+        for (Row row : chunk) {
+            DailyReportImportRow data = row.data();
+            if (data == null || data.reportDate() == null || !run.userIds.containsKey(data.username())) {
+                continue;
+            }
+            userIds.add(run.userIds.get(data.username()));
+            min = min == null || data.reportDate().isBefore(min) ? data.reportDate() : min;
+            max = max == null || data.reportDate().isAfter(max) ? data.reportDate() : max;
+        }
+        Set<String> existing = new HashSet<>();
+        if (!userIds.isEmpty()) {
+            for (Object[] report : dailyReportRepository.findUserIdAndReportDate(userIds, min, max)) {
+                existing.add(report[0] + ":" + report[1]);
+            }
+        }
+        return existing;
+    }
+
+    /**
+     * @return 取り込めない理由（取り込める場合は null）。取り込める場合は existing に加える
+     */
+    private static String validate(Row row, ImportRun run, Set<String> existing) {
+        if (row.error() != null) {
+            return row.error();
+        }
+        DailyReportImportRow data = row.data();
+        if (data.username() == null || data.username().isBlank()) {
+            return "username がありません";
+        }
+        Long userId = run.userIds.get(data.username());
+        if (userId == null) {
+            return "ユーザーが見つかりません: " + data.username();
+        }
+        if (data.reportDate() == null) {
+            return "reportDate がありません";
+        }
+        if (data.workContent() == null || data.workContent().isBlank()) {
+            return "workContent がありません";
+        }
+        if (data.workloadLevel() != null
+                && (data.workloadLevel() < 1 || data.workloadLevel() > WorkloadRollup.MAX_LEVEL)) {
+            return "workloadLevel は1～" + WorkloadRollup.MAX_LEVEL + "です: " + data.workloadLevel();
+        }
+        if (!existing.add(userId + ":" + data.reportDate())) {
+            return "この日の日報は既にあります: " + data.username() + " " + data.reportDate();
+        }
+        return null;
+    }
+
+    /**
+     * 読み込んだ1件（読めなかった場合は error に理由）
+     *
+     * @param number 入力の先頭からの件数（CSVは見出し行を除く）
+     */
+    private record Row(long number, DailyReportImportRow data, String error) {
+    }
+
+    private interface RowSource {
+
+        /**
+         * @return 次の1件（終わりの場合は null）
+         */
+        Row next(ImportRun run) throws IOException;
+    }
+
+    /**
+     * RFC 4180 のCSVを1件ずつ読む（1行目は見出し。列の順序は問わず、知らない列は無視する）
+     */
+    private static final class CsvRowSource implements RowSource {
+
+        private final Reader reader;
+        private final Map<String, Integer> columns = new HashMap<>();
+        private long number;
+
+        CsvRowSource(Reader reader) throws IOException {
+            this.reader = reader;
+            reader.mark(1);
+            if (reader.read() != '\uFEFF') {
+                reader.reset();
+            }
+            List<String> header = readRecord();
+            for (int i = 0; header != null && i < header.size(); i++) {
+                columns.put(header.get(i).trim(), i);
+            }
+            for (String required : List.of("username", "reportDate", "workContent")) {
+                if (!columns.containsKey(required)) {
+                    throw new IllegalArgumentException("CSVの見出し行に " + required + " の列がありません");
+                }
+            }
+        }
+
+        @Override
+        public Row next(ImportRun run) throws IOException {
+            List<String> fields;
+            do {
+                fields = readRecord();
+                if (fields == null) {
+                    return null;
+                }
+            } while (fields.size() == 1 && fields.get(0).isEmpty());
+            number++;
+            try {
+                String reportDate = field(fields, "reportDate");
+                String workloadLevel = field(fields, "workloadLevel");
+                return new Row(number, new DailyReportImportRow(field(fields, "username"),
+                        reportDate != null ? LocalDate.parse(reportDate) : null,
+                        field(fields, "workContent"), field(fields, "insights"), field(fields, "issues"),
+                        workloadLevel != null ? Integer.valueOf(workloadLevel) : null), null);
+            } catch (DateTimeParseException | NumberFormatException e) {
+                return new Row(number, null, "読み込めません: " + e.getMessage());
+            }
+        }
+
+        /**
+         * @return 列の値（列がない・空の場合は null）
+         */
+        private String field(List<String> fields, String column) {
+            Integer index = columns.get(column);
+            String value = index != null && index < fields.size() ? fields.get(index) : null;
+            return value == null || value.isEmpty() ? null : value;
+        }
+
+        /**
+         * 1レコード読む（ダブルクォートで囲んだ値はカンマ・改行を含められ、"" は " を表す）
+         * @return 入力の終わりの場合は null
+         */
+        private List<String> readRecord() throws IOException {
+            int c = reader.read();
+            if (c == -1) {
+                return null;
+            }
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c == -1) {
+                        break;
+                    }
+                    if (c == '"') {
+                        c = reader.read();
+                        if (c != '"') {
+                            quoted = false;
+                            continue;
+                        }
+                    }
+                    field.append((char) c);
+                } else if (c == '"' && field.length() == 0) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n' || c == -1) {
+                    break;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+                c = reader.read();
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+
+    /**
+     * JSONの配列、または1行1件のJSON（NDJSON）を1件ずつ読む
+     */
+    private static final class JsonRowSource implements RowSource {
+
+        private final MappingIterator<DailyReportImportRow> iterator;
+        private long number;
+
+        JsonRowSource(MappingIterator<DailyReportImportRow> iterator) {
+            this.iterator = iterator;
+        }
+
+        @Override
+        public Row next(ImportRun run) throws IOException {
+            try {
+                if (!iterator.hasNextValue()) {
+                    return null;
+                }
+                number++;
+                return new Row(number, iterator.nextValue(), null);
+            } catch (JsonMappingException e) {
+                // 値の型が合わないだけなら、その1件を飛ばして続きを読める
+                return new Row(number, null, "読み込めません: " + e.getOriginalMessage());
+            } catch (JsonProcessingException e) {
+                // JSONとして壊れている場合はそれ以降を読めない
+                run.skip(number, "JSONを読み込めないため中断しました: " + e.getOriginalMessage());
+                return null;
+            }
+        }
+    }
+
+    /**
+     * 1回の取り込みの状態
+     */
+    private static final class ImportRun {
+
+        final Map<String, Long> userIds = new HashMap<>();
+        final Set<String> unknownUsers = new HashSet<>();
+        final List<String> errors = new ArrayList<>();
+        long imported;
+        long skipped;
+        LocalDate firstDate;
+        LocalDate lastDate;
+
+        void skip(long number, String reason) {
+            skipped++;
+            if (errors.size() < DailyReportImportResult.MAX_ERRORS) {
+                errors.add(number + "件目: " + reason);
+            }
+        }
+
+        void includeDate(LocalDate date) {
+            firstDate = firstDate == null || date.isBefore(firstDate) ? date : firstDate;
+            lastDate = lastDate == null || date.isAfter(lastDate) ? date : lastDate;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.teamdashboard.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.teamdashboard.dto.DailyReportPage;
 import com.teamdashboard.dto.DailyReportRequest;
 import com.teamdashboard.dto.DailyReportResponse;
 import com.teamdashboard.entity.DailyReport;
@@ -7,15 +9,26 @@ import com.teamdashboard.entity.User;
 import com.teamdashboard.repository.DailyReportRepository;
 import com.teamdashboard.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Profile("!lambda")
 @Transactional
 public class DailyReportService {
 
@@ -25,18 +38,46 @@ public class DailyReportService {
     @Autowired
     private UserRepository userRepository;
 
-    public List<DailyReportResponse> getAllReports() {
-        return dailyReportRepository.findAll().stream()
-                .map(DailyReportResponse::new)
-                .collect(Collectors.toList());
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private WorkloadRollupService workloadRollupService;
+
+    /** 一覧の1ページの既定件数 */
+    public static final int DEFAULT_PAGE_SIZE = 100;
+
+    /** 一覧の1ページの最大件数 */
+    public static final int MAX_PAGE_SIZE = 500;
+
+    /** エクスポートするCSVの見出し行 */
+    private static final Object[] CSV_HEADER = {"id", "reportDate", "username", "displayName", "workloadLevel",
+            "workloadLevelText", "workContent", "insights", "issues", "createdAt"};
+
+    /**
+     * すべての日報を日付・IDの降順でページ単位に取得
+     * @param limit 1ページの件数（1～MAX_PAGE_SIZE に丸める）
+     * @param after 前のページの nextCursor（先頭ページは null）
+     */
+    @Transactional(readOnly = true)
+    public DailyReportPage getReports(int limit, String after) {
+        int size = pageSize(limit);
+        PageRequest page = PageRequest.of(0, size + 1);
+        if (after == null || after.isBlank()) {
+            return toPage(dailyReportRepository.findPageWithUser(page), size);
+        }
+        DailyReportPage.Cursor cursor = DailyReportPage.Cursor.parse(after);
+        return toPage(dailyReportRepository.findPageAfterWithUser(cursor.reportDate(), cursor.id(), page), size);
     }
 
+    @Transactional(readOnly = true)
     public List<DailyReportResponse> getReportsByDate(LocalDate date) {
-        return dailyReportRepository.findByReportDateOrderByCreatedAtDesc(date).stream()
+        return dailyReportRepository.findByReportDateWithUserOrderByCreatedAtDesc(date).stream()
                 .map(DailyReportResponse::new)
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public List<DailyReportResponse> getReportsByUser(String username) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("ユーザーが見つかりません: " + username));
@@ -67,6 +108,7 @@ public class DailyReportService {
         report.setWorkloadLevel(request.getWorkloadLevel());
 
         DailyReport savedReport = dailyReportRepository.save(report);
+        workloadRollupService.add(savedReport);
         return new DailyReportResponse(savedReport);
     }
 
@@ -79,12 +121,14 @@ public class DailyReportService {
             throw new RuntimeException("他のユーザーの日報は編集できません");
         }
 
+        Integer previousLevel = report.getWorkloadLevel();
         report.setWorkContent(request.getWorkContent());
         report.setInsights(request.getInsights());
         report.setIssues(request.getIssues());
         report.setWorkloadLevel(request.getWorkloadLevel());
 
         DailyReport updatedReport = dailyReportRepository.save(report);
+        workloadRollupService.changeLevel(updatedReport, previousLevel);
         return new DailyReportResponse(updatedReport);
     }
 
@@ -97,15 +141,135 @@ public class DailyReportService {
             throw new RuntimeException("他のユーザーの日報は削除できません");
         }
 
+        workloadRollupService.remove(report);
         dailyReportRepository.delete(report);
     }
 
-    public List<DailyReportResponse> getRecentReports(int days) {
+    /**
+     * 直近 days 日間の日報を日付・IDの降順でページ単位に取得
+     * @param limit 1ページの件数（1～MAX_PAGE_SIZE に丸める）
+     * @param after 前のページの nextCursor（先頭ページは null）
+     */
+    @Transactional(readOnly = true)
+    public DailyReportPage getRecentReports(int days, int limit, String after) {
         LocalDate endDate = LocalDate.now();
         LocalDate startDate = endDate.minusDays(days - 1);
-        
-        return dailyReportRepository.findByReportDateBetween(startDate, endDate).stream()
+        int size = pageSize(limit);
+        PageRequest page = PageRequest.of(0, size + 1);
+        if (after == null || after.isBlank()) {
+            return toPage(dailyReportRepository.findPageByReportDateBetweenWithUser(startDate, endDate, page), size);
+        }
+        DailyReportPage.Cursor cursor = DailyReportPage.Cursor.parse(after);
+        return toPage(dailyReportRepository.findPageByReportDateBetweenAfterWithUser(
+                startDate, endDate, cursor.reportDate(), cursor.id(), page), size);
+    }
+
+    /**
+     * 期間内の日報を日付・IDの昇順で out に書き出す
+     * 1件ずつ読んでは書くため、件数が多くてもメモリ使用量は変わらない。out は閉じない
+     * @param from 開始日（含む）
+     * @param to   終了日（含む）
+     * @return 書き出した件数
+     */
+    @Transactional(readOnly = true)
+    public long exportReports(LocalDate from, LocalDate to, ExportFormat format, OutputStream out) throws IOException {
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        long count = 0;
+        try (Stream<DailyReportResponse> reports = dailyReportRepository.streamByReportDateBetween(from, to)) {
+            if (format == ExportFormat.CSV) {
+                // Excelで開いても文字化けしないようBOMを付ける
+                writer.write('\uFEFF');
+                writeCsvRow(writer, CSV_HEADER);
+            }
+            Iterator<DailyReportResponse> iterator = reports.iterator();
+            while (iterator.hasNext()) {
+                DailyReportResponse report = iterator.next();
+                if (format == ExportFormat.CSV) {
+                    writeCsvRow(writer, report.getId(), report.getReportDate(), report.getUsername(),
+                            report.getDisplayName(), report.getWorkloadLevel(), report.getWorkloadLevelText(),
+                            report.getWorkContent(), report.getInsights(), report.getIssues(), report.getCreatedAt());
+                } else {
+                    writer.write(objectMapper.writeValueAsString(report));
+                    writer.write('\n');
+                }
+                count++;
+            }
+        }
+        writer.flush();
+        return count;
+    }
+
+    /**
+     * RFC 4180 の形式で1行書く（カンマ・ダブルクォート・改行を含む値はダブルクォートで囲む）
+     */
+    private static void writeCsvRow(BufferedWriter writer, Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            String value = values[i] == null ? "" : values[i].toString();
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(value.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(value);
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    /**
+     * エクスポートの形式
+     */
+    public enum ExportFormat {
+        CSV("text/csv; charset=UTF-8", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        ExportFormat(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        /**
+         * @throws IllegalArgumentException csv・ndjson 以外の場合
+         */
+        public static ExportFormat of(String value) {
+            for (ExportFormat format : values()) {
+                if (format.extension.equals(value.toLowerCase(Locale.ROOT))) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("エクスポート形式は csv または ndjson を指定してください: " + value);
+        }
+    }
+
+    private static int pageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * 1件多く取得した結果から、次のページがあるかを判定する
+     */
+    private static DailyReportPage toPage(List<DailyReport> reports, int size) {
+        List<DailyReportResponse> responses = reports.stream()
+                .limit(size)
                 .map(DailyReportResponse::new)
                 .collect(Collectors.toList());
+        String nextCursor = reports.size() > size
+                ? DailyReportPage.Cursor.of(responses.get(responses.size() - 1)).toString()
+                : null;
+        return new DailyReportPage(responses, nextCursor);
     }
 }
\ No newline at end of file
@@ -0,0 +1,314 @@
+package com.teamdashboard.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.DescribeStreamRequest;
+import software.amazon.awssdk.services.dynamodb.model.ExpiredIteratorException;
+import software.amazon.awssdk.services.dynamodb.model.GetRecordsResponse;
+import software.amazon.awssdk.services.dynamodb.model.Record;
+import software.amazon.awssdk.services.dynamodb.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.dynamodb.model.Shard;
+import software.amazon.awssdk.services.dynamodb.model.ShardIteratorType;
+import software.amazon.awssdk.services.dynamodb.model.StreamDescription;
+import software.amazon.awssdk.services.dynamodb.model.TrimmedDataAccessException;
+import software.amazon.awssdk.services.dynamodb.streams.DynamoDbStreamsClient;
+import software.amazon.awssdk.services.dynamodb.streams.DynamoDbStreamsClientBuilder;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * DynamoDB Streams をポーリングして変更データからリアルタイム通知を送る（常駐サーバー・DynamoDB Local 用）
+ *
+ * realtime.change-capture.mode=stream のときだけ有効になり、対象テーブルのストリームの各シャードを
+ * GetRecords で読み進めて StreamRecordConverter で通知に変換し、RealtimeNotificationSink に渡す。
+ * 書き込み側のリクエストは通知の配信を待たずに応答できる。
+ * 起動時点で開いているシャードは最新位置から、その後に分割等で増えたシャードは先頭から読む。
+ * 親シャードを読み終えるまで子シャードは読まないため、同じ項目の変更は順番どおりに通知される。
+ */
+@Component
+@Profile("!lambda")
+@ConditionalOnProperty(name = "realtime.change-capture.mode", havingValue = RealtimeNotificationService.STREAM_MODE)
+public class DynamoDbStreamPoller {
+
+    private static final Logger logger = LoggerFactory.getLogger(DynamoDbStreamPoller.class);
+
+    /** 1回のポーリングで同じシャードを続けて読む上限（取得件数が上限に達している間だけ続ける） */
+    private static final int MAX_READS_PER_POLL = 10;
+
+    private final DynamoDbClient dynamoDbClient;
+    private final DynamoDbStreamsClient streamsClient;
+    private final RealtimeNotificationSink sink;
+    private final List<String> tables;
+    private final int maxRecords;
+    private final long shardRefreshMillis;
+    private final ScheduledExecutorService scheduler;
+
+    /** テーブル名 → ストリームARN */
+    private final Map<String, String> streamArns = new HashMap<>();
+    /** シャードID → 読み取り位置（ポーリングは単一スレッドで行う） */
+    private final Map<String, ShardReader> readers = new LinkedHashMap<>();
+    private final Set<String> knownShards = new HashSet<>();
+    private final Set<String> tablesWithoutStream = new HashSet<>();
+    private long nextShardRefresh;
+
+    private final AtomicLong records = new AtomicLong();
+    private final AtomicLong notifications = new AtomicLong();
+    private final AtomicLong ignoredRecords = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private volatile long lastLagMillis = -1;
+    private volatile int activeShards;
+
+    @Autowired
+    public DynamoDbStreamPoller(DynamoDbClient dynamoDbClient,
+                                RealtimeNotificationSink sink,
+                                @Value("${aws.region:ap-northeast-1}") String region,
+                                @Value("${aws.dynamodb.endpoint:}") String endpoint,
+                                @Value("${realtime.change-capture.tables}") String tables,
+                                @Value("${realtime.change-capture.poll-interval-millis:500}") long pollIntervalMillis,
+                                @Value("${realtime.change-capture.max-records:100}") int maxRecords,
+                                @Value("${realtime.change-capture.shard-refresh-millis:10000}") long shardRefreshMillis) {
+        this(dynamoDbClient, buildStreamsClient(region, endpoint), sink, List.of(tables.split(",")), pollIntervalMillis, maxRecords,
+                shardRefreshMillis);
+    }
+
+    DynamoDbStreamPoller(DynamoDbClient dynamoDbClient, DynamoDbStreamsClient streamsClient,
+                         RealtimeNotificationSink sink, List<String> tables, long pollIntervalMillis,
+                         int maxRecords, long shardRefreshMillis) {
+        this.dynamoDbClient = dynamoDbClient;
+        this.streamsClient = streamsClient;
+        this.sink = sink;
+        this.tables = tables.stream().map(String::trim).filter(table -> !table.isEmpty()).distinct().toList();
+        this.maxRecords = maxRecords;
+        this.shardRefreshMillis = shardRefreshMillis;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "dynamodb-stream-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleWithFixedDelay(this::pollSafely, 0, pollIntervalMillis, TimeUnit.MILLISECONDS);
+        logger.info("DynamoDB Streams change capture enabled for tables {}", this.tables);
+    }
+
+    private static DynamoDbStreamsClient buildStreamsClient(String region, String endpoint) {
+        // DynamoDB Local はテーブルと同じエンドポイントでストリームAPIも提供する
+        DynamoDbStreamsClientBuilder builder = DynamoDbStreamsClient.builder().region(Region.of(region));
+        if (endpoint != null && !endpoint.isBlank()) {
+            builder.endpointOverride(URI.create(endpoint));
+        }
+        return builder.build();
+    }
+
+    private void pollSafely() {
+        try {
+            poll();
+        } catch (RuntimeException e) {
+            errors.incrementAndGet();
+            logger.warn("DynamoDB Streams polling failed: {}", e.getMessage());
+        }
+    }
+
+    void poll() {
+        long now = System.currentTimeMillis();
+        if (now >= nextShardRefresh) {
+            nextShardRefresh = now + shardRefreshMillis;
+            refreshShards();
+        }
+        for (ShardReader reader : new ArrayList<>(readers.values())) {
+            read(reader);
+        }
+        activeShards = readers.size();
+    }
+
+    /**
+     * 対象テーブルのストリームとシャードを調べ、新しいシャードの読み取りを始める
+     */
+    private void refreshShards() {
+        for (String table : tables) {
+            String streamArn = streamArns.computeIfAbsent(table, this::latestStreamArn);
+            if (streamArn == null) {
+                streamArns.remove(table);
+                continue;
+            }
+            boolean initial = knownShards.stream().noneMatch(id -> id.startsWith(streamArn + "|"));
+            for (Shard shard : describeShards(streamArn)) {
+                String key = streamArn + "|" + shard.shardId();
+                if (knownShards.contains(key)) {
+                    continue;
+                }
+                if (initial) {
+                    knownShards.add(key);
+                    // 起動前の変更は通知しない（閉じたシャードは読まず、開いているシャードは最新位置から）
+                    if (shard.sequenceNumberRange().endingSequenceNumber() == null) {
+                        readers.put(key, new ShardReader(table, streamArn, shard.shardId(), ShardIteratorType.LATEST));
+                    }
+                } else if (shard.parentShardId() == null || !readers.containsKey(streamArn + "|" + shard.parentShardId())) {
+                    // 親シャードを読み終えてから子シャードを先頭から読む
+                    knownShards.add(key);
+                    readers.put(key, new ShardReader(table, streamArn, shard.shardId(), ShardIteratorType.TRIM_HORIZON));
+                }
+            }
+        }
+    }
+
+    private String latestStreamArn(String table) {
+        String streamArn = dynamoDbClient.describeTable(request -> request.tableName(table)).table().latestStreamArn();
+        if (streamArn == null) {
+            if (tablesWithoutStream.add(table)) {
+                logger.warn("Table {} has no stream enabled (StreamViewType NEW_AND_OLD_IMAGES is required)", table);
+            }
+            return null;
+        }
+        tablesWithoutStream.remove(table);
+        return streamArn;
+    }
+
+    private List<Shard> describeShards(String streamArn) {
+        List<Shard> shards = new ArrayList<>();
+        String exclusiveStartShardId = null;
+        do {
+            StreamDescription description = streamsClient.describeStream(DescribeStreamRequest.builder()
+                    .streamArn(streamArn)
+                    .exclusiveStartShardId(exclusiveStartShardId)
+                    .build()).streamDescription();
+            shards.addAll(description.shards());
+            exclusiveStartShardId = description.lastEvaluatedShardId();
+        } while (exclusiveStartShardId != null);
+        return shards;
+    }
+
+    private void read(ShardReader reader) {
+        try {
+            for (int i = 0; i < MAX_READS_PER_POLL; i++) {
+                if (reader.iterator == null) {
+                    reader.iterator = shardIterator(reader);
+                }
+                GetRecordsResponse response = streamsClient.getRecords(request -> request
+                        .shardIterator(reader.iterator)
+                        .limit(maxRecords));
+                for (Record record : response.records()) {
+                    process(record);
+                    reader.lastSequenceNumber = record.dynamodb().sequenceNumber();
+                }
+                reader.iterator = response.nextShardIterator();
+                if (reader.iterator == null) {
+                    // シャードが閉じられ、最後まで読み終えた
+                    readers.remove(reader.key());
+                    return;
+                }
+                if (response.records().size() < maxRecords) {
+                    return;
+                }
+            }
+        } catch (ExpiredIteratorException e) {
+            reader.iterator = null;
+        } catch (TrimmedDataAccessException e) {
+            // 保持期間（24時間）を過ぎて読めなくなった範囲は飛ばす
+            logger.warn("Records of shard {} were trimmed before being read", reader.shardId);
+            reader.iterator = null;
+            reader.lastSequenceNumber = null;
+            reader.startType = ShardIteratorType.TRIM_HORIZON;
+        } catch (ResourceNotFoundException e) {
+            // テーブルの削除やストリームの無効化。次回の更新で最新のストリームを探し直す
+            readers.remove(reader.key());
+            streamArns.remove(reader.table);
+        } catch (SdkException e) {
+            errors.incrementAndGet();
+            logger.warn("Failed to read shard {}: {}", reader.shardId, e.getMessage());
+        }
+    }
+
+    private String shardIterator(ShardReader reader) {
+        ShardIteratorType type = reader.lastSequenceNumber != null
+                ? ShardIteratorType.AFTER_SEQUENCE_NUMBER : reader.startType;
+        return streamsClient.getShardIterator(request -> request
+                .streamArn(reader.streamArn)
+                .shardId(reader.shardId)
+                .shardIteratorType(type)
+                .sequenceNumber(reader.lastSequenceNumber)).shardIterator();
+    }
+
+    private void process(Record record) {
+        records.incrementAndGet();
+        if (record.dynamodb().approximateCreationDateTime() != null) {
+            lastLagMillis = System.currentTimeMillis() - record.dynamodb().approximateCreationDateTime().toEpochMilli();
+        }
+        try {
+            StreamRecordConverter.convert(record.eventNameAsString(),
+                            StreamRecordConverter.toMap(record.dynamodb().oldImage()),
+                            StreamRecordConverter.toMap(record.dynamodb().newImage()))
+                    .ifPresentOrElse(notification -> {
+                        sink.publish(notification);
+                        notifications.incrementAndGet();
+                    }, ignoredRecords::incrementAndGet);
+        } catch (RuntimeException e) {
+            // 変換できないレコードでシャード全体を止めない
+            errors.incrementAndGet();
+            logger.warn("Failed to convert stream record {}: {}", record.dynamodb().sequenceNumber(), e.getMessage());
+        }
+    }
+
+    /**
+     * 変更データの取り込み状況
+     */
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("tables", tables);
+        metrics.put("activeShards", activeShards);
+        metrics.put("records", records.get());
+        metrics.put("notifications", notifications.get());
+        metrics.put("ignoredRecords", ignoredRecords.get());
+        metrics.put("errors", errors.get());
+        metrics.put("lastLagMillis", lastLagMillis);
+        return metrics;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        streamsClient.close();
+    }
+
+    /**
+     * シャードごとの読み取り位置
+     */
+    private static final class ShardReader {
+
+        private final String table;
+        private final String streamArn;
+        private final String shardId;
+        private ShardIteratorType startType;
+        private String iterator;
+        private String lastSequenceNumber;
+
+        ShardReader(String table, String streamArn, String shardId, ShardIteratorType startType) {
+            this.table = table;
+            this.streamArn = streamArn;
+            this.shardId = shardId;
+            this.startType = startType;
+        }
+
+        String key() {
+            return streamArn + "|" + shardId;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.teamdashboard.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 連番付きイベントを固定長で保持するリングバッファ
+ *
+ * 領域は生成時に確保して使い回し、容量を超えた分は古いものから上書きする。
+ * 再接続したクライアントが最後に受け取った連番以降のイベントを取り出すために使う。
+ */
+public class EventRingBuffer<T> {
+
+    private final Object[] events;
+    private int size;
+    private int next;
+    private long lastId;
+
+    public EventRingBuffer(int capacity) {
+        this(capacity, 0);
+    }
+
+    /**
+     * @param initialId 最初のイベントに振る連番の1つ前（再起動後も連番を巻き戻さないために使う）
+     */
+    public EventRingBuffer(int capacity, long initialId) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.events = new Object[capacity];
+        this.lastId = initialId;
+    }
+
+    /**
+     * イベントを追加し、採番した連番を返す
+     */
+    public synchronized long append(T event) {
+        events[next] = event;
+        next = (next + 1) % events.length;
+        if (size < events.length) {
+            size++;
+        }
+        return ++lastId;
+    }
+
+    /**
+     * lastSeenId より後のイベントを古い順に返す
+     *
+     * @return 取りこぼしがある場合（バッファから溢れた、またはサーバー再起動で連番が巻き戻った）は null
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized List<Entry<T>> since(long lastSeenId) {
+        if (lastSeenId > lastId || lastSeenId < lastId - size) {
+            return null;
+        }
+        List<Entry<T>> entries = new ArrayList<>((int) (lastId - lastSeenId));
+        for (long id = lastSeenId + 1; id <= lastId; id++) {
+            int index = (int) Math.floorMod(next - 1 - (lastId - id), (long) events.length);
+            entries.add(new Entry<>(id, (T) events[index]));
+        }
+        return entries;
+    }
+
+    public synchronized long lastId() {
+        return lastId;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return events.length;
+    }
+
+    public record Entry<T>(long id, T event) {
+    }
+}
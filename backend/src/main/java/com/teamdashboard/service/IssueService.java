@@ -0,0 +1,74 @@
+package com.teamdashboard.service;
+
+import com.teamdashboard.dto.TeamIssueResponseDTO;
+import com.teamdashboard.entity.IssueStatus;
+import com.teamdashboard.entity.TeamIssue;
+import com.teamdashboard.repository.IssueCommentRepository;
+import com.teamdashboard.repository.TeamIssueJpaRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 困りごと（RDB）の一覧をコメント数付きで返す
+ *
+ * 困りごとは投稿者と一緒に1回、コメント数は一覧の困りごとIDでまとめて1回数えるため、
+ * 件数に関係なくクエリは2回で済む。
+ */
+@Service
+@Profile("!lambda")
+@Transactional(readOnly = true)
+public class IssueService {
+
+    @Autowired
+    private TeamIssueJpaRepository teamIssueJpaRepository;
+
+    @Autowired
+    private IssueCommentRepository issueCommentRepository;
+
+    /** 一覧の既定件数 */
+    public static final int DEFAULT_PAGE_SIZE = 100;
+
+    /** 一覧の最大件数 */
+    public static final int MAX_PAGE_SIZE = 500;
+
+    /**
+     * 困りごとを作成日時の新しい順に limit 件取得
+     * @param status ステータス（null の場合はすべて）
+     * @param limit 件数（1～MAX_PAGE_SIZE に丸める）
+     */
+    public List<TeamIssueResponseDTO> getIssues(IssueStatus status, int limit) {
+        PageRequest page = PageRequest.ofSize(Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+        List<TeamIssue> issues;
+        if (status == null) {
+            issues = teamIssueJpaRepository.findAllWithUser(page);
+        } else if (status == IssueStatus.OPEN) {
+            issues = teamIssueJpaRepository.findOpenWithUser(page);
+        } else {
+            issues = teamIssueJpaRepository.findByStatusWithUser(status, page);
+        }
+        Map<Long, Long> commentCounts = countComments(issues);
+        return issues.stream()
+                .map(issue -> TeamIssueResponseDTO.fromEntity(issue, commentCounts.getOrDefault(issue.getId(), 0L)))
+                .collect(Collectors.toList());
+    }
+
+    private Map<Long, Long> countComments(List<TeamIssue> issues) {
+        Map<Long, Long> counts = new HashMap<>();
+        if (issues.isEmpty()) {
+            return counts;
+        }
+        List<Long> issueIds = issues.stream().map(TeamIssue::getId).collect(Collectors.toList());
+        for (Object[] row : issueCommentRepository.countByIssueIds(issueIds)) {
+            counts.put((Long) row[0], ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,324 @@
+package com.teamdashboard.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * STOMPセッションの接続・切断イベントからユーザーのオンライン状態を管理する
+ *
+ * ユーザーごとの接続数は ConcurrentHashMap のキー単位の更新（compute）で増減するため、
+ * 別ユーザーの接続・切断同士でロックを取り合わない。
+ * クライアントからのフレーム（ハートビートを含む）を受け取るたびに最終受信時刻を更新し、
+ * 切断イベントを取りこぼしたセッションは expiry-millis を過ぎた時点で切断扱いにする。
+ * オンライン/オフラインの通知は debounce-millis の間状態が変わらなかった場合だけ送るので、
+ * 再接続やタブの開き直しで通知が連続しない。
+ * 認証済みのプリンシパルがない接続では、ユーザーはクライアントが送る userId・displayName ヘッダーで決まる。
+ * 他のユーザーを名乗ることもできるため、オンライン状態は表示用の参考情報として扱い、権限の判定には使わない
+ * （require-principal=true の場合は、プリンシパルのない接続を数えない）。
+ */
+@Component
+@Profile("!lambda")
+public class PresenceRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(PresenceRegistry.class);
+
+    /** STOMPのCONNECTフレームでクライアントが送るユーザー情報のヘッダー（クライアントの自己申告） */
+    static final String USER_ID_HEADER = "userId";
+    static final String DISPLAY_NAME_HEADER = "displayName";
+
+    /** 期限切れにしたセッションの復帰用にWebSocketセッション属性へ残すユーザー情報 */
+    private static final String SESSION_USER_ATTRIBUTE = PresenceRegistry.class.getName() + ".userId";
+    private static final String SESSION_DISPLAY_NAME_ATTRIBUTE = PresenceRegistry.class.getName() + ".displayName";
+
+    private final RealtimeNotificationService notificationService;
+    private final long expiryMillis;
+    private final long debounceMillis;
+    private final boolean requirePrincipal;
+    private final ScheduledExecutorService scheduler;
+
+    private final Map<String, SessionPresence> sessions = new ConcurrentHashMap<>();
+    private final Map<String, UserPresence> users = new ConcurrentHashMap<>();
+    /** 状態が変わったユーザーと最後に変わった時刻（debounce 経過後に通知する） */
+    private final Map<String, Long> pendingTransitions = new ConcurrentHashMap<>();
+    /** 最後にオンラインと通知したユーザーと表示名 */
+    private final Map<String, String> announcedOnline = new ConcurrentHashMap<>();
+
+    private final AtomicLong connects = new AtomicLong();
+    private final AtomicLong disconnects = new AtomicLong();
+    private final AtomicLong anonymousConnects = new AtomicLong();
+    private final AtomicLong expiredSessions = new AtomicLong();
+    private final AtomicLong onlineBroadcasts = new AtomicLong();
+    private final AtomicLong offlineBroadcasts = new AtomicLong();
+    private final AtomicLong suppressedTransitions = new AtomicLong();
+
+    public PresenceRegistry(RealtimeNotificationService notificationService,
+                            @Value("${realtime.presence.expiry-millis:30000}") long expiryMillis,
+                            @Value("${realtime.presence.debounce-millis:2000}") long debounceMillis,
+                            @Value("${realtime.presence.sweep-millis:5000}") long sweepMillis,
+                            @Value("${realtime.presence.require-principal:false}") boolean requirePrincipal) {
+        this.notificationService = notificationService;
+        this.expiryMillis = expiryMillis;
+        this.debounceMillis = debounceMillis;
+        this.requirePrincipal = requirePrincipal;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "realtime-presence");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long flushInterval = Math.max(100, debounceMillis / 4);
+        this.scheduler.scheduleWithFixedDelay(this::flushTransitions, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+        this.scheduler.scheduleWithFixedDelay(this::expireStaleSessions, sweepMillis, sweepMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @EventListener
+    public void onSessionConnected(SessionConnectedEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        Message<?> connectMessage = (Message<?>) accessor.getHeader(SimpMessageHeaderAccessor.CONNECT_MESSAGE_HEADER);
+        StompHeaderAccessor connect = connectMessage != null ? StompHeaderAccessor.wrap(connectMessage) : accessor;
+
+        String userId = resolveUserId(event.getUser(), connect);
+        if (userId == null) {
+            anonymousConnects.incrementAndGet();
+            return;
+        }
+        String displayName = requirePrincipal ? null : connect.getFirstNativeHeader(DISPLAY_NAME_HEADER);
+        if (displayName == null || displayName.isBlank()) {
+            displayName = userId;
+        }
+        Map<String, Object> sessionAttributes = connect.getSessionAttributes();
+        if (sessionAttributes != null) {
+            sessionAttributes.put(SESSION_USER_ATTRIBUTE, userId);
+            sessionAttributes.put(SESSION_DISPLAY_NAME_ATTRIBUTE, displayName);
+        }
+        register(accessor.getSessionId(), userId, displayName);
+    }
+
+    @EventListener
+    public void onSessionDisconnect(SessionDisconnectEvent event) {
+        // 切断イベントは同じセッションで複数回届くことがあるため、登録済みのものだけ数える
+        if (unregister(event.getSessionId())) {
+            disconnects.incrementAndGet();
+        }
+    }
+
+    /**
+     * クライアントからフレームを受信したセッションの最終受信時刻を更新する
+     * clientInboundChannel のインターセプターから呼ばれる
+     */
+    public void touch(Message<?> message) {
+        SimpMessageType messageType = SimpMessageHeaderAccessor.getMessageType(message.getHeaders());
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        // 接続・切断は SessionConnectedEvent / SessionDisconnectEvent で扱う
+        if (sessionId == null || messageType == SimpMessageType.CONNECT || messageType == SimpMessageType.DISCONNECT) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        SessionPresence session = sessions.get(sessionId);
+        if (session != null) {
+            session.lastSeen = now;
+            UserPresence user = users.get(session.userId);
+            if (user != null) {
+                user.lastSeen = now;
+            }
+            return;
+        }
+        // 期限切れで外したセッションからまだフレームが届いている場合は登録し直す
+        Map<String, Object> sessionAttributes = SimpMessageHeaderAccessor.getSessionAttributes(message.getHeaders());
+        if (sessionAttributes != null && sessionAttributes.get(SESSION_USER_ATTRIBUTE) instanceof String userId) {
+            Object displayName = sessionAttributes.get(SESSION_DISPLAY_NAME_ATTRIBUTE);
+            register(sessionId, userId, displayName instanceof String name ? name : userId);
+        }
+    }
+
+    void register(String sessionId, String userId, String displayName) {
+        SessionPresence session = new SessionPresence(userId);
+        if (sessions.putIfAbsent(sessionId, session) != null) {
+            return;
+        }
+        connects.incrementAndGet();
+        users.compute(userId, (key, existing) -> {
+            UserPresence presence = existing != null ? existing : new UserPresence(displayName, session.lastSeen);
+            if (presence.sessions.incrementAndGet() == 1) {
+                pendingTransitions.put(userId, session.lastSeen);
+            }
+            presence.lastSeen = session.lastSeen;
+            return presence;
+        });
+    }
+
+    boolean unregister(String sessionId) {
+        SessionPresence session = sessions.remove(sessionId);
+        if (session == null) {
+            return false;
+        }
+        users.computeIfPresent(session.userId, (key, presence) -> {
+            if (presence.sessions.decrementAndGet() > 0) {
+                return presence;
+            }
+            pendingTransitions.put(key, System.currentTimeMillis());
+            return null;
+        });
+        return true;
+    }
+
+    /**
+     * debounce-millis の間変化のなかったユーザーについて、最後に通知した状態と異なる場合だけ通知する
+     */
+    void flushTransitions() {
+        long threshold = System.currentTimeMillis() - debounceMillis;
+        for (Map.Entry<String, Long> entry : pendingTransitions.entrySet()) {
+            String userId = entry.getKey();
+            if (entry.getValue() > threshold || !pendingTransitions.remove(userId, entry.getValue())) {
+                continue;
+            }
+            try {
+                announce(userId);
+            } catch (RuntimeException e) {
+                logger.warn("Failed to broadcast presence of {}", userId, e);
+            }
+        }
+    }
+
+    private void announce(String userId) {
+        UserPresence user = users.get(userId);
+        if (user != null) {
+            if (announcedOnline.put(userId, user.displayName) == null) {
+                onlineBroadcasts.incrementAndGet();
+                notificationService.notifyUserConnectionStatus(userId, user.displayName, true);
+                return;
+            }
+        } else {
+            String displayName = announcedOnline.remove(userId);
+            if (displayName != null) {
+                offlineBroadcasts.incrementAndGet();
+                notificationService.notifyUserConnectionStatus(userId, displayName, false);
+                return;
+            }
+        }
+        // 切断してすぐ再接続した場合など、通知済みの状態から変わっていない
+        suppressedTransitions.incrementAndGet();
+    }
+
+    /**
+     * expiry-millis の間フレームが届いていないセッションを切断扱いにする
+     */
+    void expireStaleSessions() {
+        long threshold = System.currentTimeMillis() - expiryMillis;
+        for (Map.Entry<String, SessionPresence> entry : sessions.entrySet()) {
+            if (entry.getValue().lastSeen < threshold && unregister(entry.getKey())) {
+                expiredSessions.incrementAndGet();
+                logger.debug("Presence of session {} ({}) expired", entry.getKey(), entry.getValue().userId);
+            }
+        }
+    }
+
+    private String resolveUserId(Principal principal, StompHeaderAccessor connect) {
+        if (principal != null && principal.getName() != null && !principal.getName().isBlank()) {
+            return principal.getName();
+        }
+        if (requirePrincipal) {
+            return null;
+        }
+        String userId = connect.getFirstNativeHeader(USER_ID_HEADER);
+        return userId != null && !userId.isBlank() ? userId.trim() : null;
+    }
+
+    /**
+     * 現在オンラインのユーザー一覧（接続数の多い順）
+     */
+    public Map<String, Object> snapshot() {
+        List<Map<String, Object>> online = new ArrayList<>();
+        for (Map.Entry<String, UserPresence> entry : users.entrySet()) {
+            UserPresence user = entry.getValue();
+            Map<String, Object> map = new HashMap<>();
+            map.put("userId", entry.getKey());
+            map.put("displayName", user.displayName);
+            map.put("sessions", user.sessions.get());
+            map.put("connectedAt", user.connectedAt);
+            map.put("lastSeen", user.lastSeen);
+            online.add(map);
+        }
+        online.sort(Comparator.comparingInt((Map<String, Object> map) -> (Integer) map.get("sessions")).reversed());
+
+        Map<String, Object> snapshot = new HashMap<>();
+        snapshot.put("onlineUsers", online.size());
+        snapshot.put("sessions", sessions.size());
+        snapshot.put("users", online);
+        snapshot.put("timestamp", System.currentTimeMillis());
+        return snapshot;
+    }
+
+    /**
+     * オンライン状態管理の統計
+     */
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("onlineUsers", users.size());
+        metrics.put("sessions", sessions.size());
+        metrics.put("connects", connects.get());
+        metrics.put("disconnects", disconnects.get());
+        metrics.put("anonymousConnects", anonymousConnects.get());
+        metrics.put("expiredSessions", expiredSessions.get());
+        metrics.put("pendingTransitions", pendingTransitions.size());
+        metrics.put("onlineBroadcasts", onlineBroadcasts.get());
+        metrics.put("offlineBroadcasts", offlineBroadcasts.get());
+        metrics.put("suppressedTransitions", suppressedTransitions.get());
+        metrics.put("expiryMillis", expiryMillis);
+        metrics.put("debounceMillis", debounceMillis);
+        metrics.put("requirePrincipal", requirePrincipal);
+        return metrics;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private static final class SessionPresence {
+
+        private final String userId;
+        private volatile long lastSeen = System.currentTimeMillis();
+
+        SessionPresence(String userId) {
+            this.userId = userId;
+        }
+    }
+
+    private static final class UserPresence {
+
+        private final String displayName;
+        private final long connectedAt;
+        private final AtomicInteger sessions = new AtomicInteger();
+        private volatile long lastSeen;
+
+        UserPresence(String displayName, long connectedAt) {
+            this.displayName = displayName;
+            this.connectedAt = connectedAt;
+            this.lastSeen = connectedAt;
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.teamdashboard.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.teamdashboard.dto.RealtimeNotification;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BinaryOperator;
+
+/**
+ * トピック単位で通知をまとめて配信するパイプライン
+ *
+ * 通知は宛先ごとのバッファに溜め、window-millis ごとに配列1件として送信する。
+ * 同じキー（userId・issueId等）の通知がウィンドウ内に重なった場合は合成して1件にまとめるため、
+ * 更新が集中しても購読者への送信数は「トピック数 × ウィンドウ数」に抑えられる。
+ * 配列はここで1回だけJSONのバイト列に変換し、変換済みのメッセージとしてブローカーに渡す
+ * （購読セッション数に関係なくシリアライズは1回で済む）。
+ * 送信したバッチには RealtimeEventLog の連番を振り、STOMPヘッダー seq に付ける
+ * （再接続したクライアントは最後に受け取った連番を送り、取りこぼした分だけを受け取る）。
+ */
+@Component
+@Profile("!lambda")
+public class RealtimeBroadcastPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(RealtimeBroadcastPipeline.class);
+
+    /** バッチの連番を載せるSTOMPヘッダー */
+    public static final String SEQUENCE_HEADER = "seq";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ObjectMapper objectMapper;
+    private final RealtimeEventLog eventLog;
+    private final long windowMillis;
+    private final int maxBatchSize;
+    private final ScheduledExecutorService scheduler;
+    private final List<BatchListener> listeners = new CopyOnWriteArrayList<>();
+    // 連番の順に送信されるよう、連番の採番から送信までを直列にする
+    private final Object sendLock = new Object();
+
+    // 宛先 → (キー → 通知)。挿入順を保ったまま同じキーの通知を置き換える
+    private final Map<String, LinkedHashMap<String, RealtimeNotification>> pending = new LinkedHashMap<>();
+    private long keySequence;
+
+    private final AtomicLong messagesIn = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong itemsOut = new AtomicLong();
+    private final AtomicLong messagesOut = new AtomicLong();
+    private final AtomicLong bytesOut = new AtomicLong();
+
+    public RealtimeBroadcastPipeline(SimpMessagingTemplate messagingTemplate,
+                                     ObjectMapper objectMapper,
+                                     RealtimeEventLog eventLog,
+                                     @Value("${realtime.broadcast.window-millis:100}") long windowMillis,
+                                     @Value("${realtime.broadcast.max-batch-size:200}") int maxBatchSize) {
+        this.messagingTemplate = messagingTemplate;
+        this.objectMapper = objectMapper;
+        this.eventLog = eventLog;
+        this.windowMillis = windowMillis;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        if (windowMillis > 0) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "realtime-broadcast");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.scheduler.scheduleAtFixedRate(this::flushSafely, windowMillis, windowMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.scheduler = null;
+        }
+    }
+
+    /**
+     * 通知を配信待ちに追加する（同じキーの通知は後勝ちで置き換える）
+     *
+     * @param key 合成キー。null の場合は合成せず、そのまま配列に含める
+     */
+    public void submit(String destination, String key, RealtimeNotification notification) {
+        submit(destination, key, notification, (previous, next) -> next);
+    }
+
+    /**
+     * 通知を配信待ちに追加する
+     *
+     * @param merger 同じキーの通知が配信待ちにある場合の合成方法（null を返すと両方とも破棄する）
+     */
+    public void submit(String destination, String key, RealtimeNotification notification,
+                       BinaryOperator<RealtimeNotification> merger) {
+        messagesIn.incrementAndGet();
+        synchronized (pending) {
+            LinkedHashMap<String, RealtimeNotification> buffer =
+                    pending.computeIfAbsent(destination, d -> new LinkedHashMap<>());
+            String bufferKey = key != null ? key : "#" + (keySequence++);
+            RealtimeNotification previous = buffer.get(bufferKey);
+            if (previous == null) {
+                buffer.put(bufferKey, notification);
+            } else {
+                coalesced.incrementAndGet();
+                RealtimeNotification merged = merger.apply(previous, notification);
+                if (merged == null) {
+                    buffer.remove(bufferKey);
+                } else {
+                    buffer.put(bufferKey, merged);
+                }
+            }
+        }
+        if (scheduler == null) {
+            flush();
+        }
+    }
+
+    /**
+     * 配信待ちの通知を宛先ごとに配列で送信する
+     */
+    public void flush() {
+        Map<String, List<RealtimeNotification>> batches = new LinkedHashMap<>();
+        synchronized (pending) {
+            for (Map.Entry<String, LinkedHashMap<String, RealtimeNotification>> entry : pending.entrySet()) {
+                if (!entry.getValue().isEmpty()) {
+                    batches.put(entry.getKey(), new ArrayList<>(entry.getValue().values()));
+                    entry.getValue().clear();
+                }
+            }
+        }
+
+        for (Map.Entry<String, List<RealtimeNotification>> batch : batches.entrySet()) {
+            List<RealtimeNotification> items = batch.getValue();
+            for (int from = 0; from < items.size(); from += maxBatchSize) {
+                List<RealtimeNotification> chunk = items.subList(from, Math.min(items.size(), from + maxBatchSize));
+                byte[] json = serialize(chunk);
+                synchronized (sendLock) {
+                    long sequence = eventLog.append(batch.getKey(), json);
+                    messagingTemplate.send(batch.getKey(), sequencedMessage(json, sequence));
+                    notifyListeners(sequence, batch.getKey(), json);
+                }
+                messagesOut.incrementAndGet();
+                itemsOut.addAndGet(chunk.size());
+            }
+        }
+    }
+
+    /**
+     * STOMP以外の経路（SSE等）に同じバッチを流すためのリスナーを登録する
+     */
+    public void addListener(BatchListener listener) {
+        listeners.add(listener);
+    }
+
+    private void notifyListeners(long sequence, String destination, byte[] json) {
+        for (BatchListener listener : listeners) {
+            try {
+                listener.onBatch(sequence, destination, json);
+            } catch (RuntimeException e) {
+                logger.warn("Realtime broadcast listener failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 特定ユーザー宛ての通知を即時送信する（まとめずに単一オブジェクトで送る）
+     */
+    public void sendToUser(String user, String destination, RealtimeNotification notification) {
+        // SimpMessagingTemplate#convertAndSendToUser と同じ宛先の組み立て
+        String userDestination = messagingTemplate.getUserDestinationPrefix()
+                + StringUtils.replace(user, "/", "%2F")
+                + (destination.startsWith("/") ? destination : "/" + destination);
+        messagingTemplate.send(userDestination, encode(notification));
+    }
+
+    /**
+     * 通知をJSONのバイト列に変換したメッセージを作る
+     * ブローカーはこのメッセージを購読セッション間で共有するため、メッセージコンバーターは通らない
+     */
+    Message<byte[]> encode(Object payload) {
+        return MessageBuilder.withPayload(serialize(payload))
+                .setHeader(MessageHeaders.CONTENT_TYPE, MimeTypeUtils.APPLICATION_JSON)
+                .build();
+    }
+
+    private byte[] serialize(Object payload) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize realtime notification", e);
+        }
+        bytesOut.addAndGet(json.length);
+        return json;
+    }
+
+    /**
+     * 連番を seq ヘッダーに付けたメッセージ（ブローカーがネイティブヘッダーとしてSTOMPフレームに載せる）
+     */
+    static Message<byte[]> sequencedMessage(byte[] json, long sequence) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create();
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        accessor.setNativeHeader(SEQUENCE_HEADER, String.valueOf(sequence));
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(json, accessor.getMessageHeaders());
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            // 送信に失敗してもスケジュールを止めない
+            logger.warn("Realtime broadcast flush failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 配信パイプラインの統計
+     */
+    public Map<String, Object> metrics() {
+        long in = messagesIn.get();
+        long out = messagesOut.get();
+        int pendingCount;
+        synchronized (pending) {
+            pendingCount = pending.values().stream().mapToInt(Map::size).sum();
+        }
+
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("windowMillis", windowMillis);
+        metrics.put("maxBatchSize", maxBatchSize);
+        metrics.put("messagesIn", in);
+        metrics.put("coalesced", coalesced.get());
+        metrics.put("itemsOut", itemsOut.get());
+        metrics.put("messagesOut", out);
+        metrics.put("bytesOut", bytesOut.get());
+        metrics.put("pending", pendingCount);
+        // 送信1件あたりに含まれた通知数（1.0 = まとめる効果なし）
+        metrics.put("coalescingRatio", out > 0 ? Math.round((double) in / out * 100.0) / 100.0 : 0.0);
+        return metrics;
+    }
+
+    /**
+     * 送信済みバッチの受け取り口（json は購読者に送ったものと同じバイト列。変更しないこと）
+     * sequence の順に呼び出される
+     */
+    @FunctionalInterface
+    public interface BatchListener {
+        void onBatch(long sequence, String destination, byte[] json);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        flushSafely();
+    }
+}
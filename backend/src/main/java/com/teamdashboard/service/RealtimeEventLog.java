@@ -0,0 +1,275 @@
+package com.teamdashboard.service;
+
+import com.teamdashboard.entity.dynamodb.TeamDashboardItem;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 配信したリアルタイム通知（宛先ごとのバッチ）に連番を振って残すイベントログ
+ *
+ * 連番は全宛先で共通の単調増加の番号で、STOMPメッセージの seq ヘッダーとSSEのイベントIDに使う。
+ * 再接続したクライアントは最後に受け取った連番を送り、それより後のバッチだけを受け取る。
+ * 直近のバッチはメモリのリングバッファに、persist=true の場合はTeamDashboardテーブルにも残す
+ * （リングバッファから溢れた分をテーブルから再送できる。書き込みは配信と非同期）。
+ * 連番は起動時刻から始めて再起動前の連番と重ならないようにする。テーブルへの書き込みは捨てることがあり、
+ * 最後に残っている連番が再起動前に振った最後の連番とは限らないため、テーブルに残している場合も同じ
+ * （再起動をまたいだ再送はできず、再起動前の連番を送ってきたクライアントには取りこぼしとして再読み込みを促す）。
+ */
+@Component
+@Profile("!lambda")
+public class RealtimeEventLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(RealtimeEventLog.class);
+
+    private static final String PARTITION_KEY = "EVENTLOG";
+    private static final String ITEM_TYPE = "EVENT";
+
+    private final EventRingBuffer<Event> buffer;
+    private final int maxReplay;
+    private final DynamoDbTable<TeamDashboardItem> table;
+    private final long retentionSeconds;
+    private final ThreadPoolExecutor writer;
+
+    private final AtomicLong persisted = new AtomicLong();
+    private final AtomicLong persistDropped = new AtomicLong();
+    private final AtomicLong persistFailures = new AtomicLong();
+    private final AtomicLong replayedFromMemory = new AtomicLong();
+    private final AtomicLong replayedFromTable = new AtomicLong();
+    private final AtomicLong gaps = new AtomicLong();
+
+    @Autowired
+    public RealtimeEventLog(ObjectProvider<DynamoDbEnhancedClient> enhancedClient,
+                            @Value("${realtime.event-log.buffer-size:1024}") int bufferSize,
+                            @Value("${realtime.event-log.max-replay:1000}") int maxReplay,
+                            @Value("${realtime.event-log.persist:false}") boolean persist,
+                            @Value("${realtime.event-log.retention-seconds:86400}") long retentionSeconds,
+                            @Value("${dynamodb.table.name:TeamDashboard}") String tableName) {
+        this.maxReplay = maxReplay;
+        this.retentionSeconds = retentionSeconds;
+        if (persist) {
+            this.table = enhancedClient.getObject().table(tableName, TableSchema.fromBean(TeamDashboardItem.class));
+            this.writer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(bufferSize),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "realtime-event-log-writer");
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    // 書き込みが追いつかない場合は配信を止めずに捨てる（メモリのリングバッファには残っている）
+                    (runnable, executor) -> persistDropped.incrementAndGet());
+        } else {
+            this.table = null;
+            this.writer = null;
+        }
+        this.buffer = new EventRingBuffer<>(bufferSize, initialSequence());
+        logger.info("Realtime event log starts at sequence {} (persist={})", buffer.lastId(), persist);
+    }
+
+    /**
+     * メモリだけで保持するイベントログ（ベンチマーク等、Springコンテキスト外で使う）
+     */
+    public RealtimeEventLog(int bufferSize) {
+        this.maxReplay = bufferSize;
+        this.retentionSeconds = 0;
+        this.table = null;
+        this.writer = null;
+        this.buffer = new EventRingBuffer<>(bufferSize, initialSequence());
+    }
+
+    private long initialSequence() {
+        // 1ミリ秒あたり1000件未満であれば、再起動前の連番を超えた位置から始まる（JavaScriptの数値でも正確に扱える範囲）
+        long sequence = System.currentTimeMillis() * 1000;
+        if (table != null) {
+            try {
+                for (TeamDashboardItem item : table.query(QueryEnhancedRequest.builder()
+                        .queryConditional(QueryConditional.keyEqualTo(Key.builder().partitionValue(PARTITION_KEY).build()))
+                        .scanIndexForward(false)
+                        .limit(1)
+                        .build()).items()) {
+                    // 時計が戻った場合でも、テーブルに残っている連番は再発行しない
+                    sequence = Math.max(sequence, Long.parseLong(item.getSk()));
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Failed to read the last persisted event sequence: {}", e.getMessage());
+            }
+        }
+        return sequence;
+    }
+
+    /**
+     * 配信したバッチを記録し、振った連番を返す
+     *
+     * @param json 購読者に送ったものと同じバイト列（変更しないこと）
+     */
+    public long append(String destination, byte[] json) {
+        Event event = new Event(destination, RealtimeTopics.departmentKeyOf(destination), json);
+        long sequence = buffer.append(event);
+        if (writer != null) {
+            writer.execute(() -> persist(sequence, event));
+        }
+        return sequence;
+    }
+
+    /**
+     * lastSequence より後のバッチを古い順に返す
+     *
+     * @return 取りこぼしを埋められない（保持期間外・max-replay 超過・再起動前の連番）場合は null
+     */
+    public List<EventRingBuffer.Entry<Event>> since(long lastSequence) {
+        List<EventRingBuffer.Entry<Event>> entries = buffer.since(lastSequence);
+        if (entries != null) {
+            if (entries.size() > maxReplay) {
+                gaps.incrementAndGet();
+                return null;
+            }
+            replayedFromMemory.addAndGet(entries.size());
+            return entries;
+        }
+        entries = table != null && lastSequence < buffer.lastId() ? readFromTable(lastSequence) : null;
+        if (entries == null) {
+            gaps.incrementAndGet();
+            return null;
+        }
+        replayedFromTable.addAndGet(entries.size());
+        return entries;
+    }
+
+    public long lastSequence() {
+        return buffer.lastId();
+    }
+
+    private void persist(long sequence, Event event) {
+        Instant now = Instant.now();
+        Map<String, Object> data = new HashMap<>();
+        data.put("destination", event.destination());
+        data.put("payload", new String(event.json(), StandardCharsets.UTF_8));
+
+        TeamDashboardItem item = new TeamDashboardItem();
+        item.setPk(PARTITION_KEY);
+        item.setSk(sortKey(sequence));
+        item.setItemType(ITEM_TYPE);
+        item.setData(data);
+        item.setCreatedAt(now);
+        item.setTtl(now.getEpochSecond() + retentionSeconds);
+        try {
+            table.putItem(item);
+            persisted.incrementAndGet();
+        } catch (RuntimeException e) {
+            persistFailures.incrementAndGet();
+            logger.warn("Failed to persist realtime event {}: {}", sequence, e.getMessage());
+        }
+    }
+
+    /**
+     * テーブルから lastSequence より後のバッチを読む（リングバッファに残っている分もテーブルから返す）
+     */
+    private List<EventRingBuffer.Entry<Event>> readFromTable(long lastSequence) {
+        List<EventRingBuffer.Entry<Event>> entries = new ArrayList<>();
+        long expected = lastSequence + 1;
+        try {
+            for (TeamDashboardItem item : table.query(QueryEnhancedRequest.builder()
+                    .queryConditional(QueryConditional.sortGreaterThan(Key.builder()
+                            .partitionValue(PARTITION_KEY)
+                            .sortValue(sortKey(lastSequence))
+                            .build()))
+                    .limit(Math.min(maxReplay + 1, 1000))
+                    .build()).items()) {
+                long sequence = Long.parseLong(item.getSk());
+                // TTLで削除された・書き込みを捨てた番号があれば埋められない
+                if (sequence != expected || entries.size() >= maxReplay) {
+                    return null;
+                }
+                Map<String, Object> data = item.getData();
+                String destination = String.valueOf(data.get("destination"));
+                entries.add(new EventRingBuffer.Entry<>(sequence, new Event(destination,
+                        RealtimeTopics.departmentKeyOf(destination),
+                        String.valueOf(data.get("payload")).getBytes(StandardCharsets.UTF_8))));
+                expected++;
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Failed to read persisted realtime events after {}: {}", lastSequence, e.getMessage());
+            return null;
+        }
+        // テーブルへの書き込みが遅れている分はリングバッファから補う
+        List<EventRingBuffer.Entry<Event>> recent = buffer.since(expected - 1);
+        if (recent == null) {
+            return null;
+        }
+        entries.addAll(recent);
+        return entries.size() <= maxReplay ? entries : null;
+    }
+
+    /**
+     * 数値順と文字列順が一致するよう桁をそろえたソートキー
+     */
+    private static String sortKey(long sequence) {
+        return String.format("%020d", sequence);
+    }
+
+    /**
+     * イベントログの統計
+     */
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("lastSequence", buffer.lastId());
+        metrics.put("bufferedEvents", buffer.size());
+        metrics.put("bufferCapacity", buffer.capacity());
+        metrics.put("maxReplay", maxReplay);
+        metrics.put("persist", table != null);
+        metrics.put("persisted", persisted.get());
+        metrics.put("persistDropped", persistDropped.get());
+        metrics.put("persistFailures", persistFailures.get());
+        metrics.put("replayedFromMemory", replayedFromMemory.get());
+        metrics.put("replayedFromTable", replayedFromTable.get());
+        metrics.put("gaps", gaps.get());
+        return metrics;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (writer != null) {
+            // 書き込み待ちの分はできるだけ残してから終了する
+            writer.shutdown();
+            try {
+                writer.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * 配信したバッチ（宛先、部署トピックの場合の部署キー、購読者に送ったJSON配列）
+     */
+    public record Event(String destination, String departmentKey, byte[] json) {
+
+        /**
+         * 部署キー departmentKey のクライアントが受け取るバッチか（全体トピックはすべてのクライアントが受け取る）
+         */
+        public boolean visibleTo(String departmentKey) {
+            return this.departmentKey == null || this.departmentKey.equals(departmentKey);
+        }
+    }
+}
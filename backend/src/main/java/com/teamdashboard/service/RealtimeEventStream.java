@@ -0,0 +1,414 @@
+package com.teamdashboard.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * リアルタイム通知をServer-Sent Eventsで配信する
+ *
+ * RealtimeBroadcastPipeline が送信したバッチ（JSON配列のバイト列）をそのままSSEのイベントとして流すため、
+ * STOMPの購読者と同じ内容が届く。イベントIDには RealtimeEventLog の連番（STOMPの seq ヘッダーと同じ番号）を使い、
+ * 再接続時の Last-Event-ID 以降をイベントログから再送する。
+ * 部署トピックのイベントは接続時に指定した部署の接続にだけ流す（連番は全体で共通のため、届かない番号は飛ぶ）。
+ * 配信パイプラインのスレッドは接続ごとの送信キュー（queue-capacity 件まで）に積むだけで、
+ * 送信は sender-threads のスレッドが接続ごとに1つずつ順番に行う（遅いクライアントが他の接続やSTOMPの配信を待たせない）。
+ * キューが溢れた場合は overflow=terminate（既定）なら切断し（クライアントは Last-Event-ID を付けて再接続し、
+ * イベントログから再送される）、drop なら古いイベントから破棄する（破棄したイベントは再送されない）。
+ */
+@Component
+@Profile("!lambda")
+public class RealtimeEventStream {
+
+    private static final Logger logger = LoggerFactory.getLogger(RealtimeEventStream.class);
+
+    /** 取りこぼしがありクライアントに再読み込みを促すイベント名 */
+    static final String RESET_EVENT = "reset";
+
+    private final RealtimeEventLog eventLog;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final Object lock = new Object();
+    private final long timeoutMillis;
+    private final int maxConnections;
+    private final int queueCapacity;
+    private final boolean terminateOnOverflow;
+    private final ThreadPoolExecutor sender;
+    private final ScheduledExecutorService heartbeat;
+
+    private final AtomicLong eventsSent = new AtomicLong();
+    private final AtomicLong replayedEvents = new AtomicLong();
+    private final AtomicLong resets = new AtomicLong();
+    private final AtomicLong droppedEvents = new AtomicLong();
+    private final AtomicLong overflowDisconnects = new AtomicLong();
+
+    public RealtimeEventStream(RealtimeBroadcastPipeline broadcastPipeline,
+                               RealtimeEventLog eventLog,
+                               @Value("${realtime.sse.timeout-millis:1800000}") long timeoutMillis,
+                               @Value("${realtime.sse.heartbeat-millis:25000}") long heartbeatMillis,
+                               @Value("${realtime.sse.max-connections:1000}") int maxConnections,
+                               @Value("${realtime.sse.queue-capacity:256}") int queueCapacity,
+                               @Value("${realtime.sse.overflow:terminate}") String overflow,
+                               @Value("${realtime.sse.sender-threads:4}") int senderThreads) {
+        this.eventLog = eventLog;
+        this.timeoutMillis = timeoutMillis;
+        this.maxConnections = maxConnections;
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.terminateOnOverflow = !"drop".equalsIgnoreCase(overflow);
+        // 接続ごとに送信タスクは同時に1つまでのため、待ち行列は接続数を超えない
+        AtomicInteger threadCount = new AtomicInteger();
+        this.sender = new ThreadPoolExecutor(senderThreads, senderThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "realtime-sse-sender-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.sender.allowCoreThreadTimeOut(true);
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "realtime-sse-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // プロキシやロードバランサーにアイドル切断されないようにコメント行を定期送信する
+        this.heartbeat.scheduleAtFixedRate(this::sendHeartbeat, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+        broadcastPipeline.addListener(this::publish);
+    }
+
+    /**
+     * SSE接続を開始する
+     *
+     * @param lastEventId クライアントが最後に受け取ったイベントの連番（初回接続は null）
+     * @param department  部署トピックのうち受け取る部署（未指定の場合は全体トピックのみ）
+     * @return 同時接続数の上限に達している場合は空
+     */
+    public Optional<SseEmitter> subscribe(String lastEventId, String department) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber;
+        // 上限の確認・購読登録と最後の連番の取得を、配信と同じロックでまとめて行う
+        // （ここで見た最後の連番までを再送し、それより後は publish で送信キューに積む）
+        synchronized (lock) {
+            if (subscribers.size() >= maxConnections) {
+                return Optional.empty();
+            }
+            subscriber = new Subscriber(emitter, RealtimeTopics.departmentKey(department), eventLog.lastSequence());
+            subscribers.add(subscriber);
+        }
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+
+        // 再送はロックの外で行う（テーブルからの読み込みで配信を止めない）。
+        // 再送中に publish されたイベントは送信キューに溜まり、再送が終わってから送る
+        try {
+            emitter.send(SseEmitter.event().reconnectTime(3000).comment("connected"));
+            Long lastSeenId = parseEventId(lastEventId);
+            if (lastSeenId != null) {
+                List<EventRingBuffer.Entry<RealtimeEventLog.Event>> missed = eventLog.since(lastSeenId);
+                if (missed == null) {
+                    resets.incrementAndGet();
+                    emitter.send(SseEmitter.event()
+                            .id(String.valueOf(subscriber.replayedThrough))
+                            .name(RESET_EVENT)
+                            .data("{}", MediaType.APPLICATION_JSON));
+                } else {
+                    for (EventRingBuffer.Entry<RealtimeEventLog.Event> entry : missed) {
+                        if (entry.id() > subscriber.replayedThrough) {
+                            break;
+                        }
+                        StreamEvent event = toStreamEvent(entry.event().destination(), entry.event().json());
+                        if (subscriber.accepts(event)) {
+                            send(emitter, entry.id(), event);
+                            replayedEvents.incrementAndGet();
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            subscriber.close();
+            emitter.completeWithError(e);
+            return Optional.of(emitter);
+        }
+        subscriber.startDelivery();
+        return Optional.of(emitter);
+    }
+
+    /**
+     * 配信パイプラインから送信済みのバッチを受け取り、各接続の送信キューに積む
+     * 配信パイプラインのスレッドで呼ばれるため、ここでは送信しない
+     */
+    void publish(long id, String destination, byte[] json) {
+        StreamEvent event = toStreamEvent(destination, json);
+        List<Subscriber> targets;
+        synchronized (lock) {
+            targets = List.copyOf(subscribers);
+        }
+        for (Subscriber subscriber : targets) {
+            // 接続時に再送済みの連番は送らない
+            if (id <= subscriber.replayedThrough || !subscriber.accepts(event)) {
+                continue;
+            }
+            subscriber.enqueue(new Outgoing(id, event));
+        }
+    }
+
+    private static StreamEvent toStreamEvent(String destination, byte[] json) {
+        String topic = RealtimeTopics.baseTopicOf(destination);
+        return new StreamEvent(topic.substring(topic.lastIndexOf('/') + 1),
+                RealtimeTopics.departmentKeyOf(destination), json);
+    }
+
+    private void send(SseEmitter emitter, long id, StreamEvent event) throws IOException {
+        emitter.send(SseEmitter.event()
+                .id(String.valueOf(id))
+                .name(event.name())
+                .data(event.json(), MediaType.APPLICATION_JSON));
+        eventsSent.incrementAndGet();
+    }
+
+    private void sendHeartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.enqueueHeartbeat();
+        }
+    }
+
+    private static Long parseEventId(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            logger.debug("Ignoring invalid Last-Event-ID: {}", lastEventId);
+            return null;
+        }
+    }
+
+    /**
+     * SSE配信の統計
+     */
+    public Map<String, Object> metrics() {
+        int queuedEvents = 0;
+        for (Subscriber subscriber : subscribers) {
+            queuedEvents += subscriber.queuedEvents();
+        }
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("connections", subscribers.size());
+        metrics.put("maxConnections", maxConnections);
+        metrics.put("lastEventId", eventLog.lastSequence());
+        metrics.put("eventsSent", eventsSent.get());
+        metrics.put("replayedEvents", replayedEvents.get());
+        metrics.put("resets", resets.get());
+        metrics.put("queuedEvents", queuedEvents);
+        metrics.put("queueCapacity", queueCapacity);
+        metrics.put("overflow", terminateOnOverflow ? "terminate" : "drop");
+        metrics.put("droppedEvents", droppedEvents.get());
+        metrics.put("overflowDisconnects", overflowDisconnects.get());
+        metrics.put("activeSenders", sender.getActiveCount());
+        return metrics;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        sender.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        subscribers.clear();
+    }
+
+    /**
+     * SSEのイベント名（トピック名）、部署トピックの場合の部署キー、STOMPで送信したものと同じJSON配列
+     */
+    record StreamEvent(String name, String departmentKey, byte[] json) {
+    }
+
+    /**
+     * 送信キューに積むイベント（event が null の場合はハートビートのコメント行）
+     */
+    private record Outgoing(long id, StreamEvent event) {
+
+        static final Outgoing HEARTBEAT = new Outgoing(0, null);
+    }
+
+    /**
+     * SSE接続と、受け取る部署トピックの部署キー、接続時に再送した最後の連番、送信キュー
+     *
+     * 送信キューは sender で1つずつ順番に送る（送信中の接続には送信タスクを重ねて投入しない）。
+     * SseEmitter の send・complete は同じロックを取るため、送信中に切断する場合も complete は送信側のスレッドで呼ぶ。
+     */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final String departmentKey;
+        private final long replayedThrough;
+        private final Deque<Outgoing> queue = new ArrayDeque<>();
+        /** 再送が終わるまでは送信を始めない */
+        private boolean ready;
+        private boolean draining;
+        private boolean closed;
+
+        Subscriber(SseEmitter emitter, String departmentKey, long replayedThrough) {
+            this.emitter = emitter;
+            this.departmentKey = departmentKey;
+            this.replayedThrough = replayedThrough;
+        }
+
+        boolean accepts(StreamEvent event) {
+            return event.departmentKey() == null || event.departmentKey().equals(departmentKey);
+        }
+
+        void enqueue(Outgoing outgoing) {
+            boolean overflowed = false;
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (queue.size() >= queueCapacity) {
+                    if (terminateOnOverflow) {
+                        overflowed = true;
+                    } else {
+                        queue.pollFirst();
+                        droppedEvents.incrementAndGet();
+                    }
+                }
+                if (!overflowed) {
+                    queue.addLast(outgoing);
+                }
+            }
+            if (overflowed) {
+                overflowDisconnects.incrementAndGet();
+                terminate();
+            } else {
+                scheduleDrain();
+            }
+        }
+
+        void enqueueHeartbeat() {
+            synchronized (this) {
+                // 送信待ちのイベントがある場合はそれがアイドル切断を防ぐ
+                if (closed || !queue.isEmpty()) {
+                    return;
+                }
+                queue.addLast(Outgoing.HEARTBEAT);
+            }
+            scheduleDrain();
+        }
+
+        void startDelivery() {
+            synchronized (this) {
+                ready = true;
+            }
+            scheduleDrain();
+        }
+
+        int queuedEvents() {
+            synchronized (this) {
+                return queue.size();
+            }
+        }
+
+        private void scheduleDrain() {
+            synchronized (this) {
+                if (!ready || draining || closed || queue.isEmpty()) {
+                    return;
+                }
+                draining = true;
+            }
+            try {
+                sender.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                // 終了処理中
+                close();
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                Outgoing outgoing;
+                boolean complete;
+                synchronized (this) {
+                    outgoing = closed ? null : queue.pollFirst();
+                    if (outgoing == null) {
+                        draining = false;
+                        complete = closed;
+                    } else {
+                        complete = false;
+                    }
+                }
+                if (outgoing == null) {
+                    if (complete) {
+                        emitter.complete();
+                    }
+                    return;
+                }
+                try {
+                    if (outgoing.event() == null) {
+                        emitter.send(SseEmitter.event().comment("keep-alive"));
+                    } else {
+                        send(emitter, outgoing.id(), outgoing.event());
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    // 切断済みの接続は取り除く
+                    close();
+                    synchronized (this) {
+                        draining = false;
+                    }
+                    return;
+                }
+            }
+        }
+
+        /**
+         * 送信キューが溢れた接続を切断する（クライアントは Last-Event-ID を付けて再接続する）
+         */
+        private void terminate() {
+            boolean idle;
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                idle = !draining;
+                // 送信中の場合は、送信タスクが今のイベントを送り終えた後に complete する
+                draining = true;
+            }
+            close();
+            if (idle) {
+                try {
+                    sender.execute(emitter::complete);
+                } catch (RejectedExecutionException e) {
+                    // 終了処理中（shutdown で complete する）
+                }
+            }
+        }
+
+        void close() {
+            synchronized (this) {
+                closed = true;
+                queue.clear();
+            }
+            subscribers.remove(this);
+        }
+    }
+}
@@ -1,136 +1,159 @@
 package com.teamdashboard.service;
 
+import com.teamdashboard.dto.RealtimeNotification;
+import com.teamdashboard.dto.RealtimeNotification.SystemMessage;
+import com.teamdashboard.dto.RealtimeNotification.TeamIssueUpdate;
+import com.teamdashboard.dto.RealtimeNotification.UserConnectionStatus;
+import com.teamdashboard.dto.RealtimeNotification.WorkloadStatusUpdate;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 
-import java.time.Instant;
-import java.util.HashMap;
-import java.util.Map;
-
 @Service
-public class RealtimeNotificationService {
+@Profile("!lambda")
+public class RealtimeNotificationService implements RealtimeNotificationSink {
+
+    /** 負荷状況・困りごとの変更を DynamoDB Streams から検知して通知するモード */
+    public static final String STREAM_MODE = "stream";
+
+    private final RealtimeBroadcastPipeline broadcastPipeline;
+
+    /**
+     * true: 部署が分かる通知は部署ごとのトピックにだけ送る
+     * false: すべて全体トピックに送る（従来の動作）
+     */
+    private final boolean departmentSharding;
 
-    private final SimpMessagingTemplate messagingTemplate;
+    /**
+     * true: 負荷状況・困りごとの通知は DynamoDbStreamPoller が変更データから送るため、
+     * コントローラーからの notify* 呼び出しでは送らない（二重に届かないようにする）
+     */
+    private final boolean notifiedByStream;
 
     @Autowired
-    public RealtimeNotificationService(SimpMessagingTemplate messagingTemplate) {
-        this.messagingTemplate = messagingTemplate;
+    public RealtimeNotificationService(RealtimeBroadcastPipeline broadcastPipeline,
+                                       @Value("${realtime.topics.department-sharding:true}") boolean departmentSharding,
+                                       @Value("${realtime.change-capture.mode:controller}") String changeCaptureMode) {
+        this.broadcastPipeline = broadcastPipeline;
+        this.departmentSharding = departmentSharding;
+        this.notifiedByStream = STREAM_MODE.equalsIgnoreCase(changeCaptureMode);
     }
 
     /**
-     * 負荷状況の更新を全クライアントに通知
+     * 変更データから作った通知を種類に応じたトピックへ送る
      */
-    public void notifyWorkloadStatusUpdate(String userId, String displayName, String workloadLevel, 
-                                         Integer projectCount, Integer taskCount) {
-        Map<String, Object> notification = new HashMap<>();
-        notification.put("type", "WORKLOAD_STATUS_UPDATE");
-        notification.put("userId", userId);
-        notification.put("displayName", displayName);
-        notification.put("workloadLevel", workloadLevel);
-        notification.put("projectCount", projectCount);
-        notification.put("taskCount", taskCount);
-        notification.put("timestamp", Instant.now().toEpochMilli());
+    @Override
+    public void publish(RealtimeNotification notification) {
+        if (notification instanceof WorkloadStatusUpdate update) {
+            publishWorkloadUpdate(update);
+        } else if (notification instanceof TeamIssueUpdate update) {
+            publishIssueUpdate(update);
+        } else if (notification instanceof UserConnectionStatus status) {
+            broadcastPipeline.submit(RealtimeTopics.USER_STATUS, status.userId(), status);
+        } else {
+            broadcastPipeline.submit(RealtimeTopics.SYSTEM_MESSAGES, null, notification);
+        }
+    }
 
-        // 全クライアントに送信
-        messagingTemplate.convertAndSend("/topic/workload-updates", notification);
-        
-        // 特定ユーザーにも送信（自分の更新確認用）
-        messagingTemplate.convertAndSendToUser(userId, "/queue/workload-updates", notification);
+    /**
+     * 負荷状況の更新を全クライアントに通知
+     */
+    public void notifyWorkloadStatusUpdate(String userId, String displayName, String department,
+                                         String workloadLevel, Integer projectCount, Integer taskCount) {
+        if (notifiedByStream) {
+            return;
+        }
+        publishWorkloadUpdate(
+                WorkloadStatusUpdate.of(userId, displayName, department, workloadLevel, projectCount, taskCount));
     }
 
     /**
      * 困りごとの投稿を全クライアントに通知
      */
-    public void notifyTeamIssueCreated(String issueId, String userId, String displayName, 
+    public void notifyTeamIssueCreated(String issueId, String userId, String displayName, String department,
                                      String content, String priority) {
-        Map<String, Object> notification = new HashMap<>();
-        notification.put("type", "TEAM_ISSUE_CREATED");
-        notification.put("issueId", issueId);
-        notification.put("userId", userId);
-        notification.put("displayName", displayName);
-        notification.put("content", content);
-        notification.put("priority", priority);
-        notification.put("status", "OPEN");
-        notification.put("timestamp", Instant.now().toEpochMilli());
-
-        // 全クライアントに送信
-        messagingTemplate.convertAndSend("/topic/issue-updates", notification);
+        notifyIssueUpdate(TeamIssueUpdate.of(TeamIssueUpdate.CREATED, issueId, userId, displayName, department,
+                content, priority, "OPEN"));
     }
 
     /**
      * 困りごとの解決を全クライアントに通知
      */
-    public void notifyTeamIssueResolved(String issueId, String userId, String displayName) {
-        Map<String, Object> notification = new HashMap<>();
-        notification.put("type", "TEAM_ISSUE_RESOLVED");
-        notification.put("issueId", issueId);
-        notification.put("userId", userId);
-        notification.put("displayName", displayName);
-        notification.put("status", "RESOLVED");
-        notification.put("timestamp", Instant.now().toEpochMilli());
-
-        // 全クライアントに送信
-        messagingTemplate.convertAndSend("/topic/issue-updates", notification);
+    public void notifyTeamIssueResolved(String issueId, String userId, String displayName, String department) {
+        notifyIssueUpdate(TeamIssueUpdate.of(TeamIssueUpdate.RESOLVED, issueId, userId, displayName, department,
+                null, null, "RESOLVED"));
     }
 
     /**
      * 困りごとの再オープンを全クライアントに通知
      */
-    public void notifyTeamIssueReopened(String issueId, String userId, String displayName) {
-        Map<String, Object> notification = new HashMap<>();
-        notification.put("type", "TEAM_ISSUE_REOPENED");
-        notification.put("issueId", issueId);
-        notification.put("userId", userId);
-        notification.put("displayName", displayName);
-        notification.put("status", "OPEN");
-        notification.put("timestamp", Instant.now().toEpochMilli());
-
-        // 全クライアントに送信
-        messagingTemplate.convertAndSend("/topic/issue-updates", notification);
+    public void notifyTeamIssueReopened(String issueId, String userId, String displayName, String department) {
+        notifyIssueUpdate(TeamIssueUpdate.of(TeamIssueUpdate.REOPENED, issueId, userId, displayName, department,
+                null, null, "OPEN"));
     }
 
     /**
      * 困りごとの削除を全クライアントに通知
      */
-    public void notifyTeamIssueDeleted(String issueId, String userId, String displayName) {
-        Map<String, Object> notification = new HashMap<>();
-        notification.put("type", "TEAM_ISSUE_DELETED");
-        notification.put("issueId", issueId);
-        notification.put("userId", userId);
-        notification.put("displayName", displayName);
-        notification.put("timestamp", Instant.now().toEpochMilli());
-
-        // 全クライアントに送信
-        messagingTemplate.convertAndSend("/topic/issue-updates", notification);
+    public void notifyTeamIssueDeleted(String issueId, String userId, String displayName, String department) {
+        notifyIssueUpdate(TeamIssueUpdate.of(TeamIssueUpdate.DELETED, issueId, userId, displayName, department,
+                null, null, null));
     }
 
     /**
      * システム通知を全クライアントに送信
      */
     public void notifySystemMessage(String message, String type) {
-        Map<String, Object> notification = new HashMap<>();
-        notification.put("type", "SYSTEM_MESSAGE");
-        notification.put("message", message);
-        notification.put("messageType", type); // INFO, WARNING, ERROR
-        notification.put("timestamp", Instant.now().toEpochMilli());
-
-        // 全クライアントに送信
-        messagingTemplate.convertAndSend("/topic/system-messages", notification);
+        // 全クライアントに送信（システム通知はまとめずにすべて届ける）
+        broadcastPipeline.submit(RealtimeTopics.SYSTEM_MESSAGES, null, SystemMessage.of(message, type)); // INFO, WARNING, ERROR
     }
 
     /**
      * 接続状況の通知（ユーザーのオンライン/オフライン）
      */
     public void notifyUserConnectionStatus(String userId, String displayName, boolean isOnline) {
-        Map<String, Object> notification = new HashMap<>();
-        notification.put("type", "USER_CONNECTION_STATUS");
-        notification.put("userId", userId);
-        notification.put("displayName", displayName);
-        notification.put("isOnline", isOnline);
-        notification.put("timestamp", Instant.now().toEpochMilli());
-
         // 全クライアントに送信
-        messagingTemplate.convertAndSend("/topic/user-status", notification);
+        broadcastPipeline.submit(RealtimeTopics.USER_STATUS, userId,
+                UserConnectionStatus.of(userId, displayName, isOnline));
+    }
+
+    private void publishWorkloadUpdate(WorkloadStatusUpdate notification) {
+        // 部署（未設定なら全体）のクライアントに送信（同じユーザーの連続更新は最新の1件にまとめる）
+        broadcastPipeline.submit(topicFor(RealtimeTopics.WORKLOAD_UPDATES, notification.department()),
+                notification.userId(), notification);
+
+        // 特定ユーザーにも送信（自分の更新確認用）
+        broadcastPipeline.sendToUser(notification.userId(), "/queue/workload-updates", notification);
+    }
+
+    private void notifyIssueUpdate(TeamIssueUpdate notification) {
+        if (!notifiedByStream) {
+            publishIssueUpdate(notification);
+        }
+    }
+
+    private void publishIssueUpdate(TeamIssueUpdate notification) {
+        // 部署（未設定なら全体）のクライアントに送信
+        broadcastPipeline.submit(topicFor(RealtimeTopics.ISSUE_UPDATES, notification.department()),
+                notification.issueId(), notification, RealtimeNotificationService::mergeIssueNotification);
+    }
+
+    private String topicFor(String topic, String department) {
+        return departmentSharding ? RealtimeTopics.forDepartment(topic, department) : topic;
+    }
+
+    /**
+     * 同じ困りごとの通知が同一ウィンドウ内に重なった場合の合成
+     * 投稿直後の解決・再オープンは「投稿」のまま状態だけ反映し、投稿直後の削除は両方とも送らない
+     */
+    static RealtimeNotification mergeIssueNotification(RealtimeNotification previous, RealtimeNotification next) {
+        if (!TeamIssueUpdate.CREATED.equals(previous.type())) {
+            return next;
+        }
+        if (TeamIssueUpdate.DELETED.equals(next.type())) {
+            return null;
+        }
+        return ((TeamIssueUpdate) previous).withStatus(((TeamIssueUpdate) next).status(), next.timestamp());
     }
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.teamdashboard.service;
+
+import com.teamdashboard.dto.RealtimeNotification;
+
+import java.util.List;
+
+/**
+ * 変更データ（DynamoDB Streams）から作った通知の送り先
+ *
+ * 常駐サーバーでは RealtimeNotificationService が部署トピック等へ振り分けて配信する。
+ * Lambda ではSTOMPブローカーがないため、API Gateway WebSocket の接続へ直接送る実装を使う。
+ */
+public interface RealtimeNotificationSink {
+
+    void publish(RealtimeNotification notification);
+
+    /**
+     * 複数の通知をまとめて送る（ストリームのバッチ単位）。送信をまとめられる実装はオーバーライドする
+     */
+    default void publishAll(List<RealtimeNotification> notifications) {
+        notifications.forEach(this::publish);
+    }
+}
@@ -0,0 +1,66 @@
+package com.teamdashboard.service;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * リアルタイム通知の宛先（トピック）名
+ *
+ * 部署が分かる通知は部署ごとのトピック（例: /topic/workload-updates.dept.development）に送り、
+ * 同じ部署の購読者にだけ配信する。部署名はURLエンコードして宛先に埋め込むため、
+ * 日本語の部署名でもSTOMPの宛先・外部ブローカーのルーティングキーとして使える。
+ */
+public final class RealtimeTopics {
+
+    public static final String WORKLOAD_UPDATES = "/topic/workload-updates";
+    public static final String ISSUE_UPDATES = "/topic/issue-updates";
+    public static final String SYSTEM_MESSAGES = "/topic/system-messages";
+    public static final String USER_STATUS = "/topic/user-status";
+
+    /** 部署トピックの区切り（/topic/workload-updates.dept.{部署}） */
+    static final String DEPARTMENT_SEPARATOR = ".dept.";
+
+    private RealtimeTopics() {
+    }
+
+    /**
+     * 部署トピックの宛先。部署が未設定の場合は全体トピックを返す
+     */
+    public static String forDepartment(String topic, String department) {
+        String key = departmentKey(department);
+        return key == null ? topic : topic + DEPARTMENT_SEPARATOR + key;
+    }
+
+    /**
+     * 宛先に埋め込む部署キー（前後の空白を除き小文字にしてURLエンコードしたもの）
+     * ワイルドカードと区別できるよう * もエンコードする（realtime-client.js の departmentKey と同じ規則）
+     *
+     * @return 部署が未設定の場合は null
+     */
+    public static String departmentKey(String department) {
+        if (department == null || department.isBlank()) {
+            return null;
+        }
+        return URLEncoder.encode(department.trim().toLowerCase(Locale.ROOT), StandardCharsets.UTF_8)
+                .replace("*", "%2A");
+    }
+
+    /**
+     * 部署トピックの部署キー
+     *
+     * @return 全体トピックの場合は null
+     */
+    public static String departmentKeyOf(String destination) {
+        int index = destination.indexOf(DEPARTMENT_SEPARATOR);
+        return index < 0 ? null : destination.substring(index + DEPARTMENT_SEPARATOR.length());
+    }
+
+    /**
+     * 部署を除いたトピック（/topic/workload-updates.dept.xxx → /topic/workload-updates）
+     */
+    public static String baseTopicOf(String destination) {
+        int index = destination.indexOf(DEPARTMENT_SEPARATOR);
+        return index < 0 ? destination : destination.substring(0, index);
+    }
+}
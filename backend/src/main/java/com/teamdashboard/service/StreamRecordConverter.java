@@ -0,0 +1,198 @@
+package com.teamdashboard.service;
+
+import com.teamdashboard.dto.RealtimeNotification;
+import com.teamdashboard.dto.RealtimeNotification.TeamIssueUpdate;
+import com.teamdashboard.dto.RealtimeNotification.WorkloadStatusUpdate;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * DynamoDB Streams のレコード（変更前後のイメージ）をリアルタイム通知に変換する
+ *
+ * 対象は次の2種類のテーブル形式:
+ *   TeamDashboard テーブル（単一テーブル設計）… ItemType が WORKLOAD / ISSUE の項目の Data 属性
+ *   WorkloadStatus / TeamIssue テーブル … 項目の属性そのもの
+ * 通知に影響しない変更（コメントの追加、負荷状況のコメントだけの更新等）は変換しない。
+ * ストリームの StreamViewType は NEW_AND_OLD_IMAGES を前提とする（変更前のイメージで状態の遷移を判定する）。
+ */
+public final class StreamRecordConverter {
+
+    public static final String INSERT = "INSERT";
+    public static final String MODIFY = "MODIFY";
+    public static final String REMOVE = "REMOVE";
+
+    private static final String ITEM_TYPE = "ItemType";
+    private static final String DATA = "Data";
+
+    private StreamRecordConverter() {
+    }
+
+    /**
+     * @param eventName INSERT / MODIFY / REMOVE
+     * @param oldImage  変更前の項目（INSERT の場合は null）
+     * @param newImage  変更後の項目（REMOVE の場合は null）
+     * @return 通知に変換しない変更の場合は空
+     */
+    public static Optional<RealtimeNotification> convert(String eventName, Map<String, Object> oldImage,
+                                                         Map<String, Object> newImage) {
+        Map<String, Object> image = newImage != null ? newImage : oldImage;
+        if (image == null) {
+            return Optional.empty();
+        }
+        Object itemType = image.get(ITEM_TYPE);
+        if (itemType != null) {
+            // 単一テーブル設計: 項目の内容は Data 属性に入っている
+            Map<String, Object> oldData = dataOf(oldImage);
+            Map<String, Object> newData = dataOf(newImage);
+            if ("WORKLOAD".equals(itemType)) {
+                return convertWorkload(eventName, oldData, newData);
+            }
+            if ("ISSUE".equals(itemType)) {
+                return convertIssue(eventName, oldData, newData);
+            }
+            return Optional.empty();
+        }
+        if (image.containsKey("issueId")) {
+            return convertIssue(eventName, oldImage, newImage);
+        }
+        if (image.containsKey("userId") && image.containsKey("workloadLevel")) {
+            return convertWorkload(eventName, oldImage, newImage);
+        }
+        return Optional.empty();
+    }
+
+    private static Optional<RealtimeNotification> convertWorkload(String eventName, Map<String, Object> oldImage,
+                                                                  Map<String, Object> newImage) {
+        if (REMOVE.equals(eventName) || newImage == null) {
+            return Optional.empty();
+        }
+        if (MODIFY.equals(eventName) && oldImage != null
+                && sameValues(oldImage, newImage, "displayName", "department", "workloadLevel", "projectCount", "taskCount")) {
+            return Optional.empty();
+        }
+        return Optional.of(WorkloadStatusUpdate.of(
+                string(newImage, "userId"), string(newImage, "displayName"), string(newImage, "department"),
+                string(newImage, "workloadLevel"), integer(newImage, "projectCount"), integer(newImage, "taskCount")));
+    }
+
+    private static Optional<RealtimeNotification> convertIssue(String eventName, Map<String, Object> oldImage,
+                                                               Map<String, Object> newImage) {
+        if (INSERT.equals(eventName) && newImage != null) {
+            return Optional.of(TeamIssueUpdate.of(TeamIssueUpdate.CREATED, string(newImage, "issueId"),
+                    string(newImage, "userId"), string(newImage, "displayName"), string(newImage, "department"),
+                    string(newImage, "content"), string(newImage, "priority"), string(newImage, "status")));
+        }
+        if (REMOVE.equals(eventName) && oldImage != null) {
+            return Optional.of(TeamIssueUpdate.of(TeamIssueUpdate.DELETED, string(oldImage, "issueId"),
+                    string(oldImage, "userId"), string(oldImage, "displayName"), string(oldImage, "department"),
+                    null, null, null));
+        }
+        if (!MODIFY.equals(eventName) || oldImage == null || newImage == null) {
+            return Optional.empty();
+        }
+        String oldStatus = string(oldImage, "status");
+        String newStatus = string(newImage, "status");
+        String type;
+        if ("RESOLVED".equals(newStatus) && !"RESOLVED".equals(oldStatus)) {
+            type = TeamIssueUpdate.RESOLVED;
+        } else if ("RESOLVED".equals(oldStatus) && "OPEN".equals(newStatus)) {
+            type = TeamIssueUpdate.REOPENED;
+        } else {
+            return Optional.empty();
+        }
+        return Optional.of(TeamIssueUpdate.of(type, string(newImage, "issueId"), string(newImage, "userId"),
+                string(newImage, "displayName"), string(newImage, "department"), null, null, newStatus));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> dataOf(Map<String, Object> image) {
+        return image != null && image.get(DATA) instanceof Map<?, ?> data ? (Map<String, Object>) data : null;
+    }
+
+    private static boolean sameValues(Map<String, Object> oldImage, Map<String, Object> newImage, String... names) {
+        for (String name : names) {
+            if (!Objects.equals(oldImage.get(name), newImage.get(name))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String string(Map<String, Object> image, String name) {
+        Object value = image.get(name);
+        return value != null ? value.toString() : null;
+    }
+
+    private static Integer integer(Map<String, Object> image, String name) {
+        Object value = image.get(name);
+        if (value instanceof Number number) {
+            return number.intValue();
+        }
+        return value != null ? Integer.valueOf(value.toString()) : null;
+    }
+
+    /**
+     * AWS SDK（DynamoDB Streams API）の属性値をJavaの値に変換する
+     */
+    public static Map<String, Object> toMap(Map<String, AttributeValue> attributes) {
+        if (attributes == null || attributes.isEmpty()) {
+            return null;
+        }
+        Map<String, Object> map = new LinkedHashMap<>();
+        attributes.forEach((name, value) -> map.put(name, toValue(value)));
+        return map;
+    }
+
+    private static Object toValue(AttributeValue value) {
+        if (value.s() != null) {
+            return value.s();
+        }
+        if (value.n() != null) {
+            return number(value.n());
+        }
+        if (value.bool() != null) {
+            return value.bool();
+        }
+        if (value.hasM()) {
+            return toMap(value.m());
+        }
+        if (value.hasL()) {
+            List<Object> list = new ArrayList<>();
+            value.l().forEach(element -> list.add(toValue(element)));
+            return list;
+        }
+        if (value.hasSs()) {
+            return new ArrayList<>(value.ss());
+        }
+        if (value.hasNs()) {
+            List<Object> list = new ArrayList<>();
+            value.ns().forEach(element -> list.add(number(element)));
+            return list;
+        }
+        // NULL とバイナリは通知に使わない
+        return null;
+    }
+
+    /**
+     * 数値属性を Integer / Long / BigDecimal のうち表現できる最小の型にする
+     */
+    public static Object number(String value) {
+        BigDecimal decimal = new BigDecimal(value);
+        if (decimal.scale() <= 0 || decimal.stripTrailingZeros().scale() <= 0) {
+            try {
+                long longValue = decimal.longValueExact();
+                return longValue >= Integer.MIN_VALUE && longValue <= Integer.MAX_VALUE ? (Object) (int) longValue : longValue;
+            } catch (ArithmeticException e) {
+                return decimal;
+            }
+        }
+        return decimal;
+    }
+}
@@ -38,10 +38,12 @@ public class TeamIssueService {
         return teamIssueRepository.findByIssueId(issueId);
     }
 
-    public TeamIssue createTeamIssue(String userId, String displayName, String content, String priority) {
+    public TeamIssue createTeamIssue(String userId, String displayName, String department,
+                                     String content, String priority) {
         TeamIssue teamIssue = new TeamIssue();
         teamIssue.setUserId(userId);
         teamIssue.setDisplayName(displayName);
+        teamIssue.setDepartment(department);
         teamIssue.setContent(content);
         teamIssue.setPriority(priority != null ? priority : "MEDIUM");
         teamIssue.setStatus("OPEN");
@@ -0,0 +1,159 @@
+package com.teamdashboard.service;
+
+import com.teamdashboard.dto.WorkloadTrendResponse;
+import com.teamdashboard.entity.DailyReport;
+import com.teamdashboard.entity.RollupPeriod;
+import com.teamdashboard.entity.RollupScope;
+import com.teamdashboard.entity.User;
+import com.teamdashboard.entity.WorkloadRollup;
+import com.teamdashboard.repository.DailyReportRepository;
+import com.teamdashboard.repository.WorkloadRollupRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * 日報の負荷レベルをユーザー・部署ごと、日・週ごとに集計する
+ *
+ * 集計は日報の投稿・変更・削除と同じトランザクションで件数を増減して更新する
+ * （日報が取り消されれば集計の更新も取り消される）。傾向の問い合わせは集計だけを読み、日報は走査しない。
+ * 部署は集計を更新する時点のユーザーの部署で集計し、部署が未設定の場合は部署の集計に含めない（日報には部署を残さない）。
+ * ユーザーの部署を変えると、変更前に書いた日報の削除・負荷レベルの変更は新しい部署の集計から増減され、
+ * 元の部署の集計には残ったままになる。部署を変えた場合は POST /reports/trends/rebuild で対象期間の集計を作り直すこと
+ * （作り直した集計では、過去の日報も現在の部署で集計される）。
+ */
+@Service
+@Profile("!lambda")
+@Transactional
+public class WorkloadRollupService {
+
+    private final WorkloadRollupRepository rollupRepository;
+    private final DailyReportRepository dailyReportRepository;
+
+    @Autowired
+    public WorkloadRollupService(WorkloadRollupRepository rollupRepository,
+                                 DailyReportRepository dailyReportRepository) {
+        this.rollupRepository = rollupRepository;
+        this.dailyReportRepository = dailyReportRepository;
+    }
+
+    /**
+     * 投稿された日報を集計に加える
+     */
+    public void add(DailyReport report) {
+        apply(report.getUser(), report.getReportDate(), report.getWorkloadLevel(), 1);
+    }
+
+    /**
+     * 削除する日報を集計から除く
+     */
+    public void remove(DailyReport report) {
+        apply(report.getUser(), report.getReportDate(), report.getWorkloadLevel(), -1);
+    }
+
+    /**
+     * 負荷レベルが previousLevel から変わった日報の集計を付け替える
+     */
+    public void changeLevel(DailyReport report, Integer previousLevel) {
+        if (Objects.equals(previousLevel, report.getWorkloadLevel())) {
+            return;
+        }
+        apply(report.getUser(), report.getReportDate(), previousLevel, -1);
+        apply(report.getUser(), report.getReportDate(), report.getWorkloadLevel(), 1);
+    }
+
+    /**
+     * 期間の開始日が from～to の集計を返す（日報が0件の期間は含めない）
+     * @param key ユーザー名または部署名（null の場合はすべて）
+     */
+    @Transactional(readOnly = true)
+    public List<WorkloadTrendResponse> getTrends(RollupScope scope, String key, RollupPeriod period,
+                                                 LocalDate from, LocalDate to) {
+        LocalDate start = period.startOf(from);
+        List<WorkloadRollup> rollups = key == null || key.isBlank()
+                ? rollupRepository.findByScopeAndPeriodAndPeriodStartBetweenOrderByScopeKeyAscPeriodStartAsc(
+                        scope, period, start, to)
+                : rollupRepository.findByScopeAndScopeKeyAndPeriodAndPeriodStartBetweenOrderByPeriodStartAsc(
+                        scope, key, period, start, to);
+        return rollups.stream()
+                .filter(rollup -> rollup.getReportCount() > 0)
+                .map(WorkloadTrendResponse::of)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * from～to を含む週（月曜～日曜）の集計を日報から作り直す
+     * 集計を導入する前の日報の取り込みや、ユーザーの部署を変えた後の補正に使う（部署は各ユーザーの現在の部署）
+     * @return 作成した集計の件数
+     */
+    public int rebuild(LocalDate from, LocalDate to) {
+        LocalDate start = RollupPeriod.WEEK.startOf(from);
+        LocalDate end = RollupPeriod.WEEK.startOf(to).plusDays(6);
+        rollupRepository.deleteByPeriodStartBetween(start, end);
+
+        Map<RollupKey, WorkloadRollup> rollups = new LinkedHashMap<>();
+        for (Object[] row : dailyReportRepository.countWorkloadLevels(start, end)) {
+            String username = (String) row[0];
+            String department = departmentOf((String) row[1]);
+            LocalDate date = (LocalDate) row[2];
+            int level = ((Number) row[3]).intValue();
+            long count = ((Number) row[4]).longValue();
+            if (!isValidLevel(level)) {
+                continue;
+            }
+            for (RollupPeriod period : RollupPeriod.values()) {
+                rollupOf(rollups, new RollupKey(RollupScope.USER, username, period, period.startOf(date))).add(level, count);
+                if (department != null) {
+                    rollupOf(rollups, new RollupKey(RollupScope.DEPARTMENT, department, period, period.startOf(date)))
+                            .add(level, count);
+                }
+            }
+        }
+        rollupRepository.saveAll(rollups.values());
+        return rollups.size();
+    }
+
+    private void apply(User user, LocalDate date, Integer level, long delta) {
+        if (date == null || level == null || !isValidLevel(level)) {
+            return;
+        }
+        String department = departmentOf(user.getDepartment());
+        LocalDate week = RollupPeriod.WEEK.startOf(date);
+        if (delta > 0) {
+            // まだない集計の作成と加算を1文で行う（日報の保存と同じトランザクション・コネクションで実行する）
+            rollupRepository.addReport(user.getUsername(), department, date, week, level);
+        } else {
+            rollupRepository.increment(user.getUsername(), department, date, week, level, delta);
+        }
+    }
+
+    private static WorkloadRollup rollupOf(Map<RollupKey, WorkloadRollup> rollups, RollupKey key) {
+        return rollups.computeIfAbsent(key, RollupKey::newRollup);
+    }
+
+    private static String departmentOf(String department) {
+        return department == null || department.isBlank() ? null : department;
+    }
+
+    private static boolean isValidLevel(int level) {
+        return level >= 1 && level <= WorkloadRollup.MAX_LEVEL;
+    }
+
+    /**
+     * 集計の一意キー
+     */
+    private record RollupKey(RollupScope scope, String key, RollupPeriod period, LocalDate periodStart) {
+
+        WorkloadRollup newRollup() {
+            return new WorkloadRollup(scope, key, period, periodStart);
+        }
+    }
+}
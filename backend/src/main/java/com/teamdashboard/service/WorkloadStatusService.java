@@ -26,7 +26,7 @@ public class WorkloadStatusService {
         return workloadStatusRepository.findByUserId(userId);
     }
 
-    public WorkloadStatus createOrUpdateWorkloadStatus(String userId, String displayName, 
+    public WorkloadStatus createOrUpdateWorkloadStatus(String userId, String displayName, String department,
                                                       String workloadLevel, Integer projectCount, 
                                                       Integer taskCount, String comment) {
         WorkloadStatus workloadStatus = workloadStatusRepository.findByUserId(userId)
@@ -34,6 +34,10 @@ public class WorkloadStatusService {
         
         workloadStatus.setUserId(userId);
         workloadStatus.setDisplayName(displayName);
+        // 部署の指定がない更新では登録済みの部署を引き継ぐ
+        if (department != null && !department.isBlank()) {
+            workloadStatus.setDepartment(department);
+        }
         workloadStatus.setWorkloadLevel(workloadLevel);
         workloadStatus.setProjectCount(projectCount);
         workloadStatus.setTaskCount(taskCount);
@@ -6,20 +6,20 @@ INSERT INTO users (username, password, email, display_name, department, created_
 ('tanaka', 'password123', 'tanaka@example.com', 'Tanaka Jiro', 'Development', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
 
 -- Sample daily reports
-INSERT INTO daily_reports (user_id, report_date, work_content, insights, issues, workload_level, created_at, updated_at) VALUES
-((SELECT id FROM users WHERE username = 'yamada'), CURRENT_DATE, 
+INSERT INTO daily_reports (id, user_id, report_date, work_content, insights, issues, workload_level, created_at, updated_at) VALUES
+(nextval('daily_reports_seq'), (SELECT id FROM users WHERE username = 'yamada'), CURRENT_DATE, 
  'Implemented user authentication feature. Had some trouble with Spring Security configuration, but basic functionality is complete.', 
  'Gained deeper understanding of Spring Security configuration methods.', 
  'Complex authorization rule implementation is taking time.', 
  3, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
 
-((SELECT id FROM users WHERE username = 'suzuki'), CURRENT_DATE, 
+(nextval('daily_reports_seq'), (SELECT id FROM users WHERE username = 'suzuki'), CURRENT_DATE, 
  'Improved UI design and responsive support. Spent time adjusting mobile display.', 
  'Using CSS Grid enabled more flexible layouts.', 
  NULL, 
  2, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
 
-((SELECT id FROM users WHERE username = 'tanaka'), CURRENT_DATE, 
+(nextval('daily_reports_seq'), (SELECT id FROM users WHERE username = 'tanaka'), CURRENT_DATE, 
  'Reviewed database design and improved performance. Adding indexes significantly improved speed.', 
  'Recognized the importance of checking query execution plans.', 
  'Complex JOIN query optimization is difficult and needs more time.', 
@@ -0,0 +1,86 @@
+-- 初期スキーマ（ddl-auto: update で作っていたときと同じ定義）
+-- ddl-auto で作成済みのデータベースでも流せるように、既にあるものは作らない
+
+CREATE SEQUENCE IF NOT EXISTS daily_reports_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS workload_rollups_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS users (
+    id bigserial NOT NULL,
+    username varchar(255) UNIQUE,
+    password varchar(255),
+    email varchar(255) UNIQUE,
+    display_name varchar(255),
+    department varchar(255),
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS daily_reports (
+    id bigint NOT NULL,
+    user_id bigint NOT NULL,
+    report_date date,
+    work_content TEXT,
+    insights TEXT,
+    issues TEXT,
+    workload_level integer,
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_daily_reports_user_id FOREIGN KEY (user_id) REFERENCES users
+);
+
+CREATE TABLE IF NOT EXISTS team_issues (
+    id bigserial NOT NULL,
+    user_id bigint NOT NULL,
+    content TEXT NOT NULL,
+    status varchar(255) NOT NULL CHECK (status IN ('OPEN', 'RESOLVED')),
+    created_at timestamp(6) NOT NULL,
+    resolved_at timestamp(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_team_issues_user_id FOREIGN KEY (user_id) REFERENCES users
+);
+
+CREATE TABLE IF NOT EXISTS issue_comments (
+    id bigserial NOT NULL,
+    issue_id bigint NOT NULL,
+    user_id bigint NOT NULL,
+    content TEXT NOT NULL,
+    created_at timestamp(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_issue_comments_issue_id FOREIGN KEY (issue_id) REFERENCES team_issues,
+    CONSTRAINT fk_issue_comments_user_id FOREIGN KEY (user_id) REFERENCES users
+);
+
+CREATE TABLE IF NOT EXISTS workload_status (
+    id bigserial NOT NULL,
+    user_id bigint NOT NULL,
+    workload_level varchar(255) NOT NULL CHECK (workload_level IN ('LOW', 'MEDIUM', 'HIGH')),
+    project_count integer,
+    task_count integer,
+    updated_at timestamp(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_workload_status_user_id FOREIGN KEY (user_id) REFERENCES users
+);
+
+CREATE TABLE IF NOT EXISTS workload_rollups (
+    id bigint NOT NULL,
+    scope varchar(16) NOT NULL CHECK (scope IN ('USER', 'DEPARTMENT')),
+    scope_key varchar(255) NOT NULL,
+    period varchar(8) NOT NULL CHECK (period IN ('DAY', 'WEEK')),
+    period_start date NOT NULL,
+    level1_count bigint NOT NULL,
+    level2_count bigint NOT NULL,
+    level3_count bigint NOT NULL,
+    level4_count bigint NOT NULL,
+    level5_count bigint NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_workload_rollups_key UNIQUE (scope, scope_key, period, period_start)
+);
+
+CREATE INDEX IF NOT EXISTS idx_daily_reports_report_date_id ON daily_reports (report_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_issue_comments_issue_id ON issue_comments (issue_id);
+
+CREATE INDEX IF NOT EXISTS idx_workload_rollups_period_start ON workload_rollups (scope, period, period_start);
@@ -0,0 +1,9 @@
+-- 日報・集計のIDはシーケンスから50件ずつ確保する（DailyReport / WorkloadRollup の allocationSize）
+-- IDENTITY で採番していたころのデータベースでは、既存のIDと重ならないようにシーケンスを進める
+-- （既に先まで進んでいるシーケンスは戻さない）
+
+SELECT setval('daily_reports_seq',
+              GREATEST((SELECT COALESCE(MAX(id), 1) FROM daily_reports), (SELECT last_value FROM daily_reports_seq)));
+
+SELECT setval('workload_rollups_seq',
+              GREATEST((SELECT COALESCE(MAX(id), 1) FROM workload_rollups), (SELECT last_value FROM workload_rollups_seq)));
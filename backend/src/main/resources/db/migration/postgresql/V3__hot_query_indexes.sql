@@ -0,0 +1,31 @@
+-- よく実行するクエリ（DailyReportRepository / IssueCommentRepository / TeamIssueJpaRepository /
+-- WorkloadRollupRepository）が大きなテーブルを全件読まないようにするインデックス
+-- 使われているかは QueryPlanCheck（benchmark-query-plans.ps1）で確認する
+
+-- 日報: ユーザーごとの一覧・日付指定の1件・期間指定（findByUser* / findUserIdAndReportDate）
+CREATE INDEX IF NOT EXISTS idx_daily_reports_user_id_report_date ON daily_reports (user_id, report_date);
+
+-- 日報: 日付ごと・期間ごとの一覧（作成日時の降順。findByReportDate* / findByReportDateBetween）
+CREATE INDEX IF NOT EXISTS idx_daily_reports_report_date_created_at ON daily_reports (report_date, created_at);
+
+-- 日報: 負荷レベルの再集計（countWorkloadLevels）。負荷レベルのある日報だけを持ち、
+-- 集計に使う列も含めるため、テーブルを読まずに数えられる（部分インデックス・カバリングインデックス）
+CREATE INDEX IF NOT EXISTS idx_daily_reports_workload_level ON daily_reports (report_date)
+    INCLUDE (user_id, workload_level) WHERE workload_level IS NOT NULL;
+
+-- 困りごと: 新しい順の一覧（findAllWithUser / findByStatusWithUser）
+CREATE INDEX IF NOT EXISTS idx_team_issues_created_at_id ON team_issues (created_at DESC, id DESC);
+
+-- 困りごと: 未解決だけの一覧（findOpenWithUser）。解決済みが増えても大きくならない（部分インデックス）
+CREATE INDEX IF NOT EXISTS idx_team_issues_open_created_at_id ON team_issues (created_at DESC, id DESC)
+    WHERE status = 'OPEN';
+
+-- コメント: 困りごとごとの一覧（作成日時の昇順）・件数。issue_id だけのインデックスは置き換える
+CREATE INDEX IF NOT EXISTS idx_issue_comments_issue_id_created_at ON issue_comments (issue_id, created_at);
+DROP INDEX IF EXISTS idx_issue_comments_issue_id;
+
+-- コメント: ユーザーごとの一覧（作成日時の降順。findByUserOrderByCreatedAtDesc）
+CREATE INDEX IF NOT EXISTS idx_issue_comments_user_id_created_at ON issue_comments (user_id, created_at);
+
+-- 負荷の集計: 再集計の期間指定の削除（deleteByPeriodStartBetween は集計単位・期間を指定しない）
+CREATE INDEX IF NOT EXISTS idx_workload_rollups_period_start_only ON workload_rollups (period_start);
@@ -0,0 +1,57 @@
+# コネクションプール 負荷試験（ピーク時の同時リクエスト数でプールが枯渇しないかを確認）
+param(
+    [string]$JdbcUrl = "jdbc:h2:mem:pool-benchmark;DB_CLOSE_DELAY=-1",
+    [string]$DbUser = "sa",
+    [string]$DbPassword = "",
+    [int]$Concurrency = 64,
+    [int]$Seconds = 10,
+    [int]$HoldMillis = 5,
+    [int]$PoolSize = 10,
+    [switch]$SkipBuild = $false
+)
+
+Write-Host "=== コネクションプール 負荷試験 ===" -ForegroundColor Green
+Write-Host "Database: $JdbcUrl" -ForegroundColor Yellow
+Write-Host "Concurrency: $Concurrency / Pool: $PoolSize / Hold: ${HoldMillis}ms / ${Seconds}s" -ForegroundColor Yellow
+Write-Host "※ pool_benchmark テーブルを作成・削除するため、PostgreSQL では計測用のデータベースを指定してください" -ForegroundColor Yellow
+Write-Host ""
+
+Push-Location (Join-Path $PSScriptRoot "backend")
+try {
+    # 1. ビルド（ConnectionPoolBenchmark は src/benchmark/java にあり、target/test-classes にコンパイルされる）
+    if (-not $SkipBuild) {
+        Write-Host "1. ビルド (mvn test-compile)" -ForegroundColor Cyan
+        mvn -B -q test-compile
+        if ($LASTEXITCODE -ne 0) { throw "ビルドに失敗しました" }
+        mvn -B -q dependency:build-classpath "-Dmdep.outputFile=target/classpath.txt" "-Dmdep.includeScope=runtime"
+        if ($LASTEXITCODE -ne 0) { throw "クラスパスの取得に失敗しました" }
+    }
+
+    $separator = [IO.Path]::PathSeparator
+    $classpath = "target/test-classes${separator}target/classes$separator" + (Get-Content "target/classpath.txt" -Raw).Trim()
+
+    # 2. 計測
+    Write-Host "2. 計測" -ForegroundColor Cyan
+    $output = java -cp $classpath com.teamdashboard.service.ConnectionPoolBenchmark $JdbcUrl $DbUser $DbPassword $Concurrency $Seconds $HoldMillis $PoolSize 2>$null
+    $line = $output | Where-Object { $_ -like '*"type":"connection-pool-benchmark"*' } | Select-Object -Last 1
+    if (-not $line) { throw "計測結果が出力されませんでした" }
+    $result = $line | ConvertFrom-Json
+} finally {
+    Pop-Location
+}
+
+# 3. 結果
+Write-Host ""
+Write-Host "3. 結果" -ForegroundColor Cyan
+Write-Host ("   {0}件/秒  p50={1}ms  p99={2}ms  max={3}ms" -f `
+    $result.requestsPerSecond, $result.p50Millis, $result.p99Millis, $result.maxMillis) -ForegroundColor Yellow
+Write-Host ("   取得待ち: 平均={0}ms  最大={1}ms  待ちスレッド最大={2}" -f `
+    $result.pool.acquire.meanMillis, $result.pool.acquire.maxMillis, $result.maxPending) -ForegroundColor Yellow
+if ($result.timeouts -gt 0) {
+    Write-Host ("   取得タイムアウト: {0}件（プールが枯渇しています）" -f $result.timeouts) -ForegroundColor Red
+} else {
+    Write-Host "   取得タイムアウト: 0件" -ForegroundColor Green
+}
+
+Write-Host ""
+Write-Host "=== 負荷試験完了 ===" -ForegroundColor Green
@@ -0,0 +1,75 @@
+# Lambda コンテナイメージの AppCDS 効果測定（CDSアーカイブ無し vs 有り）
+param(
+    [int]$Iterations = 5,
+    [string]$Path = "/health",
+    [string]$Image = "team-dashboard-lambda",
+    [switch]$SkipBuild = $false
+)
+
+Write-Host "=== Lambda AppCDS ベンチマーク ===" -ForegroundColor Green
+Write-Host "Image: $Image" -ForegroundColor Yellow
+Write-Host "Iterations: $Iterations" -ForegroundColor Yellow
+Write-Host "First request: GET $Path" -ForegroundColor Yellow
+Write-Host ""
+
+# 1. イメージビルド（トレーニング実行とアーカイブ作成を含む）
+if (-not $SkipBuild) {
+    Write-Host "1. イメージビルド (backend/Dockerfile.lambda)" -ForegroundColor Cyan
+    docker build -f backend/Dockerfile.lambda -t $Image backend
+    if ($LASTEXITCODE -ne 0) {
+        Write-Host "❌ イメージのビルドに失敗しました" -ForegroundColor Red
+        exit 1
+    }
+}
+
+# 2. 計測（ENTRYPOINTと同じクラスパスで StartupBenchmark を起動。1コンテナ＝1コールドスタート）
+#    StartupBenchmark はapp.jarに含まれないため、トレーニングと同じく cds-training.jar から --module-path で読み込む
+Write-Host "2. 計測" -ForegroundColor Cyan
+$modes = [ordered]@{
+    "no-cds"  = @("-Xshare:auto")
+    "app-cds" = @("-XX:SharedArchiveFile=/var/task/app-cds.jsa", "-Xshare:auto")
+}
+$results = @{ "no-cds" = @(); "app-cds" = @() }
+for ($i = 1; $i -le $Iterations; $i++) {
+    foreach ($mode in $modes.Keys) {
+        $jvmOptions = $modes[$mode] + @("-XX:+TieredCompilation", "-XX:TieredStopAtLevel=1")
+        $output = docker run --rm --entrypoint java $Image "@/var/task/jvm.args" @jvmOptions `
+            --module-path /var/task/cds-training/cds-training.jar `
+            -m cds.training/com.teamdashboard.lambda.benchmark.StartupBenchmark $Path 2>$null
+        $line = $output | Where-Object { $_ -like '*"type":"startup-benchmark"*' } | Select-Object -Last 1
+        if (-not $line) {
+            Write-Host "❌ [$i/$Iterations] $mode : 計測結果が出力されませんでした" -ForegroundColor Red
+            continue
+        }
+        $run = $line | ConvertFrom-Json
+        $results[$mode] += $run
+        Write-Host ("   [{0}/{1}] {2,-7} jvmToReady={3}ms context={4}ms firstRequest={5}ms" -f `
+            $i, $Iterations, $mode, $run.jvmToReadyMillis, $run.startup.budget.contextMillis, $run.firstRequestMillis) -ForegroundColor Gray
+    }
+}
+
+# 3. 集計
+function Get-Median([double[]]$values) {
+    if ($values.Count -eq 0) { return 0 }
+    $sorted = $values | Sort-Object
+    $mid = [int][Math]::Floor($sorted.Count / 2)
+    if ($sorted.Count % 2 -eq 0) { return ($sorted[$mid - 1] + $sorted[$mid]) / 2 }
+    return $sorted[$mid]
+}
+
+Write-Host ""
+Write-Host "3. 結果（中央値）" -ForegroundColor Cyan
+$metrics = [ordered]@{
+    "JVM起動→ハンドラー準備完了（Init Duration相当）" = { param($r) $r.jvmToReadyMillis }
+    "Springコンテキスト起動"                         = { param($r) $r.startup.budget.contextMillis }
+    "初回リクエスト"                                 = { param($r) $r.firstRequestMillis }
+}
+foreach ($name in $metrics.Keys) {
+    $base = Get-Median ($results["no-cds"] | ForEach-Object { & $metrics[$name] $_ })
+    $cds = Get-Median ($results["app-cds"] | ForEach-Object { & $metrics[$name] $_ })
+    $diff = if ($base -gt 0) { [Math]::Round(($base - $cds) / $base * 100, 1) } else { 0 }
+    Write-Host ("   {0}: no-cds {1}ms / app-cds {2}ms ({3}% 短縮)" -f $name, $base, $cds, $diff) -ForegroundColor Yellow
+}
+
+Write-Host ""
+Write-Host "=== ベンチマーク完了 ===" -ForegroundColor Green
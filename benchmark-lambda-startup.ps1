@@ -0,0 +1,81 @@
+# Lambda 起動ベンチマーク（通常JVM起動 vs Spring AOT起動）
+param(
+    [int]$Iterations = 5,
+    [string]$Path = "/health",
+    [switch]$SkipBuild = $false
+)
+
+Write-Host "=== Lambda 起動ベンチマーク ===" -ForegroundColor Green
+Write-Host "Iterations: $Iterations" -ForegroundColor Yellow
+Write-Host "First request: GET $Path" -ForegroundColor Yellow
+Write-Host ""
+
+Push-Location (Join-Path $PSScriptRoot "backend")
+try {
+    # 1. ビルド（-Plambda で process-aot を実行し、AOT生成クラスを target/classes に含める。
+    #    StartupBenchmark は src/benchmark/java にあり、jarには含まれず target/test-classes にコンパイルされる）
+    if (-not $SkipBuild) {
+        Write-Host "1. ビルド (mvn -Plambda package)" -ForegroundColor Cyan
+        mvn -B -q -Plambda package -DskipTests
+        if ($LASTEXITCODE -ne 0) { throw "ビルドに失敗しました" }
+        mvn -B -q dependency:build-classpath "-Dmdep.outputFile=target/classpath.txt" "-Dmdep.includeScope=runtime"
+        if ($LASTEXITCODE -ne 0) { throw "クラスパスの取得に失敗しました" }
+    }
+
+    if (-not (Test-Path "target/classes/com/teamdashboard/LambdaApplication__ApplicationContextInitializer.class")) {
+        throw "AOT生成クラスがありません。-SkipBuild を外して実行してください"
+    }
+
+    $separator = [IO.Path]::PathSeparator
+    $classpath = "target/test-classes${separator}target/classes$separator" + (Get-Content "target/classpath.txt" -Raw).Trim()
+    $env:SPRING_PROFILES_ACTIVE = "lambda,dynamodb"
+
+    # 2. 計測（1プロセス＝1コールドスタート。順序の偏りを避けるため交互に実行）
+    Write-Host "2. 計測" -ForegroundColor Cyan
+    $results = @{ plain = @(); aot = @() }
+    for ($i = 1; $i -le $Iterations; $i++) {
+        foreach ($mode in @("plain", "aot")) {
+            $env:SPRING_AOT_ENABLED = if ($mode -eq "aot") { "true" } else { "false" }
+            $output = java "-Dspring.devtools.restart.enabled=false" -cp $classpath com.teamdashboard.lambda.benchmark.StartupBenchmark $Path 2>$null
+            $line = $output | Where-Object { $_ -like '*"type":"startup-benchmark"*' } | Select-Object -Last 1
+            if (-not $line) {
+                Write-Host "❌ [$i/$Iterations] $mode : 計測結果が出力されませんでした" -ForegroundColor Red
+                continue
+            }
+            $run = $line | ConvertFrom-Json
+            $results[$mode] += $run
+            Write-Host ("   [{0}/{1}] {2,-5} jvmToReady={3}ms context={4}ms firstRequest={5}ms (status {6})" -f `
+                $i, $Iterations, $mode, $run.jvmToReadyMillis, $run.startup.budget.contextMillis, `
+                $run.firstRequestMillis, $run.firstRequestStatus) -ForegroundColor Gray
+        }
+    }
+} finally {
+    Remove-Item Env:SPRING_AOT_ENABLED -ErrorAction SilentlyContinue
+    Pop-Location
+}
+
+# 3. 集計
+function Get-Median([double[]]$values) {
+    if ($values.Count -eq 0) { return 0 }
+    $sorted = $values | Sort-Object
+    $mid = [int][Math]::Floor($sorted.Count / 2)
+    if ($sorted.Count % 2 -eq 0) { return ($sorted[$mid - 1] + $sorted[$mid]) / 2 }
+    return $sorted[$mid]
+}
+
+Write-Host ""
+Write-Host "3. 結果（中央値）" -ForegroundColor Cyan
+$metrics = [ordered]@{
+    "JVM起動→ハンドラー準備完了" = { param($r) $r.jvmToReadyMillis }
+    "Springコンテキスト起動"     = { param($r) $r.startup.budget.contextMillis }
+    "初回リクエスト"             = { param($r) $r.firstRequestMillis }
+}
+foreach ($name in $metrics.Keys) {
+    $plain = Get-Median ($results.plain | ForEach-Object { & $metrics[$name] $_ })
+    $aot = Get-Median ($results.aot | ForEach-Object { & $metrics[$name] $_ })
+    $diff = if ($plain -gt 0) { [Math]::Round(($plain - $aot) / $plain * 100, 1) } else { 0 }
+    Write-Host ("   {0}: plain {1}ms / aot {2}ms ({3}% 短縮)" -f $name, $plain, $aot, $diff) -ForegroundColor Yellow
+}
+
+Write-Host ""
+Write-Host "=== ベンチマーク完了 ===" -ForegroundColor Green
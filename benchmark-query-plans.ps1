@@ -0,0 +1,59 @@
+# リポジトリのクエリの実行計画を確認（大きなテーブルを全件読み（Seq Scan）していないか）
+param(
+    [string]$JdbcUrl = "jdbc:postgresql://localhost:5432/team_dashboard",
+    [string]$DbUser = "postgres",
+    [string]$DbPassword = "postgres",
+    [int]$Reports = 200000,
+    [switch]$SkipBuild = $false
+)
+
+Write-Host "=== クエリの実行計画の確認 ===" -ForegroundColor Green
+Write-Host "Database: $JdbcUrl" -ForegroundColor Yellow
+Write-Host "Reports: $Reports" -ForegroundColor Yellow
+Write-Host "※ query_plan_check スキーマを削除して作り直します" -ForegroundColor Yellow
+Write-Host ""
+
+Push-Location (Join-Path $PSScriptRoot "backend")
+try {
+    # 1. ビルド（QueryPlanCheck は src/benchmark/java にあり、target/test-classes にコンパイルされる）
+    if (-not $SkipBuild) {
+        Write-Host "1. ビルド (mvn test-compile)" -ForegroundColor Cyan
+        mvn -B -q test-compile
+        if ($LASTEXITCODE -ne 0) { throw "ビルドに失敗しました" }
+        mvn -B -q dependency:build-classpath "-Dmdep.outputFile=target/classpath.txt" "-Dmdep.includeScope=runtime"
+        if ($LASTEXITCODE -ne 0) { throw "クラスパスの取得に失敗しました" }
+    }
+
+    $separator = [IO.Path]::PathSeparator
+    $classpath = "target/test-classes${separator}target/classes$separator" + (Get-Content "target/classpath.txt" -Raw).Trim()
+
+    # 2. マイグレーション・データ作成・実行計画の確認
+    Write-Host "2. マイグレーション・データ作成・実行計画の確認" -ForegroundColor Cyan
+    $output = java -cp $classpath com.teamdashboard.service.QueryPlanCheck $JdbcUrl $DbUser $DbPassword $Reports 2>$null
+    $line = $output | Where-Object { $_ -like '*"type":"query-plan-check"*' } | Select-Object -Last 1
+    if (-not $line) { throw "確認結果が出力されませんでした（マイグレーションまたはエンティティとの照合に失敗した可能性があります）" }
+    $result = $line | ConvertFrom-Json
+} finally {
+    Pop-Location
+}
+
+# 3. 結果
+Write-Host ""
+Write-Host "3. 結果" -ForegroundColor Cyan
+foreach ($check in $result.checks) {
+    if ($check.seqScans.Count -gt 0) {
+        Write-Host ("   NG {0}  Seq Scan: {1}" -f $check.query, ($check.seqScans -join ", ")) -ForegroundColor Red
+        foreach ($sql in $check.sql) {
+            Write-Host "      $sql" -ForegroundColor DarkGray
+        }
+    } else {
+        Write-Host ("   OK {0}  {1}" -f $check.query, ($check.indexes -join ", ")) -ForegroundColor Green
+    }
+}
+
+Write-Host ""
+if ($result.failures -gt 0) {
+    Write-Host ("=== {0}件のクエリが大きなテーブルを全件読みしています ===" -f $result.failures) -ForegroundColor Red
+    exit 1
+}
+Write-Host "=== 確認完了（全件読みなし） ===" -ForegroundColor Green
@@ -0,0 +1,49 @@
+# リアルタイム通知 ブロードキャスト ベンチマーク（Simple Broker + STOMP、WebSocketサーバーなし）
+param(
+    [int]$Sessions = 1000,
+    [int]$Notifications = 200,
+    [int]$Users = 20,
+    [int]$Rounds = 10,
+    [switch]$SkipBuild = $false
+)
+
+Write-Host "=== ブロードキャスト ベンチマーク ===" -ForegroundColor Green
+Write-Host "Sessions: $Sessions / Notifications: $Notifications (users: $Users) / Rounds: $Rounds" -ForegroundColor Yellow
+Write-Host ""
+
+Push-Location (Join-Path $PSScriptRoot "backend")
+try {
+    # 1. ビルド（RealtimeBroadcastBenchmark は src/benchmark/java にあり、target/test-classes にコンパイルされる）
+    if (-not $SkipBuild) {
+        Write-Host "1. ビルド (mvn test-compile)" -ForegroundColor Cyan
+        mvn -B -q test-compile
+        if ($LASTEXITCODE -ne 0) { throw "ビルドに失敗しました" }
+        mvn -B -q dependency:build-classpath "-Dmdep.outputFile=target/classpath.txt" "-Dmdep.includeScope=runtime"
+        if ($LASTEXITCODE -ne 0) { throw "クラスパスの取得に失敗しました" }
+    }
+
+    $separator = [IO.Path]::PathSeparator
+    $classpath = "target/test-classes${separator}target/classes$separator" + (Get-Content "target/classpath.txt" -Raw).Trim()
+
+    # 2. 計測
+    Write-Host "2. 計測" -ForegroundColor Cyan
+    $output = java -cp $classpath com.teamdashboard.service.RealtimeBroadcastBenchmark $Sessions $Notifications $Users $Rounds 2>$null
+    $line = $output | Where-Object { $_ -like '*"type":"realtime-broadcast-benchmark"*' } | Select-Object -Last 1
+    if (-not $line) { throw "計測結果が出力されませんでした" }
+    $result = $line | ConvertFrom-Json
+} finally {
+    Pop-Location
+}
+
+# 3. 結果
+Write-Host ""
+Write-Host "3. 結果（1ラウンドあたり、中央値）" -ForegroundColor Cyan
+foreach ($scenario in $result.results.PSObject.Properties) {
+    $r = $scenario.Value
+    Write-Host ("   {0,-10} {1,8}ms  broker={2,4}  frames={3,7}  bytes={4,10}  serializations={5}" -f `
+        $scenario.Name, $r.medianMillis, $r.brokerMessagesPerRound, $r.framesPerRound, $r.frameBytesPerRound, `
+        ($r.converterSerializationsPerRound + [long]$r.pipelineSerializationsPerRound)) -ForegroundColor Yellow
+}
+
+Write-Host ""
+Write-Host "=== ベンチマーク完了 ===" -ForegroundColor Green
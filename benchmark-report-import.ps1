@@ -0,0 +1,52 @@
+# 日報 一括取り込み ベンチマーク（1件ずつの保存と DailyReportImportService の比較）
+param(
+    [string]$JdbcUrl = "jdbc:h2:mem:import-benchmark;DB_CLOSE_DELAY=-1",
+    [string]$DbUser = "sa",
+    [string]$DbPassword = "",
+    [int]$Reports = 5000,
+    [int]$Users = 100,
+    [int]$Rounds = 1,
+    [switch]$SkipBuild = $false
+)
+
+Write-Host "=== 日報 一括取り込み ベンチマーク ===" -ForegroundColor Green
+Write-Host "Database: $JdbcUrl" -ForegroundColor Yellow
+Write-Host "Reports: $Reports (users: $Users) / Rounds: $Rounds" -ForegroundColor Yellow
+Write-Host "※ 毎回スキーマを作り直すため、PostgreSQL では計測用のデータベースを指定してください" -ForegroundColor Yellow
+Write-Host ""
+
+Push-Location (Join-Path $PSScriptRoot "backend")
+try {
+    # 1. ビルド（DailyReportImportBenchmark は src/benchmark/java にあり、target/test-classes にコンパイルされる）
+    if (-not $SkipBuild) {
+        Write-Host "1. ビルド (mvn test-compile)" -ForegroundColor Cyan
+        mvn -B -q test-compile
+        if ($LASTEXITCODE -ne 0) { throw "ビルドに失敗しました" }
+        mvn -B -q dependency:build-classpath "-Dmdep.outputFile=target/classpath.txt" "-Dmdep.includeScope=runtime"
+        if ($LASTEXITCODE -ne 0) { throw "クラスパスの取得に失敗しました" }
+    }
+
+    $separator = [IO.Path]::PathSeparator
+    $classpath = "target/test-classes${separator}target/classes$separator" + (Get-Content "target/classpath.txt" -Raw).Trim()
+
+    # 2. 計測
+    Write-Host "2. 計測" -ForegroundColor Cyan
+    $output = java -cp $classpath com.teamdashboard.service.DailyReportImportBenchmark $JdbcUrl $DbUser $DbPassword $Reports $Users $Rounds 2>$null
+    $line = $output | Where-Object { $_ -like '*"type":"report-import-benchmark"*' } | Select-Object -Last 1
+    if (-not $line) { throw "計測結果が出力されませんでした" }
+    $result = $line | ConvertFrom-Json
+} finally {
+    Pop-Location
+}
+
+# 3. 結果
+Write-Host ""
+Write-Host "3. 結果（中央値）" -ForegroundColor Cyan
+foreach ($scenario in $result.results.PSObject.Properties) {
+    $r = $scenario.Value
+    Write-Host ("   {0,-7} {1,10}ms  {2,7}件/秒  statements={3,7}  roundTrips={4,7}" -f `
+        $scenario.Name, $r.medianMillis, $r.reportsPerSecond, $r.preparedStatements, $r.jdbcRoundTrips) -ForegroundColor Yellow
+}
+
+Write-Host ""
+Write-Host "=== ベンチマーク完了 ===" -ForegroundColor Green
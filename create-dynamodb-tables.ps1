@@ -48,6 +48,7 @@ try {
             --attribute-definitions AttributeName=userId,AttributeType=S `
             --key-schema AttributeName=userId,KeyType=HASH `
             --provisioned-throughput ReadCapacityUnits=5,WriteCapacityUnits=5 `
+            --stream-specification StreamEnabled=true,StreamViewType=NEW_AND_OLD_IMAGES `
             --region $Region `
             --output json
         
@@ -88,6 +89,7 @@ try {
             --attribute-definitions AttributeName=issueId,AttributeType=S `
             --key-schema AttributeName=issueId,KeyType=HASH `
             --provisioned-throughput ReadCapacityUnits=5,WriteCapacityUnits=5 `
+            --stream-specification StreamEnabled=true,StreamViewType=NEW_AND_OLD_IMAGES `
             --region $Region `
             --output json
         
@@ -38,6 +38,19 @@ class APIClient {
         return null;
     }
 
+    /**
+     * 部署が未指定の場合はログイン中のユーザーの部署を付ける（サーバーは部署トピックに通知する）
+     */
+    async withDepartment(data) {
+        if (!data || data.department) {
+            return data;
+        }
+        const user = await this.getCurrentUser();
+        const attributes = (user && user.attributes) || {};
+        const department = attributes['custom:department'] || attributes.department || window.USER_DEPARTMENT;
+        return department ? { ...data, department } : data;
+    }
+
     /**
      * モックデータを返すフォールバック機能
      */
@@ -349,7 +362,7 @@ class APIClient {
         this.setLoading(key, true);
         
         try {
-            const result = await this.post('/workload-status', workloadData);
+            const result = await this.post('/workload-status', await this.withDepartment(workloadData));
             
             // 基本的な成功通知（詳細な通知はDataManagerで行う）
             if (typeof showSuccessNotification === 'function') {
@@ -396,7 +409,7 @@ class APIClient {
         this.setLoading(key, true);
         
         try {
-            const result = await this.post('/team-issues', issueData);
+            const result = await this.post('/team-issues', await this.withDepartment(issueData));
             
             // 基本的な成功通知（詳細な通知はDataManagerで行う）
             if (typeof showSuccessNotification === 'function') {
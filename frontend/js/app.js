@@ -282,11 +282,24 @@ function createWorkloadCard(status) {
     return card;
 }
 
+// 日報一覧をすべてのページ分取得（サーバーは X-Next-Cursor ヘッダーで続きの位置を返す）
+async function fetchAllReportPages(url) {
+    const reports = [];
+    let cursor = null;
+    do {
+        const separator = url.includes('?') ? '&' : '?';
+        const response = await fetch(cursor ? `${url}${separator}after=${encodeURIComponent(cursor)}` : url);
+        reports.push(...await response.json());
+        cursor = response.headers.get('X-Next-Cursor');
+    } while (cursor);
+    return reports;
+}
+
 // チーム状況読み込み
 async function loadTeamStatus() {
     try {
-        const response = await fetch(`${API_BASE_URL}/reports/recent?days=1`);
-        const reports = await response.json();
+        // ユーザーごとの状況を出すため、今日の日報はすべて読む
+        const reports = await fetchAllReportPages(`${API_BASE_URL}/reports/recent?days=1&limit=500`);
         
         const statusCards = document.getElementById('teamStatusCards');
         statusCards.innerHTML = '';
@@ -333,7 +346,7 @@ function createStatusCard(report) {
 async function loadRecentReports() {
     try {
         const filterValue = dateFilter.value;
-        let url = `${API_BASE_URL}/reports/recent?days=7`;
+        let url = `${API_BASE_URL}/reports/recent?days=7&limit=500`;
         
         if (filterValue === 'today') {
             const today = new Date().toISOString().split('T')[0];
@@ -344,8 +357,8 @@ async function loadRecentReports() {
             url = `${API_BASE_URL}/reports/date/${yesterday.toISOString().split('T')[0]}`;
         }
         
-        const response = await fetch(url);
-        const reports = await response.json();
+        // 直近7日分は複数ページになるため、続きのページも読む
+        const reports = await fetchAllReportPages(url);
         
         const reportsList = document.getElementById('recentReportsList');
         reportsList.innerHTML = '';
@@ -490,8 +503,8 @@ async function renderCalendar() {
     
     let reports = [];
     try {
-        const response = await fetch(`${API_BASE_URL}/reports/recent?days=42`);
-        reports = await response.json();
+        // 日ごとの件数を数えるため、6週間分の日報をすべてのページ分読む
+        reports = await fetchAllReportPages(`${API_BASE_URL}/reports/recent?days=42&limit=500`);
     } catch (error) {
         console.error('カレンダーデータ取得エラー:', error);
     }
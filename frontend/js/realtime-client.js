@@ -5,13 +5,30 @@
 
 class RealtimeClient {
     constructor() {
+        // 'stomp'（SockJS/STOMP）、'sse'（Server-Sent Events: /api/events）
+        // または 'apigateway'（Lambda構成: API Gateway WebSocket API、接続先は window.REALTIME_WEBSOCKET_URL）
+        this.transport = window.REALTIME_TRANSPORT || 'stomp';
         this.stompClient = null;
+        this.eventSource = null;
+        this.socket = null;
+        this.pingTimer = null;
+        // API Gatewayはアイドル状態が10分続くと切断するため、それより短い間隔で ping を送る
+        this.pingInterval = 5 * 60 * 1000;
         this.isConnected = false;
         this.reconnectAttempts = 0;
         this.maxReconnectAttempts = 5;
         this.reconnectDelay = 1000; // 1秒
         this.eventHandlers = new Map();
         this.connectionListeners = [];
+        // 最後に受け取ったバッチの連番（STOMPの seq ヘッダー）。再接続時にサーバーへ送り、取りこぼし分だけを受け取る
+        this.lastSequence = null;
+        // 再送と通常の配信で同じバッチを二重に処理しないよう、直近の連番を覚えておく
+        this.recentSequences = new Set();
+        this.maxRecentSequences = 1000;
+        // 再送の完了まで通常の配信を溜めておく（古いバッチで新しい状態を上書きしないため）
+        this.pendingMessages = null;
+        this.replayTimer = null;
+        this.replayTimeout = 5000;
         
         // WebSocketライブラリの読み込み確認
         this.checkDependencies();
@@ -21,6 +38,9 @@ class RealtimeClient {
      * 依存関係の確認
      */
     checkDependencies() {
+        if (this.transport === 'sse' || this.transport === 'apigateway') {
+            return;
+        }
         if (typeof SockJS === 'undefined' || typeof Stomp === 'undefined') {
             console.warn('SockJS or STOMP library not loaded. Loading from CDN...');
             this.loadDependencies();
@@ -53,6 +73,16 @@ class RealtimeClient {
             return;
         }
 
+        if (this.transport === 'sse') {
+            this.connectEventSource();
+            return;
+        }
+
+        if (this.transport === 'apigateway') {
+            this.connectApiGateway();
+            return;
+        }
+
         try {
             // WebSocketエンドポイントURL
             const wsUrl = this.getWebSocketUrl();
@@ -69,8 +99,8 @@ class RealtimeClient {
                 }
             };
 
-            // 接続
-            this.stompClient.connect({}, 
+            // 接続（オンライン状態の管理用にユーザー情報をCONNECTヘッダーで送る）
+            this.stompClient.connect(this.getConnectHeaders(), 
                 (frame) => this.onConnected(frame),
                 (error) => this.onError(error)
             );
@@ -81,6 +111,124 @@ class RealtimeClient {
         }
     }
 
+    /**
+     * STOMPのCONNECTヘッダー（ログイン中のユーザーID・表示名）
+     */
+    getConnectHeaders() {
+        const user = window.authManager ? window.authManager.currentUser : null;
+        if (!user || !user.username) {
+            return {};
+        }
+        const headers = { userId: user.username };
+        const displayName = user.attributes && user.attributes.name;
+        if (displayName) {
+            headers.displayName = displayName;
+        }
+        const department = this.getDepartment();
+        if (department) {
+            headers.department = department;
+        }
+        return headers;
+    }
+
+    /**
+     * ログイン中のユーザーの部署（部署トピックの購読に使う）
+     */
+    getDepartment() {
+        const user = window.authManager ? window.authManager.currentUser : null;
+        const attributes = (user && user.attributes) || {};
+        const department = attributes['custom:department'] || attributes.department || window.USER_DEPARTMENT;
+        return department && department.trim() ? department.trim() : null;
+    }
+
+    /**
+     * 部署トピックの宛先（サーバーの RealtimeTopics.forDepartment と同じ規則）
+     */
+    departmentTopic(topic, department) {
+        const key = encodeURIComponent(department.trim().toLowerCase())
+            .replace(/[!'()*~]/g, (c) => '%' + c.charCodeAt(0).toString(16).toUpperCase())
+            .replace(/%20/g, '+');
+        return `${topic}.dept.${key}`;
+    }
+
+    /**
+     * Server-Sent Eventsで接続を開始
+     * 切断時はEventSourceが Last-Event-ID を付けて自動再接続し、サーバーが取りこぼし分を再送する
+     */
+    connectEventSource() {
+        const department = this.getDepartment();
+        const url = this.getWebSocketUrl().replace(/\/ws$/, '/api/events')
+            + (department ? `?department=${encodeURIComponent(department)}` : '');
+        console.log('Connecting to event stream:', url);
+
+        this.eventSource = new EventSource(url);
+        this.eventStreamSubscribed = false;
+        this.eventSource.onopen = () => {
+            if (!this.isConnected) {
+                this.onConnected('event-stream');
+            }
+        };
+        this.eventSource.onerror = () => {
+            if (this.isConnected) {
+                // EventSourceが自動で再接続するため、状態表示だけ更新する
+                this.isConnected = false;
+                this.notifyConnectionListeners(false);
+            }
+        };
+    }
+
+    /**
+     * API Gateway WebSocket APIに接続する（Lambda構成）
+     * ブラウザのWebSocketはヘッダーを付けられないため、ユーザー情報は接続URLのクエリで送る。
+     * サーバーは負荷状況・困りごとの通知を部署で絞り込み、JSON配列で送ってくる
+     */
+    connectApiGateway() {
+        const params = new URLSearchParams(this.getConnectHeaders());
+        const url = window.REALTIME_WEBSOCKET_URL + (params.toString() ? `?${params}` : '');
+        console.log('Connecting to API Gateway WebSocket:', window.REALTIME_WEBSOCKET_URL);
+
+        const socket = new WebSocket(url);
+        this.socket = socket;
+        socket.onopen = () => {
+            this.onConnected('api-gateway');
+            this.pingTimer = setInterval(() => {
+                if (socket.readyState === WebSocket.OPEN) {
+                    socket.send(JSON.stringify({ action: 'ping' }));
+                }
+            }, this.pingInterval);
+        };
+        socket.onmessage = (event) => {
+            this.parseBatch({ body: event.data }).forEach((data) => this.dispatchNotification(data));
+        };
+        socket.onclose = () => {
+            clearInterval(this.pingTimer);
+            this.pingTimer = null;
+            if (this.socket !== socket) {
+                return;
+            }
+            // disconnect() 以外で閉じられた場合（2時間の接続上限・ネットワーク断等）は再接続する
+            this.socket = null;
+            this.isConnected = false;
+            this.notifyConnectionListeners(false);
+            this.scheduleReconnect();
+        };
+    }
+
+    /**
+     * 通知の種類（type）ごとに処理を振り分ける
+     */
+    dispatchNotification(data) {
+        if (data.type === 'WORKLOAD_STATUS_UPDATE') {
+            this.handleWorkloadUpdate(data);
+        } else if (data.type && data.type.startsWith('TEAM_ISSUE_')) {
+            this.handleIssueUpdate(data);
+        } else if (data.type === 'USER_CONNECTION_STATUS') {
+            this.handleUserStatusUpdate(data);
+        } else if (data.type !== 'PONG') {
+            this.handleSystemMessage(data);
+        }
+    }
+
     /**
      * WebSocketエンドポイントURLを取得
      */
@@ -131,33 +279,174 @@ class RealtimeClient {
      * トピックを購読
      */
     subscribeToTopics() {
-        // 負荷状況の更新を購読
-        this.stompClient.subscribe('/topic/workload-updates', (message) => {
-            const data = JSON.parse(message.body);
-            this.handleWorkloadUpdate(data);
-        });
+        if (this.transport === 'sse') {
+            this.subscribeToEventStream();
+            return;
+        }
+        if (this.transport === 'apigateway') {
+            // 購読はなく、接続時のクエリ（部署）でサーバーが送る通知を決める
+            return;
+        }
 
-        // 困りごとの更新を購読
-        this.stompClient.subscribe('/topic/issue-updates', (message) => {
-            const data = JSON.parse(message.body);
-            this.handleIssueUpdate(data);
+        // 再接続の場合は、購読を始めてから取りこぼし分の再送を要求する（再送が終わるまで通常の配信は溜めておく）
+        const resubscribing = this.lastSequence !== null;
+        this.pendingMessages = resubscribing ? [] : null;
+
+        // 負荷状況・困りごとの更新を購読（部署未設定の更新は全体トピック、部署の更新は部署トピックに届く）
+        const department = this.getDepartment();
+        const withDepartment = (topic) => department ? [topic, this.departmentTopic(topic, department)] : [topic];
+        withDepartment('/topic/workload-updates').forEach((destination) => {
+            this.stompClient.subscribe(destination, (message) => this.receiveBatch('/topic/workload-updates', message));
+        });
+        withDepartment('/topic/issue-updates').forEach((destination) => {
+            this.stompClient.subscribe(destination, (message) => this.receiveBatch('/topic/issue-updates', message));
         });
 
         // システムメッセージを購読
         this.stompClient.subscribe('/topic/system-messages', (message) => {
-            const data = JSON.parse(message.body);
-            this.handleSystemMessage(data);
+            this.receiveBatch('/topic/system-messages', message);
         });
 
         // ユーザーステータスを購読
         this.stompClient.subscribe('/topic/user-status', (message) => {
-            const data = JSON.parse(message.body);
-            this.handleUserStatusUpdate(data);
+            this.receiveBatch('/topic/user-status', message);
         });
 
+        // 取りこぼし分の再送（このセッションにだけ届く。topic ヘッダーが元の宛先）
+        this.stompClient.subscribe('/user/queue/replay', (message) => this.receiveReplay(message));
+        if (resubscribing) {
+            this.stompClient.send('/app/resubscribe', {}, JSON.stringify({ lastSequence: this.lastSequence }));
+            // 応答がない場合も通常の配信を止めたままにしない
+            clearTimeout(this.replayTimer);
+            this.replayTimer = setTimeout(() => this.finishReplay(), this.replayTimeout);
+        }
+
         console.log('Subscribed to all topics');
     }
 
+    /**
+     * トピックに届いたバッチを処理する（再送の完了待ちの間は溜めておく）
+     */
+    receiveBatch(topic, message) {
+        if (this.pendingMessages) {
+            this.pendingMessages.push({ topic, message });
+            return;
+        }
+        this.processBatch(topic, message);
+    }
+
+    /**
+     * 連番を記録し、未処理のバッチだけをトピックごとの処理に渡す
+     */
+    processBatch(topic, message) {
+        const sequence = this.getSequence(message);
+        if (sequence !== null) {
+            if (this.recentSequences.has(sequence)) {
+                return;
+            }
+            this.rememberSequence(sequence);
+        }
+        const handlers = {
+            '/topic/workload-updates': (data) => this.handleWorkloadUpdate(data),
+            '/topic/issue-updates': (data) => this.handleIssueUpdate(data),
+            '/topic/system-messages': (data) => this.handleSystemMessage(data),
+            '/topic/user-status': (data) => this.handleUserStatusUpdate(data)
+        };
+        const handler = handlers[topic];
+        if (handler) {
+            this.parseBatch(message).forEach(handler);
+        }
+    }
+
+    /**
+     * 再送されたバッチ、または再送の終了（REPLAY_COMPLETE）・取りこぼしを埋められない通知（RESET）を処理する
+     */
+    receiveReplay(message) {
+        const body = JSON.parse(message.body);
+        if (Array.isArray(body)) {
+            this.processBatch(message.headers.topic, message);
+            return;
+        }
+        const sequence = this.getSequence(message);
+        if (sequence !== null && (this.lastSequence === null || sequence > this.lastSequence)) {
+            this.lastSequence = sequence;
+        }
+        if (body.type === 'RESET') {
+            // 再接続までの間の取りこぼしを埋められないため、画面側で最新データを読み直す
+            this.triggerEvent('resync', {});
+        }
+        this.finishReplay();
+    }
+
+    /**
+     * 再送の完了待ちの間に溜めたバッチを処理する（再送済みのバッチは連番で除かれる）
+     */
+    finishReplay() {
+        clearTimeout(this.replayTimer);
+        this.replayTimer = null;
+        const pending = this.pendingMessages || [];
+        this.pendingMessages = null;
+        pending.forEach(({ topic, message }) => this.processBatch(topic, message));
+    }
+
+    /**
+     * STOMPヘッダー seq の連番（付いていないメッセージは null）
+     */
+    getSequence(message) {
+        const value = message.headers && message.headers.seq;
+        return value !== undefined && value !== null ? Number(value) : null;
+    }
+
+    rememberSequence(sequence) {
+        this.recentSequences.add(sequence);
+        if (this.recentSequences.size > this.maxRecentSequences) {
+            // Set は追加順に列挙されるため、先頭が最も古い連番
+            this.recentSequences.delete(this.recentSequences.values().next().value);
+        }
+        if (this.lastSequence === null || sequence > this.lastSequence) {
+            this.lastSequence = sequence;
+        }
+    }
+
+    /**
+     * SSEのイベント（イベント名＝トピック名）を購読
+     */
+    subscribeToEventStream() {
+        // 自動再接続のたびに onopen が呼ばれるため、リスナーの登録は1回だけにする
+        if (this.eventStreamSubscribed) {
+            return;
+        }
+        this.eventStreamSubscribed = true;
+
+        const handlers = {
+            'workload-updates': (data) => this.handleWorkloadUpdate(data),
+            'issue-updates': (data) => this.handleIssueUpdate(data),
+            'system-messages': (data) => this.handleSystemMessage(data),
+            'user-status': (data) => this.handleUserStatusUpdate(data)
+        };
+        Object.entries(handlers).forEach(([name, handler]) => {
+            this.eventSource.addEventListener(name, (event) => {
+                this.parseBatch({ body: event.data }).forEach(handler);
+            });
+        });
+
+        // 再接続までの間に取りこぼしが発生した場合は、画面側で最新データを読み直す
+        this.eventSource.addEventListener('reset', () => {
+            this.triggerEvent('resync', {});
+        });
+
+        console.log('Subscribed to event stream');
+    }
+
+    /**
+     * メッセージ本文を通知の配列として取り出す
+     * サーバーは一定間隔ごとに通知を配列にまとめて送信する（単一オブジェクトも受け付ける）
+     */
+    parseBatch(message) {
+        const body = JSON.parse(message.body);
+        return Array.isArray(body) ? body : [body];
+    }
+
     /**
      * 負荷状況更新の処理
      */
@@ -417,6 +706,21 @@ class RealtimeClient {
      * 接続を切断
      */
     disconnect() {
+        if (this.socket) {
+            const socket = this.socket;
+            this.socket = null;
+            socket.close();
+            this.isConnected = false;
+            this.notifyConnectionListeners(false);
+            return;
+        }
+        if (this.eventSource) {
+            this.eventSource.close();
+            this.eventSource = null;
+            this.isConnected = false;
+            this.notifyConnectionListeners(false);
+            return;
+        }
         if (this.stompClient && this.isConnected) {
             this.stompClient.disconnect(() => {
                 console.log('Disconnected from WebSocket');